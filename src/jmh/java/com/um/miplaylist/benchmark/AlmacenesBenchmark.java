@@ -0,0 +1,121 @@
+package com.um.miplaylist.benchmark;
+
+import com.um.miplaylist.config.PlaylistProperties;
+import com.um.miplaylist.model.Pagina;
+import com.um.miplaylist.model.PuestoRanking;
+import com.um.miplaylist.model.Video;
+import com.um.miplaylist.service.VideoService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * La misma carga sobre el servicio con cada almacén ({@code playlist.almacen.tipo}), para comparar
+ * los motores entre sí: lecturas por ID y por página, likes, ranking (los primeros y el puesto del
+ * primero y del último), búsqueda y altas con baja.
+ * Un almacén nuevo se compara agregándolo a {@link PlaylistProperties.TipoAlmacen}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class AlmacenesBenchmark {
+
+    @Param({"MEMORIA", "FUERA_DEL_HEAP"})
+    public PlaylistProperties.TipoAlmacen tipo;
+
+    @Param({"100000", "1000000"})
+    public int cantidad;
+
+    private VideoServiceBenchmark.Servicio servicio;
+    private final AtomicInteger altas = new AtomicInteger();
+
+    @Setup(Level.Trial)
+    public void preparar() throws IOException {
+        servicio = new VideoServiceBenchmark.Servicio(cantidad, PlaylistProperties.ModoPersistencia.DIFERIDO, tipo);
+    }
+
+    @TearDown(Level.Trial)
+    public void limpiar() throws IOException {
+        servicio.close();
+    }
+
+    @Benchmark
+    public Optional<Video> buscarPorId() {
+        return servicio.get().buscarPorId(idAlAzar());
+    }
+
+    @Benchmark
+    public boolean darLike() {
+        return servicio.get().incrementarLikes(idAlAzar());
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public Pagina listarPagina() {
+        return servicio.get().listarPagina(ThreadLocalRandom.current().nextLong(cantidad), VideoService.TAMANO_PAGINA_POR_DEFECTO);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public List<PuestoRanking> masGustados() {
+        return servicio.get().listarMasGustados(VideoService.RANKING_POR_DEFECTO);
+    }
+
+    /**
+     * Puesto del primero del ranking ({@link Datos} le da 999 likes al video 999).
+     */
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public Optional<PuestoRanking> puestoPrimero() {
+        return servicio.get().buscarPuestoEnRanking(999L);
+    }
+
+    /**
+     * Puesto del último del ranking: el de mayor ID entre los que tienen 0 likes, detrás de toda la playlist.
+     */
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public Optional<PuestoRanking> puestoUltimo() {
+        return servicio.get().buscarPuestoEnRanking(cantidad / 1000 * 1000L);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public List<Video> buscarPorNombre() {
+        return servicio.get().buscarPorNombre("Canción " + ThreadLocalRandom.current().nextInt(1, 100), null);
+    }
+
+    /**
+     * Alta de un video nuevo y su baja, para que la playlist no crezca durante la medición.
+     */
+    @Benchmark
+    public boolean agregarYEliminar() {
+        int n = cantidad + altas.incrementAndGet();
+        Video video = servicio.get().agregarVideo(new Video(null, "Nuevo " + n, Datos.link(n)));
+        return servicio.get().eliminarVideo(video.getId());
+    }
+
+    private long idAlAzar() {
+        return ThreadLocalRandom.current().nextLong(1, cantidad + 1);
+    }
+}
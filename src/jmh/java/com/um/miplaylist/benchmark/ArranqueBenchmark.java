@@ -0,0 +1,83 @@
+package com.um.miplaylist.benchmark;
+
+import com.um.miplaylist.MiPlaylistApplication;
+import com.um.miplaylist.config.PlaylistProperties.FormatoArchivo;
+import com.um.miplaylist.repository.VideoRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tiempo de arranque en frío de {@link MiPlaylistApplication} con un snapshot existente,
+ * comparando el formato JSON con el binario mapeado en memoria.
+ * <p>
+ * Cada fork es una JVM nueva que arranca la aplicación una sola vez, así que la medición
+ * incluye la carga de clases y el JIT frío, igual que un arranque real.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 0)
+@Measurement(iterations = 1)
+@Fork(5)
+@State(Scope.Benchmark)
+public class ArranqueBenchmark {
+
+    @Param({"JSON", "BINARIO"})
+    public FormatoArchivo formato;
+
+    @Param({"1000", "100000"})
+    public int cantidad;
+
+    private Path directorio;
+    private Path archivo;
+    private ConfigurableApplicationContext contexto;
+
+    @Setup(Level.Trial)
+    public void preparar() throws IOException {
+        directorio = Files.createTempDirectory("bench-arranque");
+        archivo = directorio.resolve("playlist.datos");
+        new VideoRepository(archivo.toString(), formato, false).guardar(Datos.videos(cantidad));
+    }
+
+    @TearDown(Level.Iteration)
+    public void detener() {
+        if (contexto != null) {
+            contexto.close();
+            contexto = null;
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void limpiar() throws IOException {
+        Datos.borrarDirectorio(directorio);
+    }
+
+    @Benchmark
+    public ConfigurableApplicationContext arrancar() {
+        contexto = SpringApplication.run(MiPlaylistApplication.class,
+                "--server.port=0",
+                "--spring.main.banner-mode=off",
+                "--logging.level.root=warn",
+                "--playlist.persistencia.modo=sincrono",
+                "--playlist.persistencia.archivo=" + archivo,
+                "--playlist.persistencia.formato=" + formato);
+        return contexto;
+    }
+}
@@ -0,0 +1,117 @@
+package com.um.miplaylist.benchmark;
+
+import com.um.miplaylist.model.Video;
+import com.um.miplaylist.store.VideoStore;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Búsqueda por nombre en el índice invertido con 100k/1M videos de nombres variados
+ * (un artista de dos palabras y un título de una a tres, tomadas de vocabularios de 5000 y 20000 palabras).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BusquedaBenchmark {
+
+    private static final String[] SILABAS = {
+        "ba", "lo", "ri", "ta", "mu", "sa", "ne", "ko", "di", "ve", "ra", "chi", "ñu", "lé", "gon",
+        "tre", "pa", "mí", "zu", "fel", "an", "sol", "cor", "bel", "ix", "ma", "ro", "qui", "tú", "del"
+    };
+    private static final int CONSULTAS = 1024;
+
+    @Param({"100000", "1000000"})
+    public int cantidad;
+
+    private VideoStore store;
+    private String[] terminos;
+    private String[] prefijos;
+    private String[] artistaYPrefijo;
+    private int siguiente;
+
+    @Setup(Level.Trial)
+    public void preparar() {
+        Random azar = new Random(42);
+        String[] artistas = vocabulario(azar, 5_000);
+        String[] palabras = vocabulario(azar, 20_000);
+
+        store = new VideoStore();
+        terminos = new String[CONSULTAS];
+        prefijos = new String[CONSULTAS];
+        artistaYPrefijo = new String[CONSULTAS];
+        for (int i = 1; i <= cantidad; i++) {
+            String artista = artistas[azar.nextInt(artistas.length)] + " " + artistas[azar.nextInt(artistas.length)];
+            StringBuilder titulo = new StringBuilder(palabras[azar.nextInt(palabras.length)]);
+            for (int j = azar.nextInt(3); j > 0; j--) {
+                titulo.append(' ').append(palabras[azar.nextInt(palabras.length)]);
+            }
+            store.agregar(new Video((long) i, artista + " - " + titulo, Datos.link(i), azar.nextInt(1000), false));
+
+            int consulta = i % CONSULTAS;
+            if (i <= CONSULTAS) {
+                String primera = titulo.toString().split(" ")[0];
+                terminos[consulta] = primera;
+                prefijos[consulta] = primera.substring(0, Math.min(3, primera.length()));
+                artistaYPrefijo[consulta] = artista.split(" ")[0] + " " + prefijos[consulta];
+            }
+        }
+    }
+
+    private static String[] vocabulario(Random azar, int cantidad) {
+        String[] palabras = new String[cantidad];
+        for (int i = 0; i < cantidad; i++) {
+            StringBuilder palabra = new StringBuilder();
+            for (int j = 2 + azar.nextInt(3); j > 0; j--) {
+                palabra.append(SILABAS[azar.nextInt(SILABAS.length)]);
+            }
+            palabras[i] = azar.nextBoolean() ? palabra.toString() : Character.toUpperCase(palabra.charAt(0)) + palabra.substring(1);
+        }
+        return palabras;
+    }
+
+    private int proxima() {
+        siguiente = (siguiente + 1) % CONSULTAS;
+        return siguiente;
+    }
+
+    /** Un término completo del título. */
+    @Benchmark
+    public List<Video> terminoCompleto() {
+        return store.buscarPorNombre(terminos[proxima()], 20);
+    }
+
+    /** Las tres primeras letras de un término: se expande a todos los términos con ese prefijo. */
+    @Benchmark
+    public List<Video> prefijo() {
+        return store.buscarPorNombre(prefijos[proxima()], 20);
+    }
+
+    /** Un término del artista y un prefijo del título, como al escribir en un buscador. */
+    @Benchmark
+    public List<Video> terminoYPrefijo() {
+        return store.buscarPorNombre(artistaYPrefijo[proxima()], 20);
+    }
+
+    /** Una sola letra: el peor caso, recorre los videos de todos los términos que empiezan con ella. */
+    @Benchmark
+    public List<Video> unaLetra() {
+        return store.buscarPorNombre("b", 20);
+    }
+}
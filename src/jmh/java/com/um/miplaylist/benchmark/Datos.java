@@ -0,0 +1,54 @@
+package com.um.miplaylist.benchmark;
+
+import com.um.miplaylist.model.Video;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Datos sintéticos compartidos por los benchmarks.
+ */
+final class Datos {
+
+    private static final String[] FORMATOS = {
+        "https://www.youtube.com/watch?v=%s",
+        "https://youtu.be/%s",
+        "https://www.youtube.com/embed/%s?autoplay=1"
+    };
+
+    private Datos() {
+    }
+
+    /**
+     * Genera videos con IDs 1..cantidad, links de YouTube en los tres formatos y un favorito cada 10.
+     */
+    static List<Video> videos(int cantidad) {
+        List<Video> videos = new ArrayList<>(cantidad);
+        for (int i = 1; i <= cantidad; i++) {
+            videos.add(new Video((long) i, "Artista " + (i % 997) + " - Canción " + i,
+                    link(i), i % 1000, i % 10 == 0));
+        }
+        return videos;
+    }
+
+    /**
+     * Link de YouTube con un ID de 11 caracteres derivado de {@code i}.
+     */
+    static String link(int i) {
+        String id = String.format("%011d", i).replace('0', 'A');
+        return String.format(FORMATOS[i % FORMATOS.length], id);
+    }
+
+    static void borrarDirectorio(Path directorio) throws IOException {
+        try (Stream<Path> archivos = Files.walk(directorio)) {
+            for (Path archivo : archivos.sorted(Comparator.reverseOrder()).toList()) {
+                Files.deleteIfExists(archivo);
+            }
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.um.miplaylist.benchmark;
+
+import com.um.miplaylist.config.PlaylistProperties.FormatoArchivo;
+import com.um.miplaylist.model.Video;
+import com.um.miplaylist.repository.VideoRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Carga y guardado del snapshot completo en cada formato, sin el resto del arranque de la aplicación.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class FormatoSnapshotBenchmark {
+
+    @Param({"JSON", "BINARIO"})
+    public FormatoArchivo formato;
+
+    @Param({"1000", "100000", "1000000"})
+    public int cantidad;
+
+    private Path directorio;
+    private List<Video> videos;
+    private VideoRepository repositorio;
+
+    @Setup(Level.Trial)
+    public void preparar() throws IOException {
+        directorio = Files.createTempDirectory("bench-formato");
+        videos = Datos.videos(cantidad);
+        repositorio = new VideoRepository(directorio.resolve("playlist.datos").toString(), formato, false);
+        repositorio.guardar(videos);
+    }
+
+    @TearDown(Level.Trial)
+    public void limpiar() throws IOException {
+        Datos.borrarDirectorio(directorio);
+    }
+
+    @Benchmark
+    public void cargar(Blackhole blackhole) throws IOException {
+        repositorio.cargar(blackhole::consume);
+    }
+
+    @Benchmark
+    public void guardar() throws IOException {
+        repositorio.guardar(videos);
+    }
+}
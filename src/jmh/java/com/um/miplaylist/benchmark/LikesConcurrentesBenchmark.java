@@ -0,0 +1,62 @@
+package com.um.miplaylist.benchmark;
+
+import com.um.miplaylist.config.PlaylistProperties.ModoPersistencia;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@code incrementarLikes} con 8 hilos a la vez: todos sobre el mismo video (máxima contención)
+ * o repartidos al azar. En modo journal cada like además se registra y se sincroniza a disco.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(8)
+@State(Scope.Benchmark)
+public class LikesConcurrentesBenchmark {
+
+    private static final int CANTIDAD = 1000;
+
+    @Param({"DIFERIDO", "JOURNAL"})
+    public ModoPersistencia modo;
+
+    private VideoServiceBenchmark.Servicio servicio;
+
+    @Setup(Level.Trial)
+    public void preparar() throws IOException {
+        servicio = new VideoServiceBenchmark.Servicio(CANTIDAD, modo);
+    }
+
+    @TearDown(Level.Trial)
+    public void limpiar() throws IOException {
+        servicio.close();
+    }
+
+    @Benchmark
+    public boolean mismoVideo() {
+        return servicio.get().incrementarLikes(1L);
+    }
+
+    @Benchmark
+    public boolean videosAlAzar() {
+        return servicio.get().incrementarLikes(ThreadLocalRandom.current().nextLong(1, CANTIDAD + 1));
+    }
+}
@@ -0,0 +1,79 @@
+package com.um.miplaylist.benchmark;
+
+import com.um.miplaylist.config.PlaylistProperties.ModoPersistencia;
+import com.um.miplaylist.model.MutacionVideo;
+import com.um.miplaylist.model.ResultadoMutacion;
+import com.um.miplaylist.service.VideoService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * El mismo conjunto de likes dado uno por uno con {@code incrementarLikes} o en un solo
+ * {@code aplicarLote}: la diferencia es una escritura a disco por like contra una por lote.
+ * El tiempo reportado es por conjunto de {@code tamano} likes.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class LoteMutacionesBenchmark {
+
+    private static final int CANTIDAD = 1000;
+
+    @Param({"SINCRONO", "JOURNAL"})
+    public ModoPersistencia modo;
+
+    @Param({"10", "100", "1000"})
+    public int tamano;
+
+    private VideoServiceBenchmark.Servicio servicio;
+    private List<MutacionVideo> lote;
+
+    @Setup(Level.Trial)
+    public void preparar() throws IOException {
+        servicio = new VideoServiceBenchmark.Servicio(CANTIDAD, modo);
+        Random azar = new Random(42);
+        lote = new ArrayList<>(tamano);
+        for (int i = 0; i < tamano; i++) {
+            lote.add(new MutacionVideo(1L + azar.nextInt(CANTIDAD), MutacionVideo.Accion.LIKE));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void limpiar() throws IOException {
+        servicio.close();
+    }
+
+    @Benchmark
+    public void unoPorUno(Blackhole bh) {
+        VideoService videoService = servicio.get();
+        for (MutacionVideo mutacion : lote) {
+            bh.consume(videoService.incrementarLikes(mutacion.id()));
+        }
+    }
+
+    @Benchmark
+    public List<ResultadoMutacion> enLote() {
+        return servicio.get().aplicarLote(lote);
+    }
+}
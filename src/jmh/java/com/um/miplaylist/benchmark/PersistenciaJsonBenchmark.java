@@ -0,0 +1,103 @@
+package com.um.miplaylist.benchmark;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.um.miplaylist.model.Video;
+import com.um.miplaylist.repository.VideoRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compara la persistencia JSON en streaming de {@link VideoRepository} con el camino anterior
+ * (databind de la lista completa con salida indentada).
+ * <p>
+ * Con {@code -prof gc} (activo por defecto en el perfil), {@code gc.alloc.rate.norm} indica
+ * los bytes asignados por operación, que es lo que determina el pico de heap al cargar o guardar.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PersistenciaJsonBenchmark {
+
+    @Param({"1000", "100000"})
+    public int cantidad;
+
+    private Path directorio;
+    private List<Video> videos;
+    private VideoRepository repositorio;
+    private ObjectMapper mapperAnterior;
+    private File archivoAnterior;
+
+    @Setup(Level.Trial)
+    public void preparar() throws IOException {
+        directorio = Files.createTempDirectory("bench-json");
+        videos = Datos.videos(cantidad);
+
+        repositorio = new VideoRepository(directorio.resolve("playlist.json").toString());
+        repositorio.guardar(videos);
+
+        mapperAnterior = new ObjectMapper();
+        mapperAnterior.enable(SerializationFeature.INDENT_OUTPUT);
+        archivoAnterior = directorio.resolve("anterior.json").toFile();
+        mapperAnterior.writeValue(archivoAnterior, videos);
+    }
+
+    @TearDown(Level.Trial)
+    public void limpiar() throws IOException {
+        Datos.borrarDirectorio(directorio);
+    }
+
+    @Benchmark
+    public void guardarStreaming() throws IOException {
+        repositorio.guardar(videos);
+    }
+
+    @Benchmark
+    public void guardarDatabindIndentado() throws IOException {
+        mapperAnterior.writeValue(archivoAnterior, videos);
+    }
+
+    @Benchmark
+    public void cargarStreaming(Blackhole blackhole) throws IOException {
+        repositorio.cargar(blackhole::consume);
+    }
+
+    @Benchmark
+    public List<Video> cargarDatabind() throws IOException {
+        return mapperAnterior.readValue(archivoAnterior, new TypeReference<List<Video>>() {});
+    }
+
+    /**
+     * Lista con el mismo contenido que cargarDatabind materializa, para comparar a igual resultado.
+     */
+    @Benchmark
+    public List<Video> cargarStreamingALista() throws IOException {
+        List<Video> cargados = new ArrayList<>(cantidad);
+        repositorio.cargar(cargados::add);
+        return cargados;
+    }
+}
@@ -0,0 +1,113 @@
+package com.um.miplaylist.benchmark;
+
+import com.um.miplaylist.config.PlaylistProperties;
+import com.um.miplaylist.model.Video;
+import com.um.miplaylist.repository.VideoRepository;
+import com.um.miplaylist.service.VideoService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Operaciones de lectura de {@link VideoService} sobre playlists de distintos tamaños.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class VideoServiceBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    public int cantidad;
+
+    private Servicio servicio;
+
+    @Setup(Level.Trial)
+    public void preparar() throws IOException {
+        servicio = new Servicio(cantidad, PlaylistProperties.ModoPersistencia.DIFERIDO);
+    }
+
+    @TearDown(Level.Trial)
+    public void limpiar() throws IOException {
+        servicio.close();
+    }
+
+    @Benchmark
+    public Optional<Video> buscarPorId() {
+        return servicio.get().buscarPorId(ThreadLocalRandom.current().nextLong(1, cantidad + 1));
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public List<Video> listarTodos() {
+        return servicio.get().listarTodos();
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public List<Video> listarFavoritos() {
+        return servicio.get().listarFavoritos();
+    }
+
+    /**
+     * Servicio real sobre una playlist sintética persistida en un directorio temporal.
+     */
+    static final class Servicio implements AutoCloseable {
+
+        private final Path directorio;
+        private final VideoRepository repositorio;
+        private final VideoService servicio;
+
+        Servicio(int cantidad, PlaylistProperties.ModoPersistencia modo) throws IOException {
+            this(cantidad, modo, PlaylistProperties.TipoAlmacen.MEMORIA);
+        }
+
+        Servicio(int cantidad, PlaylistProperties.ModoPersistencia modo, PlaylistProperties.TipoAlmacen almacen) throws IOException {
+            directorio = Files.createTempDirectory("bench-servicio");
+            PlaylistProperties propiedades = new PlaylistProperties();
+            propiedades.getPersistencia().setModo(modo);
+            propiedades.getAlmacen().setTipo(almacen);
+            propiedades.getPersistencia().setFormato(PlaylistProperties.FormatoArchivo.BINARIO);
+            propiedades.getPersistencia().setArchivo(directorio.resolve("playlist.bin").toString());
+            // A lo sumo un volcado diferido cada 10 s: se mide el camino en memoria
+            propiedades.getPersistencia().setIntervaloVolcado(Duration.ofSeconds(10));
+            propiedades.getPersistencia().setUmbralCambios(Integer.MAX_VALUE);
+
+            repositorio = new VideoRepository(propiedades);
+            repositorio.guardar(Datos.videos(cantidad));
+            servicio = new VideoService(repositorio, propiedades);
+        }
+
+        VideoService get() {
+            return servicio;
+        }
+
+        @Override
+        public void close() throws IOException {
+            servicio.cerrar();
+            repositorio.cerrar();
+            Datos.borrarDirectorio(directorio);
+        }
+    }
+}
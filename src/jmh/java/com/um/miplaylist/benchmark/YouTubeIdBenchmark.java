@@ -0,0 +1,90 @@
+package com.um.miplaylist.benchmark;
+
+import com.um.miplaylist.model.Video;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Extracción del ID de YouTube: las expresiones regulares compiladas en cada llamada (implementación
+ * anterior), el recorrido manual sin caché (primer render de cada video) y el valor cacheado.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class YouTubeIdBenchmark {
+
+    private static final int CANTIDAD = 1024;
+
+    private String[] links;
+    private Video[] videos;
+    private int siguiente;
+
+    @Setup
+    public void preparar() {
+        List<Video> datos = Datos.videos(CANTIDAD);
+        links = new String[CANTIDAD];
+        videos = new Video[CANTIDAD];
+        for (int i = 0; i < CANTIDAD; i++) {
+            videos[i] = datos.get(i);
+            links[i] = videos[i].getLink();
+            videos[i].extraerYouTubeId();
+        }
+    }
+
+    @Benchmark
+    public String expresionesRegulares() {
+        return extraerConExpresionesRegulares(links[siguiente++ & (CANTIDAD - 1)]);
+    }
+
+    /**
+     * Cada llamada le asigna al video un link distinto del que tenía (el desplazamiento cambia
+     * en cada vuelta), así que siempre se recorre el link de nuevo.
+     */
+    @Benchmark
+    public String recorridoSinCache() {
+        int vuelta = siguiente / CANTIDAD;
+        int i = siguiente++ & (CANTIDAD - 1);
+        Video video = videos[i];
+        video.setLink(links[(i + 1 + vuelta) & (CANTIDAD - 1)]);
+        return video.extraerYouTubeId();
+    }
+
+    @Benchmark
+    public String cacheado() {
+        return videos[siguiente++ & (CANTIDAD - 1)].extraerYouTubeId();
+    }
+
+    private static String extraerConExpresionesRegulares(String link) {
+        if (link == null || link.isEmpty()) {
+            return null;
+        }
+        String[] patterns = {
+            "(?<=watch\\?v=)[^#\\&\\?]*",
+            "(?<=youtu.be/)[^#\\&\\?]*",
+            "(?<=embed/)[^#\\&\\?]*"
+        };
+        for (String pattern : patterns) {
+            Matcher matcher = Pattern.compile(pattern).matcher(link);
+            if (matcher.find()) {
+                return matcher.group();
+            }
+        }
+        return null;
+    }
+}
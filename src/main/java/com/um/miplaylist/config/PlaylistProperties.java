@@ -0,0 +1,141 @@
+package com.um.miplaylist.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Configuración de la playlist leída de application.properties (prefijo {@code playlist}).
+ */
+@ConfigurationProperties(prefix = "playlist")
+public class PlaylistProperties {
+
+    private final Persistencia persistencia = new Persistencia();
+    private final Almacen almacen = new Almacen();
+
+    public Persistencia getPersistencia() {
+        return persistencia;
+    }
+
+    public Almacen getAlmacen() {
+        return almacen;
+    }
+
+    /**
+     * Implementaciones del almacén de videos en memoria.
+     */
+    public enum TipoAlmacen {
+        /** Videos como objetos en el heap, con índices para cada consulta. */
+        MEMORIA,
+        /** Datos en columnas fuera del heap; el ranking y la búsqueda recorren las columnas. */
+        FUERA_DEL_HEAP
+    }
+
+    /**
+     * Opciones del almacén de videos ({@code playlist.almacen.*}).
+     */
+    public static class Almacen {
+
+        private TipoAlmacen tipo = TipoAlmacen.MEMORIA;
+
+        public TipoAlmacen getTipo() {
+            return tipo;
+        }
+
+        public void setTipo(TipoAlmacen tipo) {
+            this.tipo = tipo;
+        }
+    }
+
+    /**
+     * Modos de persistencia de los cambios de la playlist.
+     */
+    public enum ModoPersistencia {
+        /** Cada cambio reescribe el archivo en el hilo de la petición. */
+        SINCRONO,
+        /** Los cambios marcan el almacén como sucio y un hilo de fondo los agrupa en una sola escritura. */
+        DIFERIDO,
+        /** Cada cambio se anexa a un journal de operaciones que se compacta periódicamente en un snapshot. */
+        JOURNAL
+    }
+
+    /**
+     * Formatos del archivo de snapshot.
+     */
+    public enum FormatoArchivo {
+        /** Arreglo JSON legible, con pie de checksum. */
+        JSON,
+        /** Binario por columnas, cargado con un archivo mapeado en memoria. */
+        BINARIO
+    }
+
+    /**
+     * Opciones de persistencia ({@code playlist.persistencia.*}).
+     */
+    public static class Persistencia {
+
+        private ModoPersistencia modo = ModoPersistencia.SINCRONO;
+        private String archivo = "playlist.json";
+        private FormatoArchivo formato = FormatoArchivo.JSON;
+        private boolean jsonIndentado = false;
+        private Duration intervaloVolcado = Duration.ofSeconds(1);
+        private int umbralCambios = 500;
+        private int compactarCada = 10_000;
+
+        public ModoPersistencia getModo() {
+            return modo;
+        }
+
+        public void setModo(ModoPersistencia modo) {
+            this.modo = modo;
+        }
+
+        public String getArchivo() {
+            return archivo;
+        }
+
+        public void setArchivo(String archivo) {
+            this.archivo = archivo;
+        }
+
+        public FormatoArchivo getFormato() {
+            return formato;
+        }
+
+        public void setFormato(FormatoArchivo formato) {
+            this.formato = formato;
+        }
+
+        public boolean isJsonIndentado() {
+            return jsonIndentado;
+        }
+
+        public void setJsonIndentado(boolean jsonIndentado) {
+            this.jsonIndentado = jsonIndentado;
+        }
+
+        public Duration getIntervaloVolcado() {
+            return intervaloVolcado;
+        }
+
+        public void setIntervaloVolcado(Duration intervaloVolcado) {
+            this.intervaloVolcado = intervaloVolcado;
+        }
+
+        public int getUmbralCambios() {
+            return umbralCambios;
+        }
+
+        public void setUmbralCambios(int umbralCambios) {
+            this.umbralCambios = umbralCambios;
+        }
+
+        public int getCompactarCada() {
+            return compactarCada;
+        }
+
+        public void setCompactarCada(int compactarCada) {
+            this.compactarCada = compactarCada;
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.um.miplaylist.controller;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Fragmentos HTML ya renderizados, válidos mientras no cambie la versión de los datos
+ * ({@link com.um.miplaylist.service.VideoService#obtenerVersion()}).
+ * <p>
+ * Sólo se guardan fragmentos de la versión más reciente vista: al llegar una versión nueva se
+ * descartan todos, y un fragmento renderizado con una versión anterior no se guarda. Dentro de
+ * una versión se conservan los {@link #MAXIMO} usados más recientemente (una página por ruta,
+ * cursor y tamaño).
+ */
+final class CacheFragmentos {
+
+    static final int MAXIMO = 32;
+
+    private final Map<Object, String> fragmentos = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Object, String> masAntiguo) {
+            return size() > MAXIMO;
+        }
+    };
+    private long version = -1;
+
+    /**
+     * Devuelve el fragmento cacheado para la clave y la versión, o lo renderiza y lo guarda.
+     * El renderizado se hace sin tomar el lock de la cache; dos pedidos simultáneos pueden
+     * renderizar el mismo fragmento.
+     *
+     * @param clave Qué se renderiza (debe implementar equals/hashCode)
+     * @param version Versión de los datos leída antes de renderizar
+     * @param renderizar Renderiza el fragmento con datos al menos tan nuevos como la versión
+     * @return Fragmento HTML
+     */
+    String obtener(Object clave, long version, Supplier<String> renderizar) {
+        String fragmento = buscar(clave, version);
+        if (fragmento == null) {
+            fragmento = renderizar.get();
+            guardar(clave, version, fragmento);
+        }
+        return fragmento;
+    }
+
+    private synchronized String buscar(Object clave, long version) {
+        return version == this.version ? fragmentos.get(clave) : null;
+    }
+
+    private synchronized void guardar(Object clave, long version, String fragmento) {
+        if (version < this.version) {
+            return;
+        }
+        if (version > this.version) {
+            fragmentos.clear();
+            this.version = version;
+        }
+        fragmentos.put(clave, fragmento);
+    }
+
+    /**
+     * Cantidad de fragmentos cacheados.
+     */
+    synchronized int contar() {
+        return fragmentos.size();
+    }
+}
@@ -1,42 +1,127 @@
 package com.um.miplaylist.controller;
 
+import com.um.miplaylist.model.Estadisticas;
+import com.um.miplaylist.model.Pagina;
 import com.um.miplaylist.model.Video;
+import com.um.miplaylist.service.VideoDuplicadoException;
 import com.um.miplaylist.service.VideoService;
+import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
+import org.thymeleaf.ITemplateEngine;
+import org.thymeleaf.context.WebContext;
+import org.thymeleaf.web.IWebExchange;
+import org.thymeleaf.web.servlet.JakartaServletWebApplication;
+
+import java.util.function.Supplier;
 
 /**
  * Controlador principal para gestionar la playlist de videos musicales.
  * Maneja todas las operaciones CRUD: listar, agregar, eliminar, likes y favoritos.
+ * <p>
+ * Las páginas de la playlist llevan un ETag fuerte con la versión de los datos: mientras no haya
+ * mutaciones, un navegador que revalida recibe 304 sin que se renderice nada. La parte que depende
+ * de los datos (playlist.html) se renderiza aparte y se cachea por versión; los mensajes flash quedan
+ * fuera de ese fragmento, y una página con mensaje no lleva ETag porque no se repite.
  */
 @Controller
 public class HomeController {
 
+    private static final int PUESTOS_EN_PANTALLA = 5;
+
     private final VideoService videoService;
+    private final ITemplateEngine templateEngine;
+    private final CacheFragmentos fragmentos;
+    // Distingue los ETags de cada arranque: la versión de los datos vuelve a empezar al reiniciar
+    private final String instancia;
 
     @Autowired
-    public HomeController(VideoService videoService) {
+    public HomeController(VideoService videoService, ITemplateEngine templateEngine) {
         this.videoService = videoService;
+        this.templateEngine = templateEngine;
+        this.fragmentos = new CacheFragmentos();
+        this.instancia = Long.toString(System.currentTimeMillis(), 36);
     }
 
     /**
-     * Muestra la página principal con todos los videos de la playlist.
+     * Página de la playlist: ruta, cursor y tamaño determinan el fragmento renderizado.
+     */
+    private record ClavePagina(String ruta, Long cursor, Integer tamano) {
+    }
+
+    /**
+     * Muestra la página principal con una página de videos de la playlist.
      *
+     * @param cursor Cursor de la página a mostrar (vacío para la primera)
+     * @param tamano Videos por página (vacío para el tamaño por defecto)
      * @param model Modelo para pasar datos a la vista
      * @return Nombre de la vista index.html
      */
     @GetMapping("/")
-    public String home(Model model) {
-        model.addAttribute("videos", videoService.listarTodos());
-        model.addAttribute("totalVideos", videoService.contarVideos());
-        model.addAttribute("videosFavoritos", videoService.listarFavoritos().size());
+    public String home(@RequestParam(required = false) Long cursor,
+                       @RequestParam(required = false) Integer tamano,
+                       Model model, ServletWebRequest peticion) {
+        return mostrarPagina(() -> videoService.listarPagina(cursor, tamano), "/", cursor, tamano, model, peticion);
+    }
+
+    /**
+     * Muestra sólo los videos favoritos, leídos del índice de favoritos.
+     *
+     * @param cursor Cursor de la página a mostrar (vacío para la primera)
+     * @param tamano Videos por página (vacío para el tamaño por defecto)
+     * @param model Modelo para pasar datos a la vista
+     * @return Nombre de la vista index.html
+     */
+    @GetMapping("/favoritos")
+    public String favoritos(@RequestParam(required = false) Long cursor,
+                            @RequestParam(required = false) Integer tamano,
+                            Model model, ServletWebRequest peticion) {
+        return mostrarPagina(() -> videoService.listarPaginaFavoritos(cursor, tamano), "/favoritos", cursor, tamano, model, peticion);
+    }
+
+    private String mostrarPagina(Supplier<Pagina> listar, String rutaBase, Long cursor, Integer tamano,
+                                 Model model, ServletWebRequest peticion) {
+        // La versión se lee antes que los datos: lo que se renderice es al menos tan nuevo como ella
+        long version = videoService.obtenerVersion();
+        boolean conMensaje = model.containsAttribute("success") || model.containsAttribute("error");
+        if (!conMensaje) {
+            peticion.getResponse().setHeader(HttpHeaders.CACHE_CONTROL, "no-cache");
+            if (peticion.checkNotModified("\"" + instancia + "-" + version + "\"")) {
+                return null;
+            }
+        }
+
+        Pagina pagina = listar.get();
+        model.addAttribute("videos", pagina.videos());
+        model.addAttribute("rutaBase", rutaBase);
+        model.addAttribute("cursorActual", cursor);
+        model.addAttribute("siguienteCursor", pagina.siguiente());
+        model.addAttribute("tamanoPagina", tamano);
+        Estadisticas estadisticas = videoService.obtenerEstadisticas();
+        model.addAttribute("totalVideos", estadisticas.videos());
+        model.addAttribute("videosFavoritos", estadisticas.favoritos());
+        model.addAttribute("masGustados", videoService.listarMasGustados(PUESTOS_EN_PANTALLA));
         model.addAttribute("nuevoVideo", new Video());
+        model.addAttribute("playlist", fragmentos.obtener(new ClavePagina(rutaBase, cursor, tamano), version,
+                () -> renderizarPlaylist(model, peticion)));
         return "index";
     }
 
+    /**
+     * Renderiza playlist.html con los datos del modelo.
+     */
+    private String renderizarPlaylist(Model model, ServletWebRequest peticion) {
+        HttpServletRequest request = peticion.getRequest();
+        IWebExchange intercambio = JakartaServletWebApplication.buildApplication(request.getServletContext())
+                .buildExchange(request, peticion.getResponse());
+        return templateEngine.process("playlist", new WebContext(intercambio, request.getLocale(), model.asMap()));
+    }
+
     /**
      * Agrega un nuevo video a la playlist.
      *
@@ -47,25 +132,18 @@ public class HomeController {
     @PostMapping("/agregar")
     public String agregarVideo(@ModelAttribute Video video, RedirectAttributes redirectAttributes) {
         try {
-            if (video.getNombre() == null || video.getNombre().trim().isEmpty()) {
-                redirectAttributes.addFlashAttribute("error", "El nombre del video es obligatorio");
-                return "redirect:/";
-            }
-
-            if (video.getLink() == null || video.getLink().trim().isEmpty()) {
-                redirectAttributes.addFlashAttribute("error", "El link del video es obligatorio");
-                return "redirect:/";
-            }
-
-            // Verificar que el link sea válido de YouTube
-            Video videoTemp = new Video(null, "", video.getLink());
-            if (videoTemp.extraerYouTubeId() == null) {
-                redirectAttributes.addFlashAttribute("error", "El link debe ser un video válido de YouTube");
+            String error = validarNuevoVideo(video);
+            if (error != null) {
+                redirectAttributes.addFlashAttribute("error", error);
                 return "redirect:/";
             }
 
+            // El formulario sólo agrega: un id enviado no debe reemplazar a un video existente
+            video.setId(null);
             videoService.agregarVideo(video);
             redirectAttributes.addFlashAttribute("success", "Video agregado exitosamente");
+        } catch (VideoDuplicadoException e) {
+            redirectAttributes.addFlashAttribute("error", e.getMessage());
         } catch (Exception e) {
             redirectAttributes.addFlashAttribute("error", "Error al agregar el video: " + e.getMessage());
         }
@@ -73,6 +151,26 @@ public class HomeController {
         return "redirect:/";
     }
 
+    /**
+     * Valida los datos de un video nuevo (compartido con la API JSON).
+     *
+     * @param video Video a validar
+     * @return Mensaje de error, o null si el video es válido
+     */
+    static String validarNuevoVideo(Video video) {
+        if (video.getNombre() == null || video.getNombre().trim().isEmpty()) {
+            return "El nombre del video es obligatorio";
+        }
+        if (video.getLink() == null || video.getLink().trim().isEmpty()) {
+            return "El link del video es obligatorio";
+        }
+        // Verificar que el link sea válido de YouTube (el ID queda cacheado en el video para la vista)
+        if (video.extraerYouTubeId() == null) {
+            return "El link debe ser un video válido de YouTube";
+        }
+        return null;
+    }
+
     /**
      * Elimina un video de la playlist.
      *
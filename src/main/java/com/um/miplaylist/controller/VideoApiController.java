@@ -0,0 +1,270 @@
+package com.um.miplaylist.controller;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.um.miplaylist.model.Estadisticas;
+import com.um.miplaylist.model.MutacionVideo;
+import com.um.miplaylist.model.Pagina;
+import com.um.miplaylist.model.PuestoRanking;
+import com.um.miplaylist.model.ResultadoMutacion;
+import com.um.miplaylist.model.ResumenImportacion;
+import com.um.miplaylist.model.Video;
+import com.um.miplaylist.service.VideoDuplicadoException;
+import com.um.miplaylist.service.VideoService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * API JSON de la playlist. Las acciones sobre un video devuelven sólo ese video, para que la página
+ * actualice su tarjeta sin recargarse; los errores devuelven {@code {"error": "mensaje"}}.
+ */
+@RestController
+@RequestMapping("/api")
+public class VideoApiController {
+
+    private final VideoService videoService;
+
+    @Autowired
+    public VideoApiController(VideoService videoService) {
+        this.videoService = videoService;
+    }
+
+    /**
+     * Lista una página de videos en orden de inserción.
+     * Para recorrer toda la playlist, pedir páginas pasando el cursor {@code siguiente}
+     * de cada respuesta hasta que sea null.
+     *
+     * @param cursor Cursor de la página (vacío para la primera)
+     * @param tamano Videos por página (vacío para el tamaño por defecto)
+     * @return Videos de la página y cursor de la siguiente
+     */
+    @GetMapping("/videos")
+    public Pagina listarVideos(@RequestParam(required = false) Long cursor,
+                               @RequestParam(required = false) Integer tamano) {
+        return videoService.listarPagina(cursor, tamano);
+    }
+
+    /**
+     * Busca un video por ID.
+     *
+     * @param id ID del video
+     * @return El video, o 404 si no existe
+     */
+    @GetMapping("/videos/{id}")
+    public ResponseEntity<Video> buscarVideo(@PathVariable Long id) {
+        return ResponseEntity.of(videoService.buscarPorId(id));
+    }
+
+    /**
+     * Agrega un video ({@code {"nombre": "...", "link": "..."}}); el ID se asigna automáticamente.
+     *
+     * @param video Video a agregar
+     * @return 201 con el video agregado, 400 si los datos son inválidos o 409 si ya está en la playlist
+     */
+    @PostMapping("/videos")
+    public ResponseEntity<Video> agregarVideo(@RequestBody Video video) {
+        String error = HomeController.validarNuevoVideo(video);
+        if (error != null) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, error);
+        }
+        video.setId(null);
+        try {
+            Video agregado = videoService.agregarVideo(video);
+            // Con el context path de la aplicación, como las URLs de las vistas
+            URI ubicacion = ServletUriComponentsBuilder.fromCurrentContextPath()
+                    .path("/api/videos/{id}").buildAndExpand(agregado.getId()).toUri();
+            return ResponseEntity.created(ubicacion).body(agregado);
+        } catch (VideoDuplicadoException e) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Elimina un video.
+     *
+     * @param id ID del video
+     * @return 204, o 404 si el video no existe
+     */
+    @DeleteMapping("/videos/{id}")
+    public ResponseEntity<Void> eliminarVideo(@PathVariable Long id) {
+        if (!videoService.eliminarVideo(id)) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "No se encontró el video a eliminar");
+        }
+        return ResponseEntity.noContent().build();
+    }
+
+    /**
+     * Suma un like a un video.
+     *
+     * @param id ID del video
+     * @return El video actualizado, o 404 si no existe
+     */
+    @PostMapping("/videos/{id}/like")
+    public Video darLike(@PathVariable Long id) {
+        return actualizado(id, videoService.incrementarLikes(id));
+    }
+
+    /**
+     * Marca o desmarca un video como favorito.
+     *
+     * @param id ID del video
+     * @return El video actualizado, o 404 si no existe
+     */
+    @PostMapping("/videos/{id}/favorito")
+    public Video toggleFavorito(@PathVariable Long id) {
+        return actualizado(id, videoService.toggleFavorito(id));
+    }
+
+    private Video actualizado(Long id, boolean aplicado) {
+        // Se vuelve a buscar porque el video pudo eliminarse justo después de actualizarlo
+        return videoService.buscarPorId(id)
+                .filter(video -> aplicado)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "No se encontró el video"));
+    }
+
+    /**
+     * Importa videos en bloque desde un arreglo JSON o NDJSON (un objeto por línea), leído en streaming.
+     * Cada objeto necesita {@code nombre} y {@code link}; {@code likes} y {@code favorito} son opcionales
+     * y el {@code id} se ignora. Los videos inválidos o ya presentes se descartan y se cuentan en el resumen.
+     *
+     * @param cuerpo Cuerpo del pedido
+     * @return Resumen de la importación
+     */
+    @PostMapping(value = "/videos/importar", consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public ResumenImportacion importarVideos(InputStream cuerpo) throws IOException {
+        try {
+            return videoService.importarVideos(cuerpo);
+        } catch (JsonProcessingException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "JSON inválido: " + e.getOriginalMessage(), e);
+        }
+    }
+
+    /**
+     * Exporta la playlist completa en orden de inserción, en el mismo formato que acepta la importación.
+     * Se escribe en streaming directamente a la respuesta, sin copiar la playlist en memoria.
+     *
+     * @param formato {@code json} (arreglo, por defecto) o {@code ndjson} (un video por línea)
+     * @return Respuesta que escribe los videos al enviarse
+     */
+    @GetMapping("/videos/exportar")
+    public ResponseEntity<StreamingResponseBody> exportarVideos(@RequestParam(defaultValue = "json") String formato) {
+        boolean ndjson;
+        if ("ndjson".equalsIgnoreCase(formato)) {
+            ndjson = true;
+        } else if ("json".equalsIgnoreCase(formato)) {
+            ndjson = false;
+        } else {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Formato desconocido: " + formato);
+        }
+        String archivo = ndjson ? "playlist.ndjson" : "playlist.json";
+        return ResponseEntity.ok()
+                .contentType(ndjson ? MediaType.APPLICATION_NDJSON : MediaType.APPLICATION_JSON)
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment().filename(archivo).build().toString())
+                .body(salida -> videoService.exportarVideos(salida, ndjson));
+    }
+
+    /**
+     * Aplica un lote de mutaciones ({@code [{"id": 1, "accion": "LIKE"}, ...]}) con una sola escritura
+     * a disco. Las acciones son {@code LIKE}, {@code FAVORITO} y {@code ELIMINAR}, y se aplican en orden.
+     *
+     * @param mutaciones Mutaciones a aplicar (como máximo 10000)
+     * @return Un resultado por mutación, en el mismo orden, indicando si se aplicó
+     */
+    @PostMapping("/videos/lote")
+    public List<ResultadoMutacion> aplicarLote(@RequestBody List<MutacionVideo> mutaciones) {
+        try {
+            return videoService.aplicarLote(mutaciones);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Lista una página de favoritos en orden de inserción, con los mismos cursores que {@code /api/videos}.
+     *
+     * @param cursor Cursor de la página (vacío para la primera)
+     * @param tamano Videos por página (vacío para el tamaño por defecto)
+     * @return Favoritos de la página y cursor de la siguiente
+     */
+    @GetMapping("/favoritos")
+    public Pagina listarFavoritos(@RequestParam(required = false) Long cursor,
+                                  @RequestParam(required = false) Integer tamano) {
+        return videoService.listarPaginaFavoritos(cursor, tamano);
+    }
+
+    /**
+     * Busca videos por nombre, sin distinguir mayúsculas ni tildes; el último término puede
+     * estar incompleto, para buscar mientras se escribe.
+     *
+     * @param q Texto a buscar
+     * @param n Cantidad máxima de resultados (vacío para 20; como máximo 100)
+     * @return Videos en orden de relevancia
+     */
+    @GetMapping("/buscar")
+    public List<Video> buscar(@RequestParam(defaultValue = "") String q,
+                              @RequestParam(required = false) Integer n) {
+        return videoService.buscarPorNombre(q, n);
+    }
+
+    /**
+     * Ranking de los videos con más likes.
+     *
+     * @param n Cantidad de puestos (vacío para 10; como máximo 100)
+     * @return Puestos en orden, empezando por el 1
+     */
+    @GetMapping("/ranking")
+    public List<PuestoRanking> ranking(@RequestParam(required = false) Integer n) {
+        return videoService.listarMasGustados(n);
+    }
+
+    /**
+     * Puesto de un video en el ranking de likes.
+     *
+     * @param id ID del video
+     * @return Puesto y video, o 404 si el video no existe
+     */
+    @GetMapping("/ranking/{id}")
+    public ResponseEntity<PuestoRanking> puestoEnRanking(@PathVariable Long id) {
+        return ResponseEntity.of(videoService.buscarPuestoEnRanking(id));
+    }
+
+    /**
+     * Errores de la API como JSON con el motivo, para mostrarlo en la página.
+     */
+    @ExceptionHandler(ResponseStatusException.class)
+    public ResponseEntity<Map<String, String>> error(ResponseStatusException e) {
+        String motivo = e.getReason() != null ? e.getReason() : e.getStatusCode().toString();
+        return ResponseEntity.status(e.getStatusCode()).body(Map.of("error", motivo));
+    }
+
+    /**
+     * Totales de la playlist: cantidad de videos, de favoritos y likes totales.
+     *
+     * @return Estadísticas actuales
+     */
+    @GetMapping("/estadisticas")
+    public Estadisticas estadisticas() {
+        return videoService.obtenerEstadisticas();
+    }
+}
@@ -0,0 +1,11 @@
+package com.um.miplaylist.model;
+
+/**
+ * Totales de la playlist.
+ *
+ * @param videos    Cantidad de videos
+ * @param favoritos Cantidad de videos marcados como favoritos
+ * @param likes     Suma de los likes de todos los videos
+ */
+public record Estadisticas(long videos, long favoritos, long likes) {
+}
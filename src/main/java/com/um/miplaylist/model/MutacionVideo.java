@@ -0,0 +1,22 @@
+package com.um.miplaylist.model;
+
+/**
+ * Una mutación de un lote: una acción sobre un video.
+ *
+ * @param id     ID del video
+ * @param accion Acción a aplicar
+ */
+public record MutacionVideo(Long id, Accion accion) {
+
+    /**
+     * Acciones que se pueden aplicar en lote.
+     */
+    public enum Accion {
+        /** Suma un like. */
+        LIKE,
+        /** Marca o desmarca como favorito. */
+        FAVORITO,
+        /** Elimina el video. */
+        ELIMINAR
+    }
+}
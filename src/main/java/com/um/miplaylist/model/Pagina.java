@@ -0,0 +1,18 @@
+package com.um.miplaylist.model;
+
+import java.util.List;
+
+/**
+ * Una página de videos en orden de inserción, paginada por cursor (keyset).
+ * El cursor es la posición del último video devuelto: la página siguiente empieza
+ * justo después, aunque entre medio se agreguen o eliminen videos.
+ *
+ * @param videos    Videos de la página
+ * @param siguiente Cursor para pedir la página siguiente, o null si es la última
+ */
+public record Pagina(List<Video> videos, Long siguiente) {
+
+    public boolean hayMas() {
+        return siguiente != null;
+    }
+}
@@ -0,0 +1,10 @@
+package com.um.miplaylist.model;
+
+/**
+ * Un video y su puesto en el ranking de likes.
+ *
+ * @param puesto Puesto en el ranking (1 es el de más likes)
+ * @param video  Video en ese puesto
+ */
+public record PuestoRanking(long puesto, Video video) {
+}
@@ -0,0 +1,11 @@
+package com.um.miplaylist.model;
+
+/**
+ * Resultado de una mutación de un lote, en la misma posición que la mutación pedida.
+ *
+ * @param id       ID del video
+ * @param accion   Acción pedida
+ * @param aplicada false si el video no existía (o ya se había eliminado antes en el mismo lote) o la mutación estaba incompleta
+ */
+public record ResultadoMutacion(Long id, MutacionVideo.Accion accion, boolean aplicada) {
+}
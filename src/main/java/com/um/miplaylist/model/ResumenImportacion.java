@@ -0,0 +1,14 @@
+package com.um.miplaylist.model;
+
+import java.util.List;
+
+/**
+ * Resultado de una importación masiva de videos.
+ *
+ * @param importados Videos agregados a la playlist
+ * @param duplicados Videos descartados porque su video de YouTube ya estaba en la playlist
+ * @param invalidos  Videos descartados por no tener nombre o un link válido de YouTube
+ * @param errores    Motivo de los primeros descartes por invalidez, con la posición del video en la entrada (desde 1)
+ */
+public record ResumenImportacion(long importados, long duplicados, long invalidos, List<String> errores) {
+}
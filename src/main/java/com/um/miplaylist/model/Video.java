@@ -1,40 +1,71 @@
 package com.um.miplaylist.model;
 
-import java.util.Objects;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
 
 /**
  * Modelo que representa un video musical de YouTube en la playlist.
  * Contiene información básica del video, likes y estado de favorito.
+ * <p>
+ * Con millones de videos en memoria el modelo se guarda compacto: el ID y los likes son primitivos
+ * (sin {@code Long} ni contadores aparte) y del link se guarda sólo el ID de YouTube cuando el link
+ * es uno de los formatos canónicos ({@code watch?v=}, {@code youtu.be/} o {@code embed/}, sin parámetros);
+ * {@link #getLink()} lo reconstruye.
+ * Los links con otra forma (parámetros extra, otros sitios) se guardan tal cual.
+ * <p>
+ * Los likes se incrementan con una suma atómica sobre el campo, así los incrementos concurrentes
+ * no se pierden. Los setters son para armar el video (formularios, JSON, snapshots) antes de
+ * agregarlo al almacén; una vez publicado sólo cambian los likes y el favorito.
  */
 public class Video {
 
-    private Long id;
+    /**
+     * Prefijos de los links que se guardan como ID de YouTube; el índice es el formato guardado.
+     */
+    private static final String[] PREFIJOS = {
+        "https://www.youtube.com/watch?v=",
+        "https://youtu.be/",
+        "https://www.youtube.com/embed/"
+    };
+    private static final byte LINK_COMPLETO = -1;
+    private static final long SIN_ID = Long.MIN_VALUE;
+    private static final VarHandle LIKES;
+
+    static {
+        try {
+            LIKES = MethodHandles.lookup().findVarHandle(Video.class, "likes", long.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private long id = SIN_ID;
     private String nombre;
+    /** Link completo, o null si es canónico (se reconstruye con el prefijo y el ID de YouTube). */
     private String link;
-    private int likes;
-    private boolean favorito;
+    private String youTubeId;
+    private byte formato = LINK_COMPLETO;
+    private volatile long likes;
+    private volatile boolean favorito;
 
     // Constructor vacío
     public Video() {
     }
 
     // Constructor completo
-    public Video(Long id, String nombre, String link, int likes, boolean favorito) {
-        this.id = id;
+    public Video(Long id, String nombre, String link, long likes, boolean favorito) {
+        setId(id);
         this.nombre = nombre;
-        this.link = link;
+        setLink(link);
         this.likes = likes;
         this.favorito = favorito;
     }
 
     // Constructor sin likes y favorito (valores por defecto)
     public Video(Long id, String nombre, String link) {
-        this.id = id;
+        setId(id);
         this.nombre = nombre;
-        this.link = link;
-        this.likes = 0;
+        setLink(link);
         this.favorito = false;
     }
 
@@ -44,37 +75,75 @@ public class Video {
      * - https://www.youtube.com/watch?v=VIDEO_ID
      * - https://youtu.be/VIDEO_ID
      * - https://www.youtube.com/embed/VIDEO_ID
+     * Se extrae una sola vez, al asignar el link.
      *
      * @return El ID del video de YouTube, o null si no se puede extraer
      */
     public String extraerYouTubeId() {
+        return youTubeId;
+    }
+
+    /**
+     * Busca los prefijos {@code watch?v=}, {@code youtu.be/} y {@code embed/}, en ese orden,
+     * y devuelve lo que sigue hasta el primer {@code #}, {@code &} o {@code ?}.
+     * Es equivalente a las expresiones regulares con lookbehind que se usaban antes
+     * (incluido el punto de {@code youtu.be}, que acepta cualquier carácter salvo un fin de línea),
+     * pero recorre el link sin compilar patrones ni crear objetos intermedios.
+     *
+     * @param link Link a analizar
+     * @return El ID del video, o null si ningún prefijo aparece en el link
+     */
+    static String extraerYouTubeId(String link) {
         if (link == null || link.isEmpty()) {
             return null;
         }
+        int inicio = finDe(link, "watch?v=");
+        if (inicio < 0) {
+            inicio = finDeYoutuBe(link);
+        }
+        if (inicio < 0) {
+            inicio = finDe(link, "embed/");
+        }
+        if (inicio < 0) {
+            return null;
+        }
+        int fin = inicio;
+        while (fin < link.length()) {
+            char c = link.charAt(fin);
+            if (c == '#' || c == '&' || c == '?') {
+                break;
+            }
+            fin++;
+        }
+        return link.substring(inicio, fin);
+    }
+
+    private static int finDe(String link, String prefijo) {
+        int posicion = link.indexOf(prefijo);
+        return posicion < 0 ? -1 : posicion + prefijo.length();
+    }
 
-        // Patrón para varios formatos de YouTube
-        String[] patterns = {
-            "(?<=watch\\?v=)[^#\\&\\?]*",  // youtube.com/watch?v=VIDEO_ID
-            "(?<=youtu.be/)[^#\\&\\?]*",    // youtu.be/VIDEO_ID
-            "(?<=embed/)[^#\\&\\?]*"        // youtube.com/embed/VIDEO_ID
-        };
-
-        for (String pattern : patterns) {
-            Pattern compiledPattern = Pattern.compile(pattern);
-            Matcher matcher = compiledPattern.matcher(link);
-            if (matcher.find()) {
-                return matcher.group();
+    private static int finDeYoutuBe(String link) {
+        int posicion = link.indexOf("youtu");
+        while (posicion >= 0 && posicion + 9 <= link.length()) {
+            if (!esFinDeLinea(link.charAt(posicion + 5)) && link.startsWith("be/", posicion + 6)) {
+                return posicion + 9;
             }
+            posicion = link.indexOf("youtu", posicion + 1);
         }
+        return -1;
+    }
 
-        return null;
+    private static boolean esFinDeLinea(char c) {
+        return c == '\n' || c == '\r' || c == '\u0085' || c == '\u2028' || c == '\u2029';
     }
 
     /**
      * Incrementa el contador de likes en 1.
+     * Es seguro llamarlo desde varios hilos sin sincronización externa.
      */
     public void incrementarLikes() {
-        this.likes++;
+        LIKES.getAndAdd(this, 1L);
     }
 
     /**
@@ -86,11 +155,11 @@ public class Video {
 
     // Getters y Setters
     public Long getId() {
-        return id;
+        return id == SIN_ID ? null : id;
     }
 
     public void setId(Long id) {
-        this.id = id;
+        this.id = id != null ? id : SIN_ID;
     }
 
     public String getNombre() {
@@ -102,18 +171,48 @@ public class Video {
     }
 
     public String getLink() {
-        return link;
+        return formato == LINK_COMPLETO ? link : PREFIJOS[formato] + youTubeId;
     }
 
+    /**
+     * Asigna el link y extrae su ID de YouTube. Si el link es canónico se descarta
+     * y se guarda sólo el formato.
+     */
     public void setLink(String link) {
-        this.link = link;
+        String id = extraerYouTubeId(link);
+        byte canonico = formatoCanonico(link, id);
+        this.youTubeId = id;
+        this.link = canonico == LINK_COMPLETO ? link : null;
+        this.formato = canonico;
+    }
+
+    /**
+     * Índice del prefijo con el que el link es exactamente prefijo + ID, o {@link #LINK_COMPLETO}.
+     */
+    private static byte formatoCanonico(String link, String youTubeId) {
+        if (youTubeId == null) {
+            return LINK_COMPLETO;
+        }
+        for (byte i = 0; i < PREFIJOS.length; i++) {
+            String prefijo = PREFIJOS[i];
+            if (link.length() == prefijo.length() + youTubeId.length() && link.startsWith(prefijo)
+                    && link.startsWith(youTubeId, prefijo.length())) {
+                return i;
+            }
+        }
+        return LINK_COMPLETO;
     }
 
-    public int getLikes() {
+    /**
+     * Cantidad actual de likes.
+     *
+     * @return Cantidad de likes
+     */
+    public long getLikes() {
         return likes;
     }
 
-    public void setLikes(int likes) {
+    public void setLikes(long likes) {
         this.likes = likes;
     }
 
@@ -130,20 +229,20 @@ public class Video {
         if (this == o) return true;
         if (o == null || getClass() != o.getClass()) return false;
         Video video = (Video) o;
-        return Objects.equals(id, video.id);
+        return id == video.id;
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(id);
+        return Long.hashCode(id);
     }
 
     @Override
     public String toString() {
         return "Video{" +
-                "id=" + id +
+                "id=" + getId() +
                 ", nombre='" + nombre + '\'' +
-                ", link='" + link + '\'' +
+                ", link='" + getLink() + '\'' +
                 ", likes=" + likes +
                 ", favorito=" + favorito +
                 '}';
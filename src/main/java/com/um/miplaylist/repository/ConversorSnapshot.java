@@ -0,0 +1,71 @@
+package com.um.miplaylist.repository;
+
+import com.um.miplaylist.config.PlaylistProperties.FormatoArchivo;
+import com.um.miplaylist.model.Video;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Convierte un snapshot de la playlist entre formatos, por ejemplo un playlist.json existente
+ * al formato binario. Se puede usar desde la línea de comandos:
+ * <pre>
+ * mvn -q compile exec:java -Dexec.mainClass=com.um.miplaylist.repository.ConversorSnapshot \
+ *     -Dexec.args="playlist.json playlist.bin binario"
+ * </pre>
+ * Origen y destino pueden ser el mismo archivo; la generación anterior queda en {@code .prev}.
+ */
+public final class ConversorSnapshot {
+
+    private ConversorSnapshot() {
+    }
+
+    /**
+     * Lee el snapshot de origen (en cualquier formato) y lo escribe en el destino con el formato indicado.
+     * Si el origen tiene operaciones en el journal sin compactar, no convierte: esas operaciones
+     * se perderían, ya que el journal queda asociado al snapshot sobre el que se escribió.
+     *
+     * @param origen  Snapshot a convertir
+     * @param destino Archivo a escribir
+     * @param formato Formato del destino
+     * @return Cantidad de videos convertidos
+     * @throws IOException Si el origen no existe, no se puede leer o tiene journal pendiente
+     */
+    public static int convertir(Path origen, Path destino, FormatoArchivo formato) throws IOException {
+        if (!Files.exists(origen)) {
+            throw new IOException("No existe el snapshot " + origen);
+        }
+        VideoRepository lector = new VideoRepository(origen.toString());
+        VideoRepository escritor = new VideoRepository(destino.toString(), formato, false);
+        try {
+            if (!lector.leerJournal().isEmpty()) {
+                throw new IOException("El snapshot " + origen + " tiene operaciones sin compactar en su journal; "
+                        + "inicia y detén la aplicación para compactarlo antes de convertir");
+            }
+            List<Video> videos = lector.cargar();
+            escritor.guardar(videos);
+            return videos.size();
+        } finally {
+            lector.cerrar();
+            escritor.cerrar();
+        }
+    }
+
+    /**
+     * Uso: {@code ConversorSnapshot <origen> <destino> [json|binario]} (por defecto binario).
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2 || args.length > 3) {
+            System.err.println("Uso: ConversorSnapshot <origen> <destino> [json|binario]");
+            System.exit(2);
+        }
+        FormatoArchivo formato = args.length == 3
+                ? FormatoArchivo.valueOf(args[2].toUpperCase(Locale.ROOT))
+                : FormatoArchivo.BINARIO;
+        int cantidad = convertir(Path.of(args[0]), Path.of(args[1]), formato);
+        System.out.println(cantidad + " videos convertidos a " + formato + " en " + args[1]);
+    }
+}
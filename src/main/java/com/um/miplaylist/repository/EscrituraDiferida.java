@@ -0,0 +1,135 @@
+package com.um.miplaylist.repository;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Persistencia diferida (write-behind): los cambios sólo marcan el estado como sucio
+ * y un hilo de fondo los agrupa en una única escritura cada cierto intervalo,
+ * o antes si se acumulan demasiados cambios sin volcar.
+ */
+public class EscrituraDiferida implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(EscrituraDiferida.class);
+
+    /**
+     * Acción que escribe el estado completo en disco.
+     */
+    @FunctionalInterface
+    public interface Volcado {
+        void volcar() throws IOException;
+    }
+
+    private final Volcado volcado;
+    private final int umbralCambios;
+    private final AtomicLong cambiosPendientes;
+    // Hay un volcado adelantado en la cola del planificador: no se encola otro
+    private final AtomicBoolean adelantoPlanificado;
+    private final ScheduledExecutorService planificador;
+    private final Object lockVolcado;
+
+    /**
+     * @param volcado Acción de escritura a ejecutar en cada volcado
+     * @param intervalo Intervalo máximo entre volcados
+     * @param umbralCambios Cantidad de cambios pendientes que adelanta un volcado
+     */
+    public EscrituraDiferida(Volcado volcado, Duration intervalo, int umbralCambios) {
+        this.volcado = volcado;
+        this.umbralCambios = Math.max(1, umbralCambios);
+        this.cambiosPendientes = new AtomicLong();
+        this.adelantoPlanificado = new AtomicBoolean();
+        this.lockVolcado = new Object();
+        this.planificador = Executors.newSingleThreadScheduledExecutor(tarea -> {
+            Thread hilo = new Thread(tarea, "playlist-escritura-diferida");
+            hilo.setDaemon(true);
+            return hilo;
+        });
+        long intervaloMs = Math.max(1, intervalo.toMillis());
+        planificador.scheduleWithFixedDelay(this::volcarEnSegundoPlano, intervaloMs, intervaloMs, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Registra un cambio pendiente de persistir. No bloquea ni escribe en disco.
+     * Mientras los pendientes alcancen el umbral (también después de un volcado fallido) se adelanta
+     * un volcado, con a lo sumo uno en cola. Después de {@link #close()} sólo se cuenta el cambio.
+     */
+    public void marcarCambio() {
+        if (cambiosPendientes.incrementAndGet() >= umbralCambios && !planificador.isShutdown()
+                && adelantoPlanificado.compareAndSet(false, true)) {
+            try {
+                planificador.execute(this::volcarAdelantado);
+            } catch (RejectedExecutionException e) {
+                // Se cerró entre la verificación y el encolado: el volcado final de close() lo incluye
+                adelantoPlanificado.set(false);
+            }
+        }
+    }
+
+    /**
+     * Cantidad de cambios aplicados en memoria que todavía no llegaron a disco.
+     *
+     * @return Cambios sin volcar
+     */
+    public long getCambiosPendientes() {
+        return cambiosPendientes.get();
+    }
+
+    /**
+     * Vuelca los cambios pendientes de forma sincrónica.
+     * Los cambios que lleguen durante la escritura quedan pendientes para el siguiente volcado.
+     *
+     * @throws IOException Si falla la escritura; los cambios siguen pendientes
+     */
+    public void volcar() throws IOException {
+        synchronized (lockVolcado) {
+            long capturados = cambiosPendientes.get();
+            if (capturados == 0) {
+                return;
+            }
+            volcado.volcar();
+            cambiosPendientes.addAndGet(-capturados);
+            logger.debug("Volcados {} cambios pendientes", capturados);
+        }
+    }
+
+    /**
+     * Detiene el hilo de fondo y realiza un último volcado garantizado.
+     */
+    @Override
+    public void close() throws IOException {
+        planificador.shutdown();
+        try {
+            if (!planificador.awaitTermination(10, TimeUnit.SECONDS)) {
+                planificador.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            planificador.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+        volcar();
+    }
+
+    private void volcarAdelantado() {
+        // Antes de volcar: los cambios que lleguen durante la escritura pueden encolar el siguiente
+        adelantoPlanificado.set(false);
+        volcarEnSegundoPlano();
+    }
+
+    private void volcarEnSegundoPlano() {
+        try {
+            volcar();
+        } catch (IOException | RuntimeException e) {
+            // No propagar: una excepción cancelaría las ejecuciones periódicas
+            logger.error("Error en el volcado diferido; {} cambios siguen pendientes", cambiosPendientes.get(), e);
+        }
+    }
+}
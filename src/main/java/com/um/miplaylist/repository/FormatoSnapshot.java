@@ -0,0 +1,40 @@
+package com.um.miplaylist.repository;
+
+import com.um.miplaylist.model.Video;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.util.Collection;
+import java.util.function.Consumer;
+
+/**
+ * Codificación en disco de un snapshot completo de la playlist.
+ * Las implementaciones pueden reutilizar buffers entre llamadas: no son thread-safe
+ * y {@link VideoRepository} las usa bajo su propio lock.
+ */
+interface FormatoSnapshot {
+
+    /**
+     * Escribe los videos en el canal, desde su posición actual.
+     *
+     * @return Checksum del snapshot escrito, el mismo que devuelve {@link #checksum(FileChannel)}
+     */
+    long escribir(FileChannel canal, Collection<Video> videos) throws IOException;
+
+    /**
+     * Verifica el snapshot completo sin entregar videos.
+     *
+     * @throws IOException Si el snapshot está dañado
+     */
+    void validar(FileChannel canal) throws IOException;
+
+    /**
+     * Lee los videos del snapshot y los entrega uno por vez al destino.
+     */
+    void leer(FileChannel canal, Consumer<Video> destino) throws IOException;
+
+    /**
+     * Checksum que identifica al snapshot (lo usa el journal para saber sobre qué snapshot se escribió).
+     */
+    long checksum(FileChannel canal) throws IOException;
+}
@@ -0,0 +1,129 @@
+package com.um.miplaylist.repository;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.um.miplaylist.model.Video;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.function.Consumer;
+
+/**
+ * Formato de intercambio de playlists para importar y exportar: un arreglo JSON de videos
+ * o NDJSON (un objeto JSON por línea), con los mismos campos que el snapshot.
+ * <p>
+ * Lee y escribe en streaming, un video por vez, sin materializar la playlist completa.
+ */
+public final class IntercambioJson {
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory()
+            .disable(JsonParser.Feature.AUTO_CLOSE_SOURCE)
+            .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+
+    private IntercambioJson() {
+    }
+
+    /**
+     * Lee videos de un arreglo JSON o de NDJSON (se detecta por el primer carácter) y los entrega
+     * uno por vez al destino. Los videos se entregan tal como vienen, sin validar.
+     *
+     * @param entrada Contenido a leer (no se cierra)
+     * @param destino Receptor de cada video leído
+     * @throws IOException Si el contenido no es un arreglo de objetos ni una secuencia de objetos
+     */
+    public static void leer(InputStream entrada, Consumer<Video> destino) throws IOException {
+        try (JsonParser parser = JSON_FACTORY.createParser(entrada)) {
+            JsonToken primero = parser.nextToken();
+            if (primero == JsonToken.START_ARRAY) {
+                while (parser.nextToken() == JsonToken.START_OBJECT) {
+                    destino.accept(leerVideo(parser));
+                }
+                if (parser.currentToken() != JsonToken.END_ARRAY) {
+                    throw new JsonParseException(parser, "Se esperaba un objeto de video o el fin del arreglo");
+                }
+                if (parser.nextToken() != null) {
+                    throw new JsonParseException(parser, "Contenido inesperado después del arreglo de videos");
+                }
+                return;
+            }
+            // NDJSON: el parser acepta valores raíz consecutivos separados por saltos de línea
+            for (JsonToken token = primero; token != null; token = parser.nextToken()) {
+                if (token != JsonToken.START_OBJECT) {
+                    throw new JsonParseException(parser, "Se esperaba un arreglo de videos o un objeto por línea");
+                }
+                destino.accept(leerVideo(parser));
+            }
+        }
+    }
+
+    /**
+     * Escribe los videos como arreglo JSON o como NDJSON.
+     *
+     * @param salida Destino (no se cierra; se vacía al terminar)
+     * @param videos Videos a escribir; se recorren una sola vez
+     * @param ndjson true para un objeto por línea, false para un arreglo
+     * @throws IOException Si falla la escritura
+     */
+    public static void escribir(OutputStream salida, Iterable<Video> videos, boolean ndjson) throws IOException {
+        try (JsonGenerator generador = JSON_FACTORY.createGenerator(salida, JsonEncoding.UTF8)) {
+            if (ndjson) {
+                generador.setRootValueSeparator(new SerializedString("\n"));
+            } else {
+                generador.writeStartArray();
+            }
+            boolean vacio = true;
+            for (Video video : videos) {
+                escribirVideo(generador, video);
+                vacio = false;
+            }
+            if (ndjson) {
+                if (!vacio) {
+                    generador.writeRaw('\n');
+                }
+            } else {
+                generador.writeEndArray();
+            }
+        }
+    }
+
+    static void escribirVideo(JsonGenerator generador, Video video) throws IOException {
+        generador.writeStartObject();
+        if (video.getId() != null) {
+            generador.writeNumberField("id", video.getId());
+        }
+        generador.writeStringField("nombre", video.getNombre());
+        generador.writeStringField("link", video.getLink());
+        generador.writeNumberField("likes", video.getLikes());
+        generador.writeBooleanField("favorito", video.isFavorito());
+        generador.writeEndObject();
+    }
+
+    /**
+     * Lee los campos de un video; el parser debe estar en el START_OBJECT. Ignora campos desconocidos.
+     */
+    static Video leerVideo(JsonParser parser) throws IOException {
+        Video video = new Video();
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String campo = parser.currentName();
+            JsonToken valor = parser.nextToken();
+            if (valor == JsonToken.VALUE_NULL) {
+                continue;
+            }
+            switch (campo) {
+                case "id" -> video.setId(parser.getLongValue());
+                case "nombre" -> video.setNombre(parser.getText());
+                case "link" -> video.setLink(parser.getText());
+                case "likes" -> video.setLikes(parser.getLongValue());
+                case "favorito" -> video.setFavorito(parser.getBooleanValue());
+                default -> parser.skipChildren();
+            }
+        }
+        return video;
+    }
+}
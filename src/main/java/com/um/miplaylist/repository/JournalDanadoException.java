@@ -0,0 +1,25 @@
+package com.um.miplaylist.repository;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * El journal tiene un registro ilegible antes del final: no es una escritura interrumpida por una caída,
+ * así que las operaciones siguientes no se descartan. El archivo se aparta sin modificar para recuperarlo a mano.
+ */
+public class JournalDanadoException extends IOException {
+
+    private final transient Path apartado;
+
+    public JournalDanadoException(Path apartado, long posicion) {
+        super("Registro ilegible en el byte " + posicion + " del journal; el archivo se apartó en " + apartado);
+        this.apartado = apartado;
+    }
+
+    /**
+     * @return Ruta a la que se movió el journal dañado
+     */
+    public Path getApartado() {
+        return apartado;
+    }
+}
@@ -0,0 +1,274 @@
+package com.um.miplaylist.repository;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Journal de operaciones de sólo anexado (write-ahead log) en formato JSON lines.
+ * <p>
+ * La primera línea es una cabecera con el checksum del snapshot sobre el que se aplican
+ * las operaciones siguientes; así, si el proceso cae después de escribir un snapshot nuevo
+ * pero antes de reiniciar el journal, las operaciones ya incorporadas no se aplican dos veces.
+ * <p>
+ * Los fsync se agrupan (group commit): un único {@code force} hace durables todos los
+ * registros escritos hasta ese momento, y quienes esperaban por ellos no repiten el fsync.
+ * Los registros se acumulan en memoria y se escriben juntos al sincronizar (o al juntar
+ * {@link #LIMITE_PENDIENTE} bytes), así un lote de operaciones cuesta una escritura y no una por operación.
+ */
+public class JournalOperaciones implements Closeable {
+
+    private static final Logger logger = LoggerFactory.getLogger(JournalOperaciones.class);
+
+    private static final byte FIN_DE_LINEA = '\n';
+
+    /**
+     * Bytes de registros pendientes a partir de los cuales se escriben sin esperar a {@link #sincronizar()}.
+     */
+    static final int LIMITE_PENDIENTE = 64 * 1024;
+
+    private final Path ruta;
+    private final ObjectMapper objectMapper;
+    private final Object lockSincronizacion;
+    private final ByteArrayOutputStream pendiente = new ByteArrayOutputStream();
+    private FileChannel canal;
+    private long registros;
+    private volatile long secuenciaEscrita;
+    private volatile long secuenciaDurable;
+
+    /**
+     * Cabecera del journal.
+     *
+     * @param checksumSnapshot Checksum del snapshot base
+     */
+    record Cabecera(long checksumSnapshot) {
+    }
+
+    /**
+     * Resultado de leer el journal desde disco.
+     *
+     * @param checksumSnapshot Checksum del snapshot base indicado en la cabecera
+     * @param operaciones Operaciones completas, en orden
+     */
+    public record Lectura(long checksumSnapshot, List<Operacion> operaciones) {
+    }
+
+    public JournalOperaciones(Path ruta) {
+        this.ruta = ruta;
+        this.objectMapper = new ObjectMapper();
+        this.lockSincronizacion = new Object();
+    }
+
+    /**
+     * Lee las operaciones completas del journal. Un último registro truncado o ilegible
+     * (caída a mitad de escritura) se descarta y se recorta del archivo. Un registro ilegible
+     * seguido de otros no puede venir de una caída: el journal se aparta como
+     * {@code <journal>.corrupto-<timestamp>} y la lectura falla, sin descartar nada.
+     *
+     * @return Lectura del journal, o null si no existe o no tiene cabecera válida
+     * @throws JournalDanadoException Si hay un registro ilegible antes del último
+     * @throws IOException Si hay error al leer el archivo
+     */
+    public synchronized Lectura leer() throws IOException {
+        if (!Files.exists(ruta)) {
+            return null;
+        }
+        byte[] contenido = Files.readAllBytes(ruta);
+        int inicio = 0;
+        long finValido = 0;
+        Cabecera cabecera = null;
+        List<Operacion> operaciones = new ArrayList<>();
+
+        while (inicio < contenido.length) {
+            int fin = indiceDe(contenido, FIN_DE_LINEA, inicio);
+            if (fin < 0) {
+                logger.warn("Descartando registro incompleto al final de {}", ruta);
+                break;
+            }
+            byte[] linea = Arrays.copyOfRange(contenido, inicio, fin);
+            try {
+                if (cabecera == null) {
+                    cabecera = objectMapper.readValue(linea, Cabecera.class);
+                } else {
+                    operaciones.add(objectMapper.readValue(linea, Operacion.class));
+                }
+            } catch (IOException e) {
+                if (fin + 1 < contenido.length) {
+                    Path apartado = ruta.resolveSibling(ruta.getFileName() + ".corrupto-" + System.currentTimeMillis());
+                    Files.move(ruta, apartado);
+                    logger.error("Registro ilegible en {} (byte {}) seguido de otros; journal apartado en {}",
+                            ruta, inicio, apartado, e);
+                    throw new JournalDanadoException(apartado, inicio);
+                }
+                logger.warn("Descartando último registro ilegible de {} (byte {})", ruta, inicio);
+                break;
+            }
+            inicio = fin + 1;
+            finValido = inicio;
+        }
+
+        if (finValido < contenido.length) {
+            try (FileChannel recorte = FileChannel.open(ruta, StandardOpenOption.WRITE)) {
+                recorte.truncate(finValido);
+                recorte.force(true);
+            }
+        }
+        return cabecera != null ? new Lectura(cabecera.checksumSnapshot(), operaciones) : null;
+    }
+
+    /**
+     * Reemplaza el journal por uno vacío cuya cabecera apunta al snapshot indicado,
+     * y lo deja abierto para anexar operaciones.
+     *
+     * @param checksumSnapshot Checksum del snapshot recién escrito
+     * @throws IOException Si hay error al escribir el archivo
+     */
+    public synchronized void reiniciar(long checksumSnapshot) throws IOException {
+        // El snapshot ya incluye los registros pendientes
+        pendiente.reset();
+        cerrarCanal();
+        Path temporal = ruta.resolveSibling(ruta.getFileName() + ".tmp");
+        try (FileChannel nuevo = FileChannel.open(temporal, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            escribirCompleto(nuevo, serializar(new Cabecera(checksumSnapshot)));
+            nuevo.force(true);
+        }
+        Files.move(temporal, ruta, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        canal = FileChannel.open(ruta, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        registros = 0;
+        secuenciaDurable = secuenciaEscrita;
+    }
+
+    /**
+     * Anexa una operación al journal. El registro no queda necesariamente escrito
+     * ni durable hasta llamar a {@link #sincronizar()}.
+     *
+     * @param operacion Operación a registrar
+     * @throws IOException Si hay error al escribir
+     */
+    public synchronized void registrar(Operacion operacion) throws IOException {
+        if (canal == null) {
+            throw new IOException("El journal no está abierto: " + ruta);
+        }
+        byte[] registro = serializar(operacion);
+        if (pendiente.size() + registro.length > LIMITE_PENDIENTE) {
+            escribirPendiente();
+        }
+        pendiente.write(registro);
+        registros++;
+        secuenciaEscrita = secuenciaEscrita + 1;
+    }
+
+    /**
+     * Hace durables todos los registros escritos hasta ahora.
+     * Si otro hilo ya hizo un fsync que los cubre, retorna sin repetirlo.
+     *
+     * @throws IOException Si falla el fsync
+     */
+    public void sincronizar() throws IOException {
+        long objetivo = secuenciaEscrita;
+        if (secuenciaDurable >= objetivo) {
+            return;
+        }
+        synchronized (lockSincronizacion) {
+            if (secuenciaDurable >= objetivo) {
+                return;
+            }
+            FileChannel actual;
+            long cubiertos;
+            synchronized (this) {
+                escribirPendiente();
+                actual = canal;
+                cubiertos = secuenciaEscrita;
+            }
+            try {
+                if (actual != null) {
+                    actual.force(false);
+                }
+            } catch (ClosedChannelException e) {
+                // Un reinicio concurrente cerró el canal: si ya terminó, el snapshot cubre estos registros
+                synchronized (this) {
+                    if (secuenciaDurable < cubiertos) {
+                        throw e;
+                    }
+                }
+                return;
+            }
+            secuenciaDurable = cubiertos;
+        }
+    }
+
+    /**
+     * Cantidad de operaciones registradas desde el último reinicio.
+     *
+     * @return Registros en el journal
+     */
+    public synchronized long getRegistros() {
+        return registros;
+    }
+
+    public Path getRuta() {
+        return ruta;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (canal != null) {
+            escribirPendiente();
+            canal.force(false);
+        }
+        cerrarCanal();
+    }
+
+    private void escribirPendiente() throws IOException {
+        if (canal != null && pendiente.size() > 0) {
+            pendiente.writeTo(Channels.newOutputStream(canal));
+            pendiente.reset();
+        }
+    }
+
+    private void cerrarCanal() throws IOException {
+        if (canal != null) {
+            canal.close();
+            canal = null;
+        }
+    }
+
+    private byte[] serializar(Object registro) throws IOException {
+        byte[] json = objectMapper.writeValueAsBytes(registro);
+        byte[] linea = Arrays.copyOf(json, json.length + 1);
+        linea[json.length] = FIN_DE_LINEA;
+        return linea;
+    }
+
+    private static void escribirCompleto(FileChannel destino, byte[] datos) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(datos);
+        while (buffer.hasRemaining()) {
+            destino.write(buffer);
+        }
+    }
+
+    private static int indiceDe(byte[] datos, byte valor, int desde) {
+        for (int i = desde; i < datos.length; i++) {
+            if (datos[i] == valor) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
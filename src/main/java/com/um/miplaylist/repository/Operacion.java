@@ -0,0 +1,38 @@
+package com.um.miplaylist.repository;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.um.miplaylist.model.Video;
+
+/**
+ * Registro del journal de operaciones: un cambio sobre la playlist.
+ *
+ * @param tipo Tipo de operación
+ * @param id ID del video afectado
+ * @param video Video completo (sólo para {@link Tipo#ADD})
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record Operacion(Tipo tipo, long id, Video video) {
+
+    /**
+     * Tipos de operación registrables.
+     */
+    public enum Tipo {
+        ADD, DELETE, LIKE, TOGGLE_FAV
+    }
+
+    public static Operacion agregar(Video video) {
+        return new Operacion(Tipo.ADD, video.getId(), video);
+    }
+
+    public static Operacion eliminar(long id) {
+        return new Operacion(Tipo.DELETE, id, null);
+    }
+
+    public static Operacion like(long id) {
+        return new Operacion(Tipo.LIKE, id, null);
+    }
+
+    public static Operacion toggleFavorito(long id) {
+        return new Operacion(Tipo.TOGGLE_FAV, id, null);
+    }
+}
@@ -0,0 +1,88 @@
+package com.um.miplaylist.repository;
+
+import com.um.miplaylist.model.Video;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Persistencia de la playlist que usa el servicio: un snapshot completo y, en modo journal, las
+ * operaciones posteriores a él. {@link VideoRepository} es la implementación sobre archivos; otra
+ * implementación (una base embebida, un almacenamiento remoto) sólo necesita cumplir este contrato
+ * para que el servicio funcione igual sobre ella.
+ * <p>
+ * Las implementaciones deben admitir {@link #registrar} y {@link #sincronizarJournal} desde varios
+ * hilos a la vez; el servicio garantiza que no se registren operaciones mientras compacta.
+ */
+public interface PersistenciaVideos {
+
+    /**
+     * Si hay una playlist guardada para cargar.
+     */
+    boolean existeArchivo();
+
+    /**
+     * Carga la playlist guardada entregando los videos uno por vez, en orden.
+     *
+     * @param destino Receptor de cada video leído
+     * @throws IOException Si no se puede leer la playlist guardada
+     */
+    void cargar(Consumer<Video> destino) throws IOException;
+
+    /**
+     * Guarda la playlist completa reemplazando la anterior de forma atómica.
+     *
+     * @param videos Estado completo de la playlist
+     * @throws IOException Si hay error al escribir
+     */
+    void guardar(List<Video> videos) throws IOException;
+
+    /**
+     * Guarda la playlist completa y descarta las operaciones registradas hasta ahora.
+     *
+     * @param videos Estado completo de la playlist
+     * @throws IOException Si hay error al escribir
+     */
+    void compactar(List<Video> videos) throws IOException;
+
+    /**
+     * Operaciones registradas después del último guardado, en orden.
+     *
+     * @return Operaciones a reaplicar sobre la playlist cargada
+     * @throws IOException Si hay error al leer
+     */
+    List<Operacion> leerJournal() throws IOException;
+
+    /**
+     * Registra una operación (sin esperar a que sea durable).
+     *
+     * @param operacion Operación a registrar
+     * @throws IOException Si hay error al escribir
+     */
+    void registrar(Operacion operacion) throws IOException;
+
+    /**
+     * Espera a que las operaciones registradas sean durables.
+     *
+     * @throws IOException Si falla la sincronización
+     */
+    void sincronizarJournal() throws IOException;
+
+    /**
+     * Cantidad de operaciones registradas desde la última compactación.
+     */
+    long getRegistrosJournal();
+
+    /**
+     * Libera los recursos abiertos (archivos, conexiones).
+     *
+     * @throws IOException Si hay error al cerrar
+     */
+    void cerrar() throws IOException;
+
+    /**
+     * Ubicación de la playlist guardada, para los mensajes de log.
+     */
+    String getRutaArchivo();
+}
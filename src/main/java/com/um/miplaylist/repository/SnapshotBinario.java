@@ -0,0 +1,335 @@
+package com.um.miplaylist.repository;
+
+import com.um.miplaylist.model.Video;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.ConcurrentModificationException;
+import java.util.function.Consumer;
+import java.util.zip.CRC32;
+
+/**
+ * Formato de snapshot binario, pensado para cargar rápido playlists grandes.
+ * <p>
+ * Una cabecera de ancho fijo seguida de bloques por columna y un área de textos:
+ * <pre>
+ *  0  "MPLB"                        magia
+ *  4  int   versión (1)
+ *  8  int   cantidad de videos (n)
+ * 12  int   reservado
+ * 16  long  largo del área de textos
+ * 24  long  checksum
+ * 32  long[n]    ids (Long.MIN_VALUE = sin id)
+ *     long[n]    likes
+ *     int[4n]    por video: offset y largo de nombre, offset y largo de link (largo -1 = null)
+ *     byte[]     favoritos, un bit por video, completado a múltiplo de 8
+ *     byte[]     textos en UTF-8
+ * </pre>
+ * Todo en little-endian. El checksum es el CRC32 de los CRC32 de cada bloque, de modo que
+ * se puede calcular al escribir los bloques en paralelo y al leerlos sobre el archivo mapeado.
+ * <p>
+ * La lectura mapea el archivo con {@link MappedByteBuffer}: no hay copia a un buffer propio
+ * y el sistema operativo trae las páginas a memoria a medida que se recorren.
+ * Las instancias no son thread-safe.
+ */
+class SnapshotBinario implements FormatoSnapshot {
+
+    static final byte[] MAGIA = {'M', 'P', 'L', 'B'};
+    private static final int VERSION = 1;
+    private static final int LARGO_CABECERA = 32;
+    private static final int POSICION_CHECKSUM = 24;
+    private static final long SIN_ID = Long.MIN_VALUE;
+    private static final int TAMANO_BUFFER = 16 * 1024;
+
+    private final CRC32 crc = new CRC32();
+    private byte[] textoTemporal = new byte[256];
+
+    @Override
+    public long escribir(FileChannel canal, Collection<Video> videos) throws IOException {
+        long base = canal.position();
+        int cantidad = videos.size();
+        long posIds = base + LARGO_CABECERA;
+        long posLikes = posIds + 8L * cantidad;
+        long posTextos = posLikes + 8L * cantidad;
+        long posFavoritos = posTextos + 16L * cantidad;
+        long posArena = posFavoritos + largoFavoritos(cantidad);
+
+        Bloque ids = new Bloque(canal, posIds);
+        Bloque likes = new Bloque(canal, posLikes);
+        Bloque textos = new Bloque(canal, posTextos);
+        Bloque favoritos = new Bloque(canal, posFavoritos);
+        Bloque arena = new Bloque(canal, posArena);
+
+        int escritos = 0;
+        int bits = 0;
+        for (Video video : videos) {
+            ids.putLong(video.getId() != null ? video.getId() : SIN_ID);
+            likes.putLong(video.getLikes());
+            escribirTexto(video.getNombre(), textos, arena);
+            escribirTexto(video.getLink(), textos, arena);
+            if (video.isFavorito()) {
+                bits |= 1 << (escritos & 7);
+            }
+            escritos++;
+            if ((escritos & 7) == 0) {
+                favoritos.put((byte) bits);
+                bits = 0;
+            }
+        }
+        if (escritos != cantidad) {
+            throw new ConcurrentModificationException("La colección cambió mientras se escribía el snapshot");
+        }
+        if ((escritos & 7) != 0) {
+            favoritos.put((byte) bits);
+        }
+        while (favoritos.escritos() < largoFavoritos(cantidad)) {
+            favoritos.put((byte) 0);
+        }
+
+        crc.reset();
+        for (Bloque bloque : new Bloque[]{ids, likes, textos, favoritos, arena}) {
+            bloque.vaciar();
+            actualizarChecksum(bloque.checksum());
+        }
+        long checksum = crc.getValue();
+
+        ByteBuffer cabecera = ByteBuffer.allocate(LARGO_CABECERA).order(ByteOrder.LITTLE_ENDIAN);
+        cabecera.put(MAGIA).putInt(VERSION).putInt(cantidad).putInt(0)
+                .putLong(arena.escritos()).putLong(checksum).flip();
+        while (cabecera.hasRemaining()) {
+            canal.write(cabecera, base + cabecera.position());
+        }
+        canal.position(posArena + arena.escritos());
+        return checksum;
+    }
+
+    @Override
+    public void validar(FileChannel canal) throws IOException {
+        Vista vista = mapear(canal);
+        if (calcularChecksum(vista) != vista.checksum) {
+            throw new IOException("Checksum inválido");
+        }
+    }
+
+    @Override
+    public void leer(FileChannel canal, Consumer<Video> destino) throws IOException {
+        Vista vista = mapear(canal);
+        ByteBuffer datos = vista.datos;
+        for (int i = 0; i < vista.cantidad; i++) {
+            long id = datos.getLong(vista.posIds + 8 * i);
+            long likes = datos.getLong(vista.posLikes + 8 * i);
+            int posTexto = vista.posTextos + 16 * i;
+            String nombre = leerTexto(vista, datos.getInt(posTexto), datos.getInt(posTexto + 4));
+            String link = leerTexto(vista, datos.getInt(posTexto + 8), datos.getInt(posTexto + 12));
+            boolean favorito = (datos.get(vista.posFavoritos + (i >>> 3)) & (1 << (i & 7))) != 0;
+            destino.accept(new Video(id == SIN_ID ? null : id, nombre, link, likes, favorito));
+        }
+    }
+
+    @Override
+    public long checksum(FileChannel canal) throws IOException {
+        ByteBuffer campo = ByteBuffer.allocate(8).order(ByteOrder.LITTLE_ENDIAN);
+        while (campo.hasRemaining()) {
+            if (canal.read(campo, POSICION_CHECKSUM + campo.position()) < 0) {
+                throw new IOException("Cabecera incompleta");
+            }
+        }
+        return campo.getLong(0);
+    }
+
+    /**
+     * Indica si el canal empieza con la magia del formato binario.
+     */
+    static boolean esBinario(FileChannel canal) throws IOException {
+        ByteBuffer inicio = ByteBuffer.allocate(MAGIA.length);
+        while (inicio.hasRemaining()) {
+            if (canal.read(inicio, inicio.position()) < 0) {
+                return false;
+            }
+        }
+        return inicio.flip().equals(ByteBuffer.wrap(MAGIA));
+    }
+
+    private void escribirTexto(String texto, Bloque textos, Bloque arena) throws IOException {
+        if (texto == null) {
+            textos.putInt(0);
+            textos.putInt(-1);
+            return;
+        }
+        byte[] bytes = texto.getBytes(StandardCharsets.UTF_8);
+        textos.putInt(Math.toIntExact(arena.escritos()));
+        textos.putInt(bytes.length);
+        arena.put(bytes);
+    }
+
+    private String leerTexto(Vista vista, int offset, int largo) throws IOException {
+        if (largo < 0) {
+            return null;
+        }
+        if (offset < 0 || (long) offset + largo > vista.largoArena) {
+            throw new IOException("Texto fuera del área de textos");
+        }
+        if (textoTemporal.length < largo) {
+            textoTemporal = new byte[Math.max(largo, textoTemporal.length * 2)];
+        }
+        vista.datos.get(vista.posArena + offset, textoTemporal, 0, largo);
+        return new String(textoTemporal, 0, largo, StandardCharsets.UTF_8);
+    }
+
+    private long calcularChecksum(Vista vista) {
+        crc.reset();
+        int[] limites = {vista.posIds, vista.posLikes, vista.posTextos, vista.posFavoritos, vista.posArena,
+                vista.posArena + (int) vista.largoArena};
+        CRC32 bloque = new CRC32();
+        for (int i = 0; i < limites.length - 1; i++) {
+            bloque.reset();
+            bloque.update(vista.datos.slice(limites[i], limites[i + 1] - limites[i]));
+            actualizarChecksum(bloque.getValue());
+        }
+        return crc.getValue();
+    }
+
+    private void actualizarChecksum(long checksumBloque) {
+        for (int i = 0; i < 4; i++) {
+            crc.update((int) (checksumBloque >>> (8 * i)));
+        }
+    }
+
+    private static long largoFavoritos(int cantidad) {
+        return ((cantidad + 63L) >>> 6) << 3;
+    }
+
+    /**
+     * Mapea el archivo y verifica que la cabecera sea coherente con su tamaño.
+     */
+    private static Vista mapear(FileChannel canal) throws IOException {
+        long tamano = canal.size();
+        if (tamano < LARGO_CABECERA) {
+            throw new IOException("Archivo binario sin cabecera completa");
+        }
+        if (tamano > Integer.MAX_VALUE) {
+            throw new IOException("Snapshot binario demasiado grande para mapear: " + tamano + " bytes");
+        }
+        MappedByteBuffer mapeado = canal.map(FileChannel.MapMode.READ_ONLY, 0, tamano);
+        ByteBuffer datos = mapeado.order(ByteOrder.LITTLE_ENDIAN);
+        if (!datos.slice(0, MAGIA.length).equals(ByteBuffer.wrap(MAGIA))) {
+            throw new IOException("No es un snapshot binario");
+        }
+        int version = datos.getInt(4);
+        if (version != VERSION) {
+            throw new IOException("Versión de snapshot binario no soportada: " + version);
+        }
+        int cantidad = datos.getInt(8);
+        long largoArena = datos.getLong(16);
+        if (cantidad < 0 || largoArena < 0) {
+            throw new IOException("Cabecera de snapshot binario inválida");
+        }
+        long esperado = LARGO_CABECERA + 32L * cantidad + largoFavoritos(cantidad) + largoArena;
+        if (esperado != tamano) {
+            throw new IOException("Tamaño de snapshot binario inesperado: " + tamano + " en lugar de " + esperado);
+        }
+        return new Vista(datos, cantidad, largoArena, datos.getLong(POSICION_CHECKSUM));
+    }
+
+    /**
+     * Archivo mapeado con las posiciones de cada bloque.
+     */
+    private static final class Vista {
+
+        final ByteBuffer datos;
+        final int cantidad;
+        final long largoArena;
+        final long checksum;
+        final int posIds;
+        final int posLikes;
+        final int posTextos;
+        final int posFavoritos;
+        final int posArena;
+
+        Vista(ByteBuffer datos, int cantidad, long largoArena, long checksum) {
+            this.datos = datos;
+            this.cantidad = cantidad;
+            this.largoArena = largoArena;
+            this.checksum = checksum;
+            this.posIds = LARGO_CABECERA;
+            this.posLikes = posIds + 8 * cantidad;
+            this.posTextos = posLikes + 8 * cantidad;
+            this.posFavoritos = posTextos + 16 * cantidad;
+            this.posArena = posFavoritos + (int) largoFavoritos(cantidad);
+        }
+    }
+
+    /**
+     * Escritura secuencial de un bloque en su posición del archivo, con su propio buffer y checksum.
+     */
+    private static final class Bloque {
+
+        private final FileChannel canal;
+        private final ByteBuffer buffer = ByteBuffer.allocate(TAMANO_BUFFER).order(ByteOrder.LITTLE_ENDIAN);
+        private final CRC32 crc = new CRC32();
+        private long posicion;
+        private long escritos;
+
+        Bloque(FileChannel canal, long posicion) {
+            this.canal = canal;
+            this.posicion = posicion;
+        }
+
+        void putLong(long valor) throws IOException {
+            asegurar(8);
+            buffer.putLong(valor);
+            escritos += 8;
+        }
+
+        void putInt(int valor) throws IOException {
+            asegurar(4);
+            buffer.putInt(valor);
+            escritos += 4;
+        }
+
+        void put(byte valor) throws IOException {
+            asegurar(1);
+            buffer.put(valor);
+            escritos++;
+        }
+
+        void put(byte[] datos) throws IOException {
+            int desde = 0;
+            while (desde < datos.length) {
+                asegurar(1);
+                int porCopiar = Math.min(datos.length - desde, buffer.remaining());
+                buffer.put(datos, desde, porCopiar);
+                desde += porCopiar;
+            }
+            escritos += datos.length;
+        }
+
+        long escritos() {
+            return escritos;
+        }
+
+        long checksum() {
+            return crc.getValue();
+        }
+
+        void vaciar() throws IOException {
+            buffer.flip();
+            crc.update(buffer.array(), 0, buffer.limit());
+            while (buffer.hasRemaining()) {
+                posicion += canal.write(buffer, posicion);
+            }
+            buffer.clear();
+        }
+
+        private void asegurar(int bytes) throws IOException {
+            if (buffer.remaining() < bytes) {
+                vaciar();
+            }
+        }
+    }
+}
@@ -0,0 +1,274 @@
+package com.um.miplaylist.repository;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.um.miplaylist.model.Video;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.HexFormat;
+import java.util.function.Consumer;
+import java.util.zip.CRC32;
+
+/**
+ * Formato de snapshot JSON: un arreglo de videos seguido de una línea {@code #CRC32:xxxxxxxx}
+ * con el checksum del arreglo.
+ * <p>
+ * Lee y escribe en streaming con {@link JsonParser}/{@link JsonGenerator}, un video por vez,
+ * sin materializar el archivo completo ni pasar por databind. Todo el I/O pasa por un único
+ * buffer reutilizado entre llamadas, por lo que una instancia no es thread-safe.
+ */
+class SnapshotJson implements FormatoSnapshot {
+
+    private static final String PREFIJO_CHECKSUM = "\n#CRC32:";
+    private static final int LARGO_PIE = PREFIJO_CHECKSUM.length() + 8 + 1;
+    private static final int TAMANO_BUFFER = 64 * 1024;
+
+    private final JsonFactory jsonFactory;
+    private final boolean indentado;
+    private final ByteBuffer buffer;
+    private final CRC32 crc;
+
+    /**
+     * @param indentado true para escribir JSON indentado (más legible y más grande)
+     */
+    SnapshotJson(boolean indentado) {
+        this.jsonFactory = new JsonFactory();
+        this.indentado = indentado;
+        this.buffer = ByteBuffer.allocateDirect(TAMANO_BUFFER);
+        this.crc = new CRC32();
+    }
+
+    /**
+     * Escribe los videos y el pie de checksum en el canal, desde su posición actual.
+     *
+     * @return Checksum CRC32 del arreglo JSON
+     */
+    @Override
+    public long escribir(FileChannel canal, Collection<Video> videos) throws IOException {
+        crc.reset();
+        SalidaCanal salida = new SalidaCanal(canal);
+        try (JsonGenerator generador = jsonFactory.createGenerator(salida, JsonEncoding.UTF8)) {
+            if (indentado) {
+                generador.useDefaultPrettyPrinter();
+            }
+            generador.writeStartArray();
+            for (Video video : videos) {
+                IntercambioJson.escribirVideo(generador, video);
+            }
+            generador.writeEndArray();
+        }
+        long checksum = crc.getValue();
+        salida.escribirSinChecksum((PREFIJO_CHECKSUM + HexFormat.of().toHexDigits((int) checksum) + "\n")
+                .getBytes(StandardCharsets.US_ASCII));
+        salida.vaciar();
+        return checksum;
+    }
+
+    /**
+     * Verifica el snapshot sin materializar videos: compara el checksum del pie o,
+     * en archivos sin pie (formato anterior), recorre los tokens del JSON.
+     *
+     * @throws IOException Si el snapshot está dañado
+     */
+    @Override
+    public void validar(FileChannel canal) throws IOException {
+        long largoCuerpo = largoCuerpo(canal);
+        if (largoCuerpo < canal.size()) {
+            if (calcularChecksum(canal, largoCuerpo) != checksumDelPie(canal, largoCuerpo)) {
+                throw new IOException("Checksum inválido");
+            }
+            return;
+        }
+        try (JsonParser parser = jsonFactory.createParser(new EntradaCanal(canal, largoCuerpo))) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new IOException("Se esperaba un arreglo de videos");
+            }
+            parser.skipChildren();
+            if (parser.nextToken() != null) {
+                throw new IOException("Contenido inesperado después del arreglo de videos");
+            }
+        }
+    }
+
+    /**
+     * Lee los videos del snapshot y los entrega uno por vez al destino.
+     */
+    @Override
+    public void leer(FileChannel canal, Consumer<Video> destino) throws IOException {
+        try (JsonParser parser = jsonFactory.createParser(new EntradaCanal(canal, largoCuerpo(canal)))) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new IOException("Se esperaba un arreglo de videos");
+            }
+            while (parser.nextToken() == JsonToken.START_OBJECT) {
+                destino.accept(IntercambioJson.leerVideo(parser));
+            }
+            if (parser.currentToken() != JsonToken.END_ARRAY) {
+                throw new IOException("Arreglo de videos incompleto");
+            }
+        }
+    }
+
+    /**
+     * Checksum del snapshot: el del pie, o el CRC32 completo si no tiene pie.
+     */
+    @Override
+    public long checksum(FileChannel canal) throws IOException {
+        long largoCuerpo = largoCuerpo(canal);
+        if (largoCuerpo < canal.size()) {
+            return checksumDelPie(canal, largoCuerpo);
+        }
+        return calcularChecksum(canal, largoCuerpo);
+    }
+
+    /**
+     * Largo del contenido JSON, excluyendo el pie de checksum si lo hay.
+     */
+    private long largoCuerpo(FileChannel canal) throws IOException {
+        long tamano = canal.size();
+        if (tamano < LARGO_PIE) {
+            return tamano;
+        }
+        byte[] pie = leerRango(canal, tamano - LARGO_PIE, PREFIJO_CHECKSUM.length());
+        return new String(pie, StandardCharsets.US_ASCII).equals(PREFIJO_CHECKSUM) ? tamano - LARGO_PIE : tamano;
+    }
+
+    private long checksumDelPie(FileChannel canal, long largoCuerpo) throws IOException {
+        String hex = new String(leerRango(canal, largoCuerpo + PREFIJO_CHECKSUM.length(), 8), StandardCharsets.US_ASCII);
+        try {
+            return Long.parseLong(hex, 16);
+        } catch (NumberFormatException e) {
+            throw new IOException("Pie de checksum ilegible: " + hex, e);
+        }
+    }
+
+    private long calcularChecksum(FileChannel canal, long largo) throws IOException {
+        crc.reset();
+        long posicion = 0;
+        while (posicion < largo) {
+            buffer.clear();
+            buffer.limit((int) Math.min(buffer.capacity(), largo - posicion));
+            int leidos = canal.read(buffer, posicion);
+            if (leidos < 0) {
+                throw new IOException("Fin de archivo inesperado");
+            }
+            buffer.flip();
+            crc.update(buffer);
+            posicion += leidos;
+        }
+        return crc.getValue();
+    }
+
+    private static byte[] leerRango(FileChannel canal, long posicion, int largo) throws IOException {
+        ByteBuffer destino = ByteBuffer.allocate(largo);
+        while (destino.hasRemaining()) {
+            if (canal.read(destino, posicion + destino.position()) < 0) {
+                throw new IOException("Fin de archivo inesperado");
+            }
+        }
+        return destino.array();
+    }
+
+    /**
+     * OutputStream sobre el canal que acumula en el buffer compartido y actualiza el checksum.
+     */
+    private final class SalidaCanal extends OutputStream {
+
+        private final FileChannel canal;
+
+        SalidaCanal(FileChannel canal) {
+            this.canal = canal;
+            buffer.clear();
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            write(new byte[]{(byte) b}, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] datos, int desde, int largo) throws IOException {
+            crc.update(datos, desde, largo);
+            escribirSinChecksum(datos, desde, largo);
+        }
+
+        void escribirSinChecksum(byte[] datos) throws IOException {
+            escribirSinChecksum(datos, 0, datos.length);
+        }
+
+        private void escribirSinChecksum(byte[] datos, int desde, int largo) throws IOException {
+            while (largo > 0) {
+                if (!buffer.hasRemaining()) {
+                    vaciar();
+                }
+                int porCopiar = Math.min(largo, buffer.remaining());
+                buffer.put(datos, desde, porCopiar);
+                desde += porCopiar;
+                largo -= porCopiar;
+            }
+        }
+
+        void vaciar() throws IOException {
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                canal.write(buffer);
+            }
+            buffer.clear();
+        }
+
+        @Override
+        public void close() {
+            // El canal lo cierra quien lo abrió; el pie se escribe después del arreglo
+        }
+    }
+
+    /**
+     * InputStream sobre los primeros {@code limite} bytes del canal, leyendo a través del buffer compartido.
+     */
+    private final class EntradaCanal extends InputStream {
+
+        private final FileChannel canal;
+        private final long limite;
+        private long posicion;
+
+        EntradaCanal(FileChannel canal, long limite) {
+            this.canal = canal;
+            this.limite = limite;
+            buffer.clear().limit(0);
+        }
+
+        @Override
+        public int read() throws IOException {
+            byte[] uno = new byte[1];
+            return read(uno, 0, 1) < 0 ? -1 : uno[0] & 0xff;
+        }
+
+        @Override
+        public int read(byte[] destino, int desde, int largo) throws IOException {
+            if (!buffer.hasRemaining()) {
+                if (posicion >= limite) {
+                    return -1;
+                }
+                buffer.clear();
+                buffer.limit((int) Math.min(buffer.capacity(), limite - posicion));
+                int leidos = canal.read(buffer, posicion);
+                if (leidos < 0) {
+                    return -1;
+                }
+                posicion += leidos;
+                buffer.flip();
+            }
+            int porCopiar = Math.min(largo, buffer.remaining());
+            buffer.get(destino, desde, porCopiar);
+            return porCopiar;
+        }
+    }
+}
@@ -1,82 +1,316 @@
 package com.um.miplaylist.repository;
 
-import com.fasterxml.jackson.core.type.TypeReference;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.SerializationFeature;
+import com.um.miplaylist.config.PlaylistProperties;
+import com.um.miplaylist.config.PlaylistProperties.FormatoArchivo;
 import com.um.miplaylist.model.Video;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Repository;
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Consumer;
 
 /**
  * Repositorio para persistir videos en archivo JSON.
  * Guarda y carga automáticamente la playlist desde playlist.json
+ * <p>
+ * Cada snapshot se escribe en un archivo temporal, se fuerza a disco y se renombra
+ * atómicamente sobre playlist.json, conservando la generación anterior en
+ * {@code playlist.json.prev}. Una línea final {@code #CRC32:xxxxxxxx} permite detectar
+ * un archivo dañado y recurrir a la generación anterior. La lectura y escritura del JSON
+ * son en streaming (ver {@link SnapshotJson}), un video por vez.
+ * <p>
+ * El snapshot se escribe en el formato configurado (JSON o {@link SnapshotBinario binario});
+ * al cargar, el formato se detecta por el contenido del archivo, así que cambiar de formato
+ * no requiere migrar a mano: el próximo guardado ya usa el formato nuevo.
+ * <p>
+ * En modo journal, además del snapshot completo mantiene un journal de operaciones
+ * ({@code playlist.json.journal}) con los cambios posteriores al snapshot.
  */
 @Repository
-public class VideoRepository {
+public class VideoRepository implements PersistenciaVideos {
+
+    private static final Logger logger = LoggerFactory.getLogger(VideoRepository.class);
 
     private static final String FILE_PATH = "playlist.json";
-    private final ObjectMapper objectMapper;
+    private final SnapshotJson formatoJson;
+    private final SnapshotBinario formatoBinario;
+    private final FormatoSnapshot formatoEscritura;
     private final File dataFile;
+    private final Path archivoAnterior;
+    private final Path archivoTemporal;
+    private final JournalOperaciones journal;
 
     public VideoRepository() {
-        this.objectMapper = new ObjectMapper();
-        this.objectMapper.enable(SerializationFeature.INDENT_OUTPUT);
-        this.dataFile = new File(FILE_PATH);
+        this(FILE_PATH);
+    }
+
+    @Autowired
+    public VideoRepository(PlaylistProperties propiedades) {
+        this(propiedades.getPersistencia().getArchivo(), propiedades.getPersistencia().getFormato(),
+                propiedades.getPersistencia().isJsonIndentado());
+    }
+
+    public VideoRepository(String rutaArchivo) {
+        this(rutaArchivo, false);
+    }
+
+    public VideoRepository(String rutaArchivo, boolean jsonIndentado) {
+        this(rutaArchivo, FormatoArchivo.JSON, jsonIndentado);
+    }
+
+    public VideoRepository(String rutaArchivo, FormatoArchivo formato, boolean jsonIndentado) {
+        this.formatoJson = new SnapshotJson(jsonIndentado);
+        this.formatoBinario = new SnapshotBinario();
+        this.formatoEscritura = formato == FormatoArchivo.BINARIO ? formatoBinario : formatoJson;
+        this.dataFile = new File(rutaArchivo);
+        this.archivoAnterior = hermano(".prev");
+        this.archivoTemporal = hermano(".tmp");
+        this.journal = new JournalOperaciones(dataFile.toPath().resolveSibling(dataFile.getName() + ".journal"));
     }
 
     /**
-     * Guarda la lista de videos en el archivo JSON.
+     * Guarda la lista de videos en el archivo de datos de forma atómica, en el formato configurado.
+     * Las escrituras concurrentes se serializan para no intercalar contenido en el archivo.
      *
      * @param videos Lista de videos a guardar
      * @throws IOException Si hay error al escribir el archivo
      */
-    public void guardar(List<Video> videos) throws IOException {
-        objectMapper.writeValue(dataFile, videos);
+    @Override
+    public synchronized void guardar(List<Video> videos) throws IOException {
+        escribirSnapshot(videos);
     }
 
     /**
-     * Carga la lista de videos desde el archivo JSON.
+     * Carga la lista de videos desde el archivo de datos.
      * Si el archivo no existe, retorna una lista vacía.
      *
      * @return Lista de videos cargada desde el archivo
-     * @throws IOException Si hay error al leer el archivo
+     * @throws IOException Si no hay ninguna generación legible
+     * @see #cargar(Consumer)
      */
     public List<Video> cargar() throws IOException {
-        if (!dataFile.exists()) {
+        List<Video> videos = new ArrayList<>();
+        cargar(videos::add);
+        return videos;
+    }
+
+    /**
+     * Carga los videos del archivo de datos entregándolos uno por vez, sin materializar la lista.
+     * El formato (JSON o binario) se detecta por el contenido, no por la configuración.
+     * El snapshot se valida completo antes de entregar el primer video. Si está dañado
+     * (checksum inválido o contenido ilegible), se aparta como {@code playlist.json.corrupto-<timestamp>}
+     * y se carga la generación anterior.
+     *
+     * @param destino Receptor de cada video leído
+     * @throws IOException Si no hay ninguna generación legible
+     */
+    @Override
+    public synchronized void cargar(Consumer<Video> destino) throws IOException {
+        if (!existeArchivo()) {
+            return;
+        }
+
+        if (dataFile.exists()) {
+            try {
+                leerSnapshot(dataFile.toPath(), destino);
+                return;
+            } catch (IOException e) {
+                Path apartado = hermano(".corrupto-" + System.currentTimeMillis());
+                Files.move(dataFile.toPath(), apartado);
+                logger.error("Snapshot {} dañado, apartado en {}", dataFile, apartado, e);
+                if (!Files.exists(archivoAnterior)) {
+                    throw new IOException("El snapshot está dañado y no hay generación anterior", e);
+                }
+            }
+        }
+
+        leerSnapshot(archivoAnterior, destino);
+        logger.warn("Cargada la generación anterior {}", archivoAnterior);
+    }
+
+    /**
+     * Escribe un snapshot con la lista completa y reinicia el journal sobre ese snapshot.
+     * El llamador debe asegurar que no se registren operaciones mientras compacta.
+     *
+     * @param videos Estado completo de la playlist
+     * @throws IOException Si hay error al escribir
+     */
+    @Override
+    public synchronized void compactar(List<Video> videos) throws IOException {
+        long checksum = escribirSnapshot(videos);
+        journal.reiniciar(checksum);
+        logger.debug("Journal compactado en snapshot de {} videos", videos.size());
+    }
+
+    /**
+     * Lee las operaciones del journal posteriores al snapshot actual.
+     * Si la cabecera del journal no corresponde al snapshot actual (el proceso cayó
+     * después de escribir el snapshot y antes de reiniciar el journal), sus operaciones
+     * ya están incluidas en el snapshot y se descartan.
+     *
+     * @return Operaciones a reaplicar sobre el snapshot, en orden
+     * @throws IOException Si hay error al leer
+     */
+    @Override
+    public List<Operacion> leerJournal() throws IOException {
+        JournalOperaciones.Lectura lectura = journal.leer();
+        if (lectura == null) {
             return new ArrayList<>();
         }
+        if (lectura.checksumSnapshot() != checksumArchivo()) {
+            logger.info("El journal {} ya está incorporado al snapshot; se descarta", journal.getRuta());
+            return new ArrayList<>();
+        }
+        return lectura.operaciones();
+    }
 
-        try {
-            return objectMapper.readValue(dataFile, new TypeReference<List<Video>>() {});
+    /**
+     * Anexa una operación al journal (sin esperar a que sea durable).
+     *
+     * @param operacion Operación a registrar
+     * @throws IOException Si hay error al escribir
+     */
+    @Override
+    public void registrar(Operacion operacion) throws IOException {
+        journal.registrar(operacion);
+    }
+
+    /**
+     * Espera a que las operaciones registradas sean durables, agrupando fsyncs concurrentes.
+     *
+     * @throws IOException Si falla el fsync
+     */
+    @Override
+    public void sincronizarJournal() throws IOException {
+        journal.sincronizar();
+    }
+
+    /**
+     * Cantidad de operaciones en el journal desde la última compactación.
+     *
+     * @return Registros pendientes de compactar
+     */
+    @Override
+    public long getRegistrosJournal() {
+        return journal.getRegistros();
+    }
+
+    @PreDestroy
+    @Override
+    public void cerrar() throws IOException {
+        journal.close();
+    }
+
+    private void leerSnapshot(Path archivo, Consumer<Video> destino) throws IOException {
+        try (FileChannel canal = FileChannel.open(archivo, StandardOpenOption.READ)) {
+            FormatoSnapshot formato = formatoDe(canal);
+            formato.validar(canal);
+            formato.leer(canal, destino);
+        }
+    }
+
+    private FormatoSnapshot formatoDe(FileChannel canal) throws IOException {
+        return SnapshotBinario.esBinario(canal) ? formatoBinario : formatoJson;
+    }
+
+    /**
+     * Escribe el snapshot en el archivo temporal mediante un FileChannel, lo fuerza a disco
+     * y lo renombra atómicamente sobre el archivo de datos. La generación actual queda
+     * como generación anterior (enlace duro, o copia si el sistema de archivos no los soporta).
+     *
+     * @return Checksum CRC32 del contenido escrito
+     */
+    private long escribirSnapshot(List<Video> videos) throws IOException {
+        long checksum;
+        try (FileChannel canal = FileChannel.open(archivoTemporal, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            checksum = formatoEscritura.escribir(canal, videos);
+            canal.force(true);
+        }
+
+        Path actual = dataFile.toPath();
+        if (Files.exists(actual)) {
+            Files.deleteIfExists(archivoAnterior);
+            try {
+                Files.createLink(archivoAnterior, actual);
+            } catch (UnsupportedOperationException | IOException e) {
+                Files.copy(actual, archivoAnterior, StandardCopyOption.REPLACE_EXISTING);
+            }
+        }
+        Files.move(archivoTemporal, actual, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        sincronizarDirectorio();
+        return checksum;
+    }
+
+    /**
+     * Checksum del snapshot actual según su formato (para JSON: el del pie, o el CRC32 completo si no tiene pie).
+     *
+     * @return Checksum, o 0 si el archivo no existe
+     * @throws IOException Si hay error al leer
+     */
+    private synchronized long checksumArchivo() throws IOException {
+        if (!dataFile.exists()) {
+            return 0;
+        }
+        try (FileChannel canal = FileChannel.open(dataFile.toPath(), StandardOpenOption.READ)) {
+            return formatoDe(canal).checksum(canal);
+        }
+    }
+
+    /**
+     * Fuerza a disco la entrada de directorio del renombrado. No todos los sistemas
+     * operativos permiten abrir un directorio como canal; en ese caso se omite.
+     */
+    private void sincronizarDirectorio() {
+        Path directorio = dataFile.getAbsoluteFile().toPath().getParent();
+        try (FileChannel canal = FileChannel.open(directorio, StandardOpenOption.READ)) {
+            canal.force(true);
         } catch (IOException e) {
-            // Si el archivo está corrupto o vacío, retornar lista vacía
-            return new ArrayList<>();
+            logger.trace("No se pudo sincronizar el directorio {}", directorio, e);
         }
     }
 
+    private Path hermano(String sufijo) {
+        return dataFile.toPath().resolveSibling(dataFile.getName() + sufijo);
+    }
+
     /**
-     * Verifica si existe el archivo de datos.
+     * Verifica si existe el archivo de datos (o su generación anterior).
      *
      * @return true si existe el archivo, false si no
      */
+    @Override
     public boolean existeArchivo() {
-        return dataFile.exists();
+        return dataFile.exists() || Files.exists(archivoAnterior);
     }
 
     /**
-     * Elimina el archivo de datos (útil para tests).
+     * Elimina el archivo de datos y su generación anterior (útil para tests).
      *
      * @return true si se eliminó, false si no existía
      */
     public boolean eliminarArchivo() {
+        boolean eliminado = false;
         if (dataFile.exists()) {
-            return dataFile.delete();
+            eliminado = dataFile.delete();
+        }
+        try {
+            Files.deleteIfExists(archivoAnterior);
+        } catch (IOException e) {
+            logger.warn("No se pudo eliminar {}", archivoAnterior, e);
         }
-        return false;
+        return eliminado;
     }
 
     /**
@@ -84,6 +318,7 @@ public class VideoRepository {
      *
      * @return Ruta del archivo
      */
+    @Override
     public String getRutaArchivo() {
         return dataFile.getAbsolutePath();
     }
@@ -0,0 +1,23 @@
+package com.um.miplaylist.service;
+
+import com.um.miplaylist.model.Video;
+
+/**
+ * Se intentó agregar un video de YouTube que ya está en la playlist, quizás con otro formato de link.
+ */
+public class VideoDuplicadoException extends RuntimeException {
+
+    private final transient Video existente;
+
+    public VideoDuplicadoException(Video existente) {
+        super("El video ya está en la playlist como \"" + existente.getNombre() + "\"");
+        this.existente = existente;
+    }
+
+    /**
+     * @return El video de la playlist con el mismo ID de YouTube
+     */
+    public Video getExistente() {
+        return existente;
+    }
+}
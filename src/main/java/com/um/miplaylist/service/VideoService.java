@@ -1,18 +1,38 @@
 package com.um.miplaylist.service;
 
+import com.um.miplaylist.config.PlaylistProperties;
+import com.um.miplaylist.model.Estadisticas;
+import com.um.miplaylist.model.MutacionVideo;
+import com.um.miplaylist.model.Pagina;
+import com.um.miplaylist.model.PuestoRanking;
 import com.um.miplaylist.model.Video;
-import com.um.miplaylist.repository.VideoRepository;
+import com.um.miplaylist.model.ResultadoMutacion;
+import com.um.miplaylist.model.ResumenImportacion;
+import com.um.miplaylist.repository.EscrituraDiferida;
+import com.um.miplaylist.repository.IntercambioJson;
+import com.um.miplaylist.repository.JournalDanadoException;
+import com.um.miplaylist.repository.Operacion;
+import com.um.miplaylist.repository.PersistenciaVideos;
+import com.um.miplaylist.store.AlmacenVideos;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import jakarta.annotation.PreDestroy;
 import java.util.function.Consumer;
+import java.util.function.LongFunction;
+import java.util.function.Supplier;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 
 
 @Service
@@ -20,18 +40,59 @@ public class VideoService {
 
     private static final Logger logger = LoggerFactory.getLogger(VideoService.class);
 
-    private final List<Video> videos;
-    private final AtomicLong idGenerator;
-    private final VideoRepository repository;
-
+    public static final int TAMANO_PAGINA_POR_DEFECTO = 24;
+    public static final int TAMANO_PAGINA_MAXIMO = 100;
+    public static final int RANKING_POR_DEFECTO = 10;
+    public static final int RESULTADOS_BUSQUEDA_POR_DEFECTO = 20;
+    public static final int LOTE_IMPORTACION = 1_000;
+    public static final int LOTE_MUTACIONES_MAXIMO = 10_000;
+    private static final int ERRORES_REPORTADOS = 20;
 
+    private final AlmacenVideos videos;
+    private final AtomicLong idGenerator;
+    private final PersistenciaVideos repository;
+    private final PlaylistProperties.ModoPersistencia modo;
+    private final EscrituraDiferida escrituraDiferida;
+    private final int compactarCada;
+    // Modo journal: las mutaciones (aplicar + registrar) toman el lock de lectura;
+    // la compactación toma el de escritura para que ninguna operación quede fuera del snapshot y del journal
+    private final ReentrantReadWriteLock bloqueoJournal;
+    private final AtomicBoolean compactando;
+    // Cambia después de cada mutación, para invalidar lo que se haya derivado de los datos (vistas cacheadas)
+    private final AtomicLong version;
+
+
+    public VideoService(PersistenciaVideos repository) {
+        this(repository, new PlaylistProperties());
+    }
 
     @Autowired
-    public VideoService(VideoRepository repository) {
+    public VideoService(PersistenciaVideos repository, PlaylistProperties propiedades) {
+        this(repository, AlmacenVideos.crear(propiedades.getAlmacen().getTipo()), propiedades);
+    }
+
+    /**
+     * Crea el servicio sobre un almacén y una persistencia dados, por ejemplo otro motor de almacenamiento.
+     * El almacén debe estar vacío: el servicio lo llena con la playlist guardada (o con los ejemplos).
+     */
+    public VideoService(PersistenciaVideos repository, AlmacenVideos videos, PlaylistProperties propiedades) {
         this.repository = repository;
-        this.videos = new ArrayList<>();
+        this.videos = videos;
         this.idGenerator = new AtomicLong(1);
 
+        PlaylistProperties.Persistencia persistencia = propiedades.getPersistencia();
+        this.modo = persistencia.getModo();
+        this.compactarCada = Math.max(1, persistencia.getCompactarCada());
+        this.bloqueoJournal = new ReentrantReadWriteLock();
+        this.compactando = new AtomicBoolean();
+        this.version = new AtomicLong();
+        if (modo == PlaylistProperties.ModoPersistencia.DIFERIDO) {
+            this.escrituraDiferida = new EscrituraDiferida(this::guardarAhora,
+                    persistencia.getIntervaloVolcado(), persistencia.getUmbralCambios());
+        } else {
+            this.escrituraDiferida = null;
+        }
+
         // Cargar datos persistidos o inicializar con ejemplos
         cargarDatos();
     }
@@ -39,46 +100,191 @@ public class VideoService {
     private void cargarDatos() {
         try {
             if (repository.existeArchivo()) {
-                List<Video> videosCargados = repository.cargar();
-                if (!videosCargados.isEmpty()) {
-                    videos.addAll(videosCargados);
-
-                    // Ajustar el generador de IDs al máximo ID existente
-                    long maxId = videos.stream()
-                            .map(Video::getId)
-                            .max(Long::compareTo)
-                            .orElse(0L);
-                    idGenerator.set(maxId + 1);
-
-                    logger.info("Cargados {} videos desde {}", videos.size(), repository.getRutaArchivo());
-                    return;
+                // Lectura en streaming: cada video va directo al almacén, sin lista intermedia
+                repository.cargar(videos::agregar);
+            }
+            if (modo == PlaylistProperties.ModoPersistencia.JOURNAL) {
+                // Reaplicar las operaciones posteriores al último snapshot
+                List<Operacion> operaciones = repository.leerJournal();
+                operaciones.forEach(this::reaplicar);
+                if (!operaciones.isEmpty()) {
+                    logger.info("Reaplicadas {} operaciones del journal", operaciones.size());
                 }
             }
 
+            // Pasada única: los datos guardados antes de rechazar duplicados pueden repetir videos
+            int fusionados = videos.fusionarDuplicados();
+            if (fusionados > 0) {
+                logger.info("Fusionados {} videos duplicados", fusionados);
+            }
+
+            if (videos.contar() > 0) {
+                // Ajustar el generador de IDs al máximo ID existente
+                long maxId = videos.valores().stream()
+                        .mapToLong(Video::getId)
+                        .max()
+                        .orElse(0L);
+                idGenerator.set(maxId + 1);
+
+                logger.info("Cargados {} videos desde {}", videos.contar(), repository.getRutaArchivo());
+                if (modo == PlaylistProperties.ModoPersistencia.JOURNAL) {
+                    compactarJournal();
+                } else if (fusionados > 0) {
+                    guardarDatos();
+                }
+                return;
+            }
+
             // Si no hay datos, inicializar con ejemplos
             inicializarVideosDeEjemplo();
-            guardarDatos();
-            logger.info("Inicializados {} videos de ejemplo", videos.size());
+            persistirEstadoInicial();
+            logger.info("Inicializados {} videos de ejemplo", videos.contar());
 
+        } catch (JournalDanadoException e) {
+            // Arrancar con el snapshot solo perdería las operaciones posteriores al registro dañado
+            throw new UncheckedIOException("El journal está dañado; revisar " + e.getApartado() + " antes de reiniciar", e);
         } catch (IOException e) {
+            if (repository.existeArchivo()) {
+                // Un error de lectura (permisos, disco) no aparta nada: guardar los ejemplos pisaría los datos
+                throw new UncheckedIOException("No se pudieron cargar los datos de " + repository.getRutaArchivo(), e);
+            }
+            // El repositorio apartó el snapshot dañado, así que guardar los ejemplos no pisa datos
             logger.error("Error al cargar datos, inicializando con ejemplos", e);
             inicializarVideosDeEjemplo();
+            persistirEstadoInicial();
+        }
+    }
+
+    private void persistirEstadoInicial() {
+        if (modo == PlaylistProperties.ModoPersistencia.JOURNAL) {
+            compactarJournal();
+        } else {
+            guardarDatos();
         }
     }
 
     private void guardarDatos() {
+        if (modo == PlaylistProperties.ModoPersistencia.JOURNAL) {
+            sincronizarJournal();
+            return;
+        }
+        if (escrituraDiferida != null) {
+            escrituraDiferida.marcarCambio();
+            return;
+        }
         try {
-            repository.guardar(videos);
-            logger.debug("Datos guardados exitosamente en {}", repository.getRutaArchivo());
+            guardarAhora();
         } catch (IOException e) {
             logger.error("Error al guardar datos", e);
         }
     }
 
+    /**
+     * Ejecuta una mutación; en modo journal, con exclusión respecto de la compactación.
+     * La versión se incrementa después de aplicarla: quien lee una versión y después los datos
+     * ve al menos los cambios de esa versión.
+     */
+    private <T> T mutar(Supplier<T> mutacion) {
+        boolean journal = modo == PlaylistProperties.ModoPersistencia.JOURNAL;
+        if (journal) {
+            bloqueoJournal.readLock().lock();
+        }
+        try {
+            return mutacion.get();
+        } finally {
+            if (journal) {
+                bloqueoJournal.readLock().unlock();
+            }
+            version.incrementAndGet();
+        }
+    }
+
+    /**
+     * Anexa la operación al journal (sólo en modo journal). Se llama antes de aplicar el cambio.
+     */
+    private void registrar(Operacion operacion) {
+        if (modo != PlaylistProperties.ModoPersistencia.JOURNAL) {
+            return;
+        }
+        try {
+            repository.registrar(operacion);
+        } catch (IOException e) {
+            throw new UncheckedIOException("No se pudo registrar la operación en el journal", e);
+        }
+    }
+
+    private void sincronizarJournal() {
+        try {
+            repository.sincronizarJournal();
+        } catch (IOException e) {
+            logger.error("Error al sincronizar el journal", e);
+        }
+        if (repository.getRegistrosJournal() >= compactarCada && compactando.compareAndSet(false, true)) {
+            try {
+                compactarJournal();
+            } finally {
+                compactando.set(false);
+            }
+        }
+    }
+
+    private void compactarJournal() {
+        bloqueoJournal.writeLock().lock();
+        try {
+            repository.compactar(videos.listar());
+        } catch (IOException e) {
+            logger.error("Error al compactar el journal", e);
+        } finally {
+            bloqueoJournal.writeLock().unlock();
+        }
+    }
+
+    private void reaplicar(Operacion operacion) {
+        switch (operacion.tipo()) {
+            case ADD -> videos.agregar(operacion.video());
+            case DELETE -> videos.eliminar(operacion.id());
+            case LIKE -> videos.darLike(operacion.id());
+            case TOGGLE_FAV -> videos.mutar(operacion.id(), Video::toggleFavorito);
+        }
+    }
+
+    private void guardarAhora() throws IOException {
+        repository.guardar(videos.listar());
+        logger.debug("Datos guardados exitosamente en {}", repository.getRutaArchivo());
+    }
+
+    /**
+     * Cantidad de cambios aplicados en memoria que todavía no se escribieron en disco.
+     * Siempre es 0 en modo de persistencia sincrónico.
+     *
+     * @return Cambios sin volcar
+     */
+    public long contarCambiosPendientes() {
+        return escrituraDiferida != null ? escrituraDiferida.getCambiosPendientes() : 0;
+    }
+
+    /**
+     * Al cerrar la aplicación, vuelca los cambios diferidos que queden pendientes
+     * o, en modo journal, lo compacta para que el próximo arranque no tenga que reaplicarlo.
+     */
+    @PreDestroy
+    public void cerrar() {
+        if (modo == PlaylistProperties.ModoPersistencia.JOURNAL) {
+            compactarJournal();
+        }
+        if (escrituraDiferida != null) {
+            try {
+                escrituraDiferida.close();
+            } catch (IOException e) {
+                logger.error("Error al volcar {} cambios pendientes al cerrar", escrituraDiferida.getCambiosPendientes(), e);
+            }
+        }
+    }
+
     private void inicializarVideosDeEjemplo() {
-        videos.clear();
+        videos.limpiar();
 
-        videos.add(new Video(
+        videos.agregar(new Video(
             idGenerator.getAndIncrement(),
             "The Weeknd - Blinding Lights",
             "https://www.youtube.com/watch?v=4NRXx6U8ABQ",
@@ -86,7 +292,7 @@ public class VideoService {
             true
         ));
 
-        videos.add(new Video(
+        videos.agregar(new Video(
             idGenerator.getAndIncrement(),
             "Ed Sheeran - Shape of You",
             "https://www.youtube.com/watch?v=JGwWNGJdvx8",
@@ -94,7 +300,7 @@ public class VideoService {
             false
         ));
 
-        videos.add(new Video(
+        videos.agregar(new Video(
             idGenerator.getAndIncrement(),
             "Dua Lipa - Levitating",
             "https://www.youtube.com/watch?v=TUVcZfQe-Kw",
@@ -104,33 +310,174 @@ public class VideoService {
     }
 
 
+    /**
+     * Agrega un video, o reemplaza al que tenga su mismo ID.
+     * Los links se comparan por ID de YouTube, así que el mismo video en otro formato
+     * ({@code watch?v=}, {@code youtu.be/}, {@code embed/}) se rechaza.
+     *
+     * @param video Video a agregar (sin ID para asignarle uno nuevo)
+     * @return El video agregado
+     * @throws VideoDuplicadoException Si otro video de la playlist tiene el mismo ID de YouTube
+     */
     public Video agregarVideo(Video video) {
         if (video.getId() == null) {
             video.setId(idGenerator.getAndIncrement());
+        } else {
+            // Evitar que el generador reutilice un ID asignado manualmente
+            idGenerator.accumulateAndGet(video.getId() + 1, Math::max);
+        }
+        Optional<Video> duplicado = mutar(() -> videos.agregarSinDuplicar(video, v -> registrar(Operacion.agregar(v))));
+        if (duplicado.isPresent()) {
+            throw new VideoDuplicadoException(duplicado.get());
         }
-        videos.add(video);
         guardarDatos();
         return video;
     }
 
 
+    /**
+     * Importa videos de un arreglo JSON o de NDJSON leído en streaming (ver {@link IntercambioJson}).
+     * Cada video se valida como en el alta individual (nombre y link de YouTube) y recibe un ID nuevo
+     * (los de la entrada se ignoran); los que ya están en la playlist se descartan como duplicados.
+     * Los videos se agregan en lotes de {@link #LOTE_IMPORTACION} y la persistencia se vuelca una sola
+     * vez al final, en lugar de una por video.
+     * <p>
+     * Si la entrada está mal formada a mitad de camino, los videos leídos hasta ese punto quedan
+     * agregados y persistidos.
+     *
+     * @param entrada Contenido a importar
+     * @return Cantidad de videos importados y descartados
+     * @throws IOException Si la entrada no es JSON válido o no tiene la forma esperada
+     */
+    public ResumenImportacion importarVideos(InputStream entrada) throws IOException {
+        Importacion importacion = new Importacion();
+        IOException error = null;
+        try {
+            IntercambioJson.leer(entrada, importacion::aceptar);
+        } catch (IOException e) {
+            error = e;
+        }
+        try {
+            importacion.agregarLote();
+        } finally {
+            if (importacion.importados > 0) {
+                guardarDatos();
+            }
+        }
+        if (error != null) {
+            throw error;
+        }
+        return importacion.resumen();
+    }
+
+    /**
+     * Escribe la playlist en orden de inserción como arreglo JSON o NDJSON, recorriendo el almacén
+     * sin copiarlo (la iteración es débilmente consistente con escrituras concurrentes).
+     *
+     * @param salida Destino de la exportación (no se cierra)
+     * @param ndjson true para un video por línea, false para un arreglo JSON
+     * @throws IOException Si falla la escritura
+     */
+    public void exportarVideos(OutputStream salida, boolean ndjson) throws IOException {
+        IntercambioJson.escribir(salida, videos.valores(), ndjson);
+    }
+
+    /**
+     * Estado de una importación en curso: el lote pendiente y los contadores del resumen.
+     */
+    private final class Importacion {
+
+        private final List<Video> lote = new ArrayList<>(LOTE_IMPORTACION);
+        private final List<String> errores = new ArrayList<>();
+        private long leidos;
+        private long importados;
+        private long duplicados;
+        private long invalidos;
+
+        void aceptar(Video video) {
+            leidos++;
+            String error = null;
+            if (video.getNombre() == null || video.getNombre().isBlank()) {
+                error = "falta el nombre";
+            } else if (video.getLink() == null || video.extraerYouTubeId() == null) {
+                error = "el link no es un video válido de YouTube";
+            }
+            if (error != null) {
+                invalidos++;
+                if (errores.size() < ERRORES_REPORTADOS) {
+                    errores.add("Video " + leidos + ": " + error);
+                }
+                return;
+            }
+            lote.add(video);
+            if (lote.size() == LOTE_IMPORTACION) {
+                agregarLote();
+            }
+        }
+
+        void agregarLote() {
+            if (lote.isEmpty()) {
+                return;
+            }
+            mutar(() -> {
+                for (Video video : lote) {
+                    video.setId(idGenerator.getAndIncrement());
+                    if (videos.agregarSinDuplicar(video, v -> registrar(Operacion.agregar(v))).isPresent()) {
+                        duplicados++;
+                    } else {
+                        importados++;
+                    }
+                }
+                return null;
+            });
+            lote.clear();
+        }
+
+        ResumenImportacion resumen() {
+            return new ResumenImportacion(importados, duplicados, invalidos, List.copyOf(errores));
+        }
+    }
+
     public boolean eliminarVideo(Long id) {
-        boolean eliminado = videos.removeIf(video -> video.getId().equals(id));
+        boolean eliminado = id != null
+                && mutar(() -> videos.eliminar(id, v -> registrar(Operacion.eliminar(id)))).isPresent();
         if (eliminado) {
             guardarDatos();
         }
         return eliminado;
     }
 
+    /**
+     * Lista toda la playlist. La lista es inmutable y se comparte entre llamadas mientras no se
+     * agreguen ni eliminen videos, así listar repetidamente no copia la playlist.
+     *
+     * @return Videos en orden de inserción
+     */
     public List<Video> listarTodos() {
-        return new ArrayList<>(videos);
+        return videos.listar();
+    }
+
+    /**
+     * Lista una página de videos en orden de inserción.
+     *
+     * @param cursor Cursor devuelto por la página anterior, o null para la primera página
+     * @param tamano Videos por página (null para el tamaño por defecto; se limita a {@link #TAMANO_PAGINA_MAXIMO})
+     * @return Página con los videos y el cursor de la siguiente
+     */
+    public Pagina listarPagina(Long cursor, Integer tamano) {
+        return videos.pagina(cursor == null ? 0 : cursor, tamanoPagina(tamano));
+    }
+
+    private static int tamanoPagina(Integer tamano) {
+        return tamano == null ? TAMANO_PAGINA_POR_DEFECTO : Math.max(1, Math.min(tamano, TAMANO_PAGINA_MAXIMO));
     }
 
 
     public Optional<Video> buscarPorId(Long id) {
-        return videos.stream()
-                .filter(video -> video.getId().equals(id))
-                .findFirst();
+        if (id == null) {
+            return Optional.empty();
+        }
+        return videos.buscar(id);
     }
 
 //Comentar de aca
@@ -157,10 +504,11 @@ public class VideoService {
 // a aca
 
 // Descomentar
-    private boolean ejecutarOperacionSobreVideo(Long id, Consumer<Video> operacion) {
-        Optional<Video> videoOpt = buscarPorId(id);
-        if (videoOpt.isPresent()) {
-            operacion.accept(videoOpt.get());
+    private boolean ejecutarOperacionSobreVideo(Long id, Consumer<Video> operacion, LongFunction<Operacion> registro) {
+        if (id != null && mutar(() -> videos.mutar(id, video -> {
+            registrar(registro.apply(id));
+            operacion.accept(video);
+        }))) {
             guardarDatos();
             return true;
         }
@@ -168,21 +516,152 @@ public class VideoService {
     }
 
     public boolean incrementarLikes(Long id) {
-        return ejecutarOperacionSobreVideo(id, Video::incrementarLikes);
+        // darLike toma la franja del video: no hace falta pasar por mutar
+        if (id != null && mutar(() -> videos.darLike(id, v -> registrar(Operacion.like(id))))) {
+            guardarDatos();
+            return true;
+        }
+        return false;
     }
 
     public boolean toggleFavorito(Long id) {
-        return ejecutarOperacionSobreVideo(id, Video::toggleFavorito);
+        return ejecutarOperacionSobreVideo(id, Video::toggleFavorito, Operacion::toggleFavorito);
+    }
+
+    /**
+     * Aplica un lote de likes, cambios de favorito y eliminaciones, en orden, y persiste una sola vez al final
+     * en lugar de una vez por mutación.
+     * <p>
+     * En modo journal todo el lote se aplica sin que una compactación lo parta: sus operaciones quedan
+     * juntas en el journal y se hacen durables con un único fsync. Cada mutación es atómica sobre su video,
+     * pero otras escrituras concurrentes pueden intercalarse entre mutaciones del lote.
+     *
+     * @param mutaciones Mutaciones a aplicar (como máximo {@link #LOTE_MUTACIONES_MAXIMO})
+     * @return Un resultado por mutación, en el mismo orden
+     * @throws IllegalArgumentException Si el lote supera {@link #LOTE_MUTACIONES_MAXIMO}
+     */
+    public List<ResultadoMutacion> aplicarLote(List<MutacionVideo> mutaciones) {
+        if (mutaciones.size() > LOTE_MUTACIONES_MAXIMO) {
+            throw new IllegalArgumentException("Un lote admite como máximo " + LOTE_MUTACIONES_MAXIMO + " mutaciones");
+        }
+        List<ResultadoMutacion> resultados = mutar(() -> {
+            List<ResultadoMutacion> aplicados = new ArrayList<>(mutaciones.size());
+            for (MutacionVideo mutacion : mutaciones) {
+                aplicados.add(mutacion == null ? new ResultadoMutacion(null, null, false)
+                        : new ResultadoMutacion(mutacion.id(), mutacion.accion(), aplicar(mutacion)));
+            }
+            return aplicados;
+        });
+        if (resultados.stream().anyMatch(ResultadoMutacion::aplicada)) {
+            guardarDatos();
+        }
+        return resultados;
+    }
+
+    private boolean aplicar(MutacionVideo mutacion) {
+        if (mutacion.id() == null || mutacion.accion() == null) {
+            return false;
+        }
+        long id = mutacion.id();
+        return switch (mutacion.accion()) {
+            case LIKE -> videos.darLike(id, v -> registrar(Operacion.like(id)));
+            case FAVORITO -> videos.mutar(id, video -> {
+                registrar(Operacion.toggleFavorito(id));
+                video.toggleFavorito();
+            });
+            case ELIMINAR -> videos.eliminar(id, v -> registrar(Operacion.eliminar(id))).isPresent();
+        };
     }
 
     public int contarVideos() {
-        return videos.size();
+        return videos.contar();
     }
 
+    /**
+     * Ranking de los videos con más likes, mantenido en cada like, alta y baja
+     * (no se ordena la playlist en cada consulta).
+     *
+     * @param cantidad Cantidad de puestos (null para {@link #RANKING_POR_DEFECTO}; se limita a {@link #TAMANO_PAGINA_MAXIMO})
+     * @return Puestos en orden, empezando por el 1
+     */
+    public List<PuestoRanking> listarMasGustados(Integer cantidad) {
+        int n = cantidad == null ? RANKING_POR_DEFECTO : Math.max(1, Math.min(cantidad, TAMANO_PAGINA_MAXIMO));
+        List<Video> masGustados = videos.masGustados(n);
+        List<PuestoRanking> puestos = new ArrayList<>(masGustados.size());
+        for (Video video : masGustados) {
+            puestos.add(new PuestoRanking(puestos.size() + 1L, video));
+        }
+        return puestos;
+    }
+
+    /**
+     * Puesto de un video en el ranking de likes.
+     *
+     * @param id ID del video
+     * @return Puesto y video, o vacío si el video no existe
+     */
+    public Optional<PuestoRanking> buscarPuestoEnRanking(Long id) {
+        if (id == null) {
+            return Optional.empty();
+        }
+        long puesto = videos.puestoEnRanking(id);
+        return puesto == 0 ? Optional.empty()
+                : videos.buscar(id).map(video -> new PuestoRanking(puesto, video));
+    }
+
+    /**
+     * Busca videos por nombre en el índice invertido que se mantiene al agregar y eliminar videos.
+     * Cada término de la consulta debe aparecer en el nombre, completo o como prefijo
+     * ("weeknd blin" encuentra "The Weeknd - Blinding Lights"), sin distinguir mayúsculas ni tildes.
+     *
+     * @param consulta Texto a buscar (null o sin letras ni dígitos no encuentra nada)
+     * @param cantidad Cantidad máxima de resultados (null para {@link #RESULTADOS_BUSQUEDA_POR_DEFECTO}; se limita a {@link #TAMANO_PAGINA_MAXIMO})
+     * @return Videos en orden de relevancia: coincidencias completas primero, después los de más likes
+     */
+    public List<Video> buscarPorNombre(String consulta, Integer cantidad) {
+        int n = cantidad == null ? RESULTADOS_BUSQUEDA_POR_DEFECTO : Math.max(1, Math.min(cantidad, TAMANO_PAGINA_MAXIMO));
+        return videos.buscarPorNombre(consulta, n);
+    }
 
+    /**
+     * Versión de los datos: cambia con cada agregado, eliminación, like o cambio de favorito
+     * (también los que no encuentran el video). Sirve para saber si algo derivado de los datos,
+     * como una página renderizada, sigue vigente.
+     *
+     * @return Versión actual
+     */
+    public long obtenerVersion() {
+        return version.get();
+    }
+
+    /**
+     * Cantidad de videos, de favoritos y likes totales, sin recorrer la playlist.
+     *
+     * @return Estadísticas actuales
+     */
+    public Estadisticas obtenerEstadisticas() {
+        return videos.estadisticas();
+    }
+
+
+    /**
+     * Lista los favoritos desde su índice: el costo depende de la cantidad de favoritos,
+     * no del tamaño de la playlist.
+     *
+     * @return Favoritos en orden de inserción
+     */
     public List<Video> listarFavoritos() {
-        return videos.stream()
-                .filter(Video::isFavorito)
-                .toList();
+        return videos.listarFavoritos();
+    }
+
+    /**
+     * Lista una página de favoritos en orden de inserción.
+     *
+     * @param cursor Cursor devuelto por la página anterior, o null para la primera página
+     * @param tamano Videos por página (null para el tamaño por defecto; se limita a {@link #TAMANO_PAGINA_MAXIMO})
+     * @return Página con los favoritos y el cursor de la siguiente
+     */
+    public Pagina listarPaginaFavoritos(Long cursor, Integer tamano) {
+        return videos.paginaFavoritos(cursor == null ? 0 : cursor, tamanoPagina(tamano));
     }
 }
\ No newline at end of file
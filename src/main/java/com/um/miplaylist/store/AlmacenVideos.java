@@ -0,0 +1,248 @@
+package com.um.miplaylist.store;
+
+import com.um.miplaylist.config.PlaylistProperties;
+import com.um.miplaylist.model.Estadisticas;
+import com.um.miplaylist.model.Pagina;
+import com.um.miplaylist.model.Video;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+/**
+ * Almacén de los videos de la playlist que usa el servicio. Hay dos implementaciones que se eligen
+ * con {@code playlist.almacen.tipo}: {@link VideoStore}, con los videos como objetos en el heap, y
+ * {@link VideoStoreFueraDelHeap}, con los datos en columnas fuera del heap.
+ * <p>
+ * Las implementaciones son seguras para hilos. Los videos que devuelven pueden ser los mismos objetos
+ * guardados o copias leídas de las columnas: los cambios deben hacerse siempre a través del almacén
+ * ({@link #mutar}, {@link #darLike}), nunca sobre un video ya devuelto.
+ * <p>
+ * Una implementación nueva debe pasar los tests de conformidad comunes ({@code ConformidadAlmacen})
+ * y agregarse a {@link #crear} y al benchmark {@code AlmacenesBenchmark}.
+ */
+public interface AlmacenVideos {
+
+    /**
+     * Crea un almacén vacío del tipo configurado.
+     *
+     * @param tipo Tipo de almacén ({@code playlist.almacen.tipo})
+     * @return Almacén vacío
+     */
+    static AlmacenVideos crear(PlaylistProperties.TipoAlmacen tipo) {
+        return switch (tipo) {
+            case MEMORIA -> new VideoStore();
+            case FUERA_DEL_HEAP -> new VideoStoreFueraDelHeap();
+        };
+    }
+
+    /**
+     * Agrega un video al final del orden de inserción.
+     * Si ya existe un video con el mismo ID, se reemplaza manteniendo su posición.
+     *
+     * @param video Video a agregar (debe tener ID asignado)
+     * @return El video almacenado
+     */
+    default Video agregar(Video video) {
+        return agregar(video, v -> { });
+    }
+
+    /**
+     * Agrega un video ejecutando antes una acción de registro. Si la acción falla, el video no se publica.
+     *
+     * @param video Video a agregar (debe tener ID asignado)
+     * @param registro Acción a ejecutar antes de publicar el video (por ejemplo, anexarlo a un journal)
+     * @return El video almacenado
+     */
+    Video agregar(Video video, Consumer<Video> registro);
+
+    /**
+     * Agrega un video salvo que otro video de la playlist tenga el mismo ID de YouTube
+     * (los formatos {@code watch?v=}, {@code youtu.be/} y {@code embed/} del mismo video coinciden).
+     * Reemplazar un video por otro con su mismo ID no cuenta como duplicado.
+     *
+     * @param video Video a agregar (debe tener ID asignado)
+     * @param registro Acción a ejecutar antes de publicar el video (por ejemplo, anexarlo a un journal)
+     * @return El video que ya tenía ese ID de YouTube, o vacío si se agregó
+     */
+    Optional<Video> agregarSinDuplicar(Video video, Consumer<Video> registro);
+
+    /**
+     * Busca el video con el ID de YouTube indicado.
+     *
+     * @param youTubeId ID de YouTube (ver {@link Video#extraerYouTubeId()})
+     * @return El video, o vacío si ninguno tiene ese ID de YouTube
+     */
+    Optional<Video> buscarPorYouTubeId(String youTubeId);
+
+    /**
+     * Fusiona los videos que comparten ID de YouTube, por ejemplo los cargados de una playlist guardada
+     * antes de que se rechazaran los duplicados. Se conserva el primero en orden de inserción, con la suma
+     * de los likes y marcado como favorito si alguno lo estaba; los demás se eliminan.
+     * Recorre toda la playlist: está pensado para una pasada única al arrancar, sin escrituras concurrentes.
+     *
+     * @return Cantidad de videos eliminados
+     */
+    default int fusionarDuplicados() {
+        Map<String, Video> primeros = new HashMap<>();
+        int eliminados = 0;
+        for (Video video : listar()) {
+            String youTubeId = claveYouTube(video);
+            if (youTubeId == null) {
+                continue;
+            }
+            Video primero = primeros.putIfAbsent(youTubeId, video);
+            if (primero == null) {
+                continue;
+            }
+            eliminar(video.getId());
+            Video fusionado = new Video(primero.getId(), primero.getNombre(), primero.getLink(),
+                    primero.getLikes() + video.getLikes(), primero.isFavorito() || video.isFavorito());
+            agregar(fusionado);
+            primeros.put(youTubeId, fusionado);
+            eliminados++;
+        }
+        return eliminados;
+    }
+
+    /**
+     * Elimina un video por su ID.
+     *
+     * @param id ID del video
+     * @return El video eliminado, o vacío si no existía
+     */
+    default Optional<Video> eliminar(long id) {
+        return eliminar(id, v -> { });
+    }
+
+    /**
+     * Elimina un video ejecutando antes una acción de registro. Si la acción falla, el video no se elimina.
+     *
+     * @param id ID del video
+     * @param registro Acción a ejecutar sobre el video antes de quitarlo
+     * @return El video eliminado, o vacío si no existía
+     */
+    Optional<Video> eliminar(long id, Consumer<Video> registro);
+
+    /**
+     * Aplica una operación sobre el video con el ID indicado, con exclusión mutua respecto de otras
+     * escrituras sobre el mismo ID. Sólo se conserva el cambio de favorito; los likes deben
+     * incrementarse con {@link #darLike(long, Consumer)}.
+     *
+     * @param id ID del video
+     * @param operacion Operación a aplicar
+     * @return true si el video existía y se aplicó la operación
+     */
+    boolean mutar(long id, Consumer<Video> operacion);
+
+    /**
+     * Suma un like al video.
+     *
+     * @param id ID del video
+     * @param registro Acción a ejecutar antes de sumar el like (por ejemplo, anexarlo a un journal)
+     * @return true si el video existía
+     */
+    boolean darLike(long id, Consumer<Video> registro);
+
+    default boolean darLike(long id) {
+        return darLike(id, v -> { });
+    }
+
+    /**
+     * Los videos con más likes (a igualdad de likes, primero el de menor ID).
+     *
+     * @param n Cantidad máxima de videos
+     * @return Videos en orden de ranking
+     */
+    List<Video> masGustados(int n);
+
+    /**
+     * Puesto del video en el ranking de likes (1 es el de más likes).
+     *
+     * @param id ID del video
+     * @return Puesto, o 0 si el video no existe
+     */
+    long puestoEnRanking(long id);
+
+    /**
+     * Busca videos por nombre: cada término de la consulta debe coincidir con un término del nombre,
+     * completo o como prefijo, sin distinguir mayúsculas ni tildes.
+     *
+     * @param consulta Texto a buscar
+     * @param limite Cantidad máxima de resultados
+     * @return Videos en orden de relevancia
+     */
+    List<Video> buscarPorNombre(String consulta, int limite);
+
+    /**
+     * Busca un video por su ID.
+     *
+     * @param id ID del video
+     * @return El video, o vacío si no existe
+     */
+    Optional<Video> buscar(long id);
+
+    /**
+     * Videos en orden de inserción.
+     *
+     * @return Lista inmutable con los videos
+     */
+    List<Video> listar();
+
+    /**
+     * Página de videos en orden de inserción a partir de un cursor.
+     *
+     * @param cursor Cursor devuelto por la página anterior, o 0 para empezar desde el principio
+     * @param tamano Cantidad máxima de videos
+     * @return Página con los videos y el cursor de la siguiente
+     */
+    Pagina pagina(long cursor, int tamano);
+
+    /**
+     * Página de favoritos en orden de inserción, con los mismos cursores que {@link #pagina(long, int)}.
+     *
+     * @param cursor Cursor devuelto por la página anterior, o 0 para empezar desde el principio
+     * @param tamano Cantidad máxima de videos
+     * @return Página con los favoritos y el cursor de la siguiente
+     */
+    Pagina paginaFavoritos(long cursor, int tamano);
+
+    /**
+     * Favoritos en orden de inserción.
+     *
+     * @return Lista inmutable con los favoritos
+     */
+    List<Video> listarFavoritos();
+
+    /**
+     * Vista de solo lectura de los videos en orden de inserción, sin copiar la playlist.
+     *
+     * @return Colección débilmente consistente
+     */
+    Collection<Video> valores();
+
+    int contar();
+
+    /**
+     * Agregados mantenidos en cada escritura; no recorre los videos.
+     *
+     * @return Cantidad de videos, de favoritos y likes totales
+     */
+    Estadisticas estadisticas();
+
+    /**
+     * Elimina todos los videos del almacén.
+     */
+    void limpiar();
+
+    /**
+     * ID de YouTube con el que se detectan duplicados, o null si el link no tiene uno.
+     */
+    private static String claveYouTube(Video video) {
+        String youTubeId = video.extraerYouTubeId();
+        return youTubeId == null || youTubeId.isEmpty() ? null : youTubeId;
+    }
+}
@@ -0,0 +1,177 @@
+package com.um.miplaylist.store;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * Árbol de estadísticos de orden para el puesto en el ranking: un treap ordenado por
+ * (likes descendente, id ascendente) en el que cada nodo guarda el tamaño de su subárbol, así
+ * contar las claves anteriores a una dada cuesta O(log n) en lugar de recorrerlas.
+ * <p>
+ * Los nodos viven en arreglos de primitivos (32 bytes por video, sin objetos por nodo) y los
+ * nodos liberados se reutilizan. Las operaciones se serializan con el monitor del árbol.
+ */
+final class ArbolPuestos {
+
+    private static final int NADA = -1;
+    private static final int CAPACIDAD_INICIAL = 1024;
+
+    private final SplittableRandom azar = new SplittableRandom(0x5eed);
+    private long[] likes = new long[CAPACIDAD_INICIAL];
+    private long[] ids = new long[CAPACIDAD_INICIAL];
+    private int[] izquierdo = new int[CAPACIDAD_INICIAL];
+    private int[] derecho = new int[CAPACIDAD_INICIAL];
+    private int[] tamano = new int[CAPACIDAD_INICIAL];
+    private int[] prioridad = new int[CAPACIDAD_INICIAL];
+    private int raiz = NADA;
+    private int libres = NADA;
+    private int usados;
+
+    // Resultado de partir(): las raíces de las dos mitades
+    private int menores;
+    private int restantes;
+
+    /**
+     * Agrega una clave; no verifica si ya estaba. O(log n) esperado.
+     */
+    synchronized void agregar(long likesVideo, long id) {
+        int nodo = nuevoNodo(likesVideo, id);
+        partir(raiz, likesVideo, id, false);
+        raiz = unir(unir(menores, nodo), restantes);
+    }
+
+    /**
+     * Quita la clave, si está. O(log n) esperado.
+     */
+    synchronized void quitar(long likesVideo, long id) {
+        partir(raiz, likesVideo, id, false);
+        int anteriores = menores;
+        partir(restantes, likesVideo, id, true);
+        liberar(menores);
+        raiz = unir(anteriores, restantes);
+    }
+
+    /**
+     * Cantidad de claves que van antes de la indicada en el ranking. O(log n) esperado.
+     */
+    synchronized long contarAnteriores(long likesVideo, long id) {
+        long cantidad = 0;
+        for (int nodo = raiz; nodo != NADA; ) {
+            if (antes(nodo, likesVideo, id)) {
+                cantidad += tamanoDe(izquierdo[nodo]) + 1;
+                nodo = derecho[nodo];
+            } else {
+                nodo = izquierdo[nodo];
+            }
+        }
+        return cantidad;
+    }
+
+    synchronized int contar() {
+        return tamanoDe(raiz);
+    }
+
+    /**
+     * Si el nodo va antes de la clave (más likes, o los mismos likes y menor ID).
+     */
+    private boolean antes(int nodo, long likesVideo, long id) {
+        return likes[nodo] != likesVideo ? likes[nodo] > likesVideo : ids[nodo] < id;
+    }
+
+    /**
+     * Parte el subárbol en las claves anteriores a la dada (también la igual si {@code inclusive})
+     * y las demás; deja las raíces en {@link #menores} y {@link #restantes}.
+     */
+    private void partir(int nodo, long likesVideo, long id, boolean inclusive) {
+        if (nodo == NADA) {
+            menores = NADA;
+            restantes = NADA;
+            return;
+        }
+        boolean vaAntes = antes(nodo, likesVideo, id)
+                || (inclusive && likes[nodo] == likesVideo && ids[nodo] == id);
+        if (vaAntes) {
+            partir(derecho[nodo], likesVideo, id, inclusive);
+            derecho[nodo] = menores;
+            recalcular(nodo);
+            menores = nodo;
+        } else {
+            partir(izquierdo[nodo], likesVideo, id, inclusive);
+            izquierdo[nodo] = restantes;
+            recalcular(nodo);
+            restantes = nodo;
+        }
+    }
+
+    /**
+     * Une dos subárboles en los que todas las claves del primero van antes que las del segundo.
+     */
+    private int unir(int primero, int segundo) {
+        if (primero == NADA) {
+            return segundo;
+        }
+        if (segundo == NADA) {
+            return primero;
+        }
+        if (prioridad[primero] > prioridad[segundo]) {
+            derecho[primero] = unir(derecho[primero], segundo);
+            recalcular(primero);
+            return primero;
+        }
+        izquierdo[segundo] = unir(primero, izquierdo[segundo]);
+        recalcular(segundo);
+        return segundo;
+    }
+
+    private void recalcular(int nodo) {
+        tamano[nodo] = tamanoDe(izquierdo[nodo]) + tamanoDe(derecho[nodo]) + 1;
+    }
+
+    private int tamanoDe(int nodo) {
+        return nodo == NADA ? 0 : tamano[nodo];
+    }
+
+    private int nuevoNodo(long likesVideo, long id) {
+        int nodo;
+        if (libres != NADA) {
+            nodo = libres;
+            libres = izquierdo[nodo];
+        } else {
+            if (usados == likes.length) {
+                crecer();
+            }
+            nodo = usados++;
+        }
+        likes[nodo] = likesVideo;
+        ids[nodo] = id;
+        izquierdo[nodo] = NADA;
+        derecho[nodo] = NADA;
+        tamano[nodo] = 1;
+        prioridad[nodo] = azar.nextInt();
+        return nodo;
+    }
+
+    /**
+     * Devuelve a la lista de libres los nodos de un subárbol (a lo sumo uno al quitar una clave).
+     */
+    private void liberar(int nodo) {
+        if (nodo == NADA) {
+            return;
+        }
+        liberar(derecho[nodo]);
+        int izquierda = izquierdo[nodo];
+        izquierdo[nodo] = libres;
+        libres = nodo;
+        liberar(izquierda);
+    }
+
+    private void crecer() {
+        int capacidad = likes.length * 2;
+        likes = Arrays.copyOf(likes, capacidad);
+        ids = Arrays.copyOf(ids, capacidad);
+        izquierdo = Arrays.copyOf(izquierdo, capacidad);
+        derecho = Arrays.copyOf(derecho, capacidad);
+        tamano = Arrays.copyOf(tamano, capacidad);
+        prioridad = Arrays.copyOf(prioridad, capacidad);
+    }
+}
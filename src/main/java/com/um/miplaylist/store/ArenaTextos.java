@@ -0,0 +1,148 @@
+package com.um.miplaylist.store;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Área de textos fuera del heap: guarda registros de bytes (textos en UTF-8) en bloques de
+ * {@link ByteBuffer} directos y los identifica con una referencia {@code long} (bloque y posición).
+ * Un registro nunca se parte entre dos bloques.
+ * <p>
+ * Sólo se agrega al final. El espacio de los registros liberados queda como basura hasta que el dueño
+ * copia los registros vivos a un área nueva ({@link #copiar}); {@link #convieneCompactar()} indica
+ * cuándo vale la pena. No es segura para hilos: la protege el lock de quien la usa.
+ */
+final class ArenaTextos {
+
+    static final int BLOQUE_MINIMO = 64 * 1024;
+    static final int BLOQUE_MAXIMO = 64 * 1024 * 1024;
+
+    private final List<ByteBuffer> bloques = new ArrayList<>();
+    private ByteBuffer actual;
+    private long reservados;
+    private long escritos;
+    private long basura;
+
+    /**
+     * Escribe un registro formado por las partes, una a continuación de otra.
+     *
+     * @param partes Bytes de cada parte (null se escribe como vacía)
+     * @return Referencia al inicio del registro
+     */
+    long escribir(byte[]... partes) {
+        int largo = 0;
+        for (byte[] parte : partes) {
+            largo += parte != null ? parte.length : 0;
+        }
+        ByteBuffer bloque = bloqueCon(largo);
+        long referencia = referencia(bloques.size() - 1, bloque.position());
+        for (byte[] parte : partes) {
+            if (parte != null) {
+                bloque.put(parte);
+            }
+        }
+        escritos += largo;
+        return referencia;
+    }
+
+    /**
+     * Copia un registro de otra área a ésta (para compactar).
+     *
+     * @return Referencia al registro copiado
+     */
+    long copiar(ArenaTextos origen, long referencia, int largo) {
+        ByteBuffer bloque = bloqueCon(largo);
+        long copia = referencia(bloques.size() - 1, bloque.position());
+        bloque.put(bloque.position(), origen.bloque(referencia), posicion(referencia), largo);
+        bloque.position(bloque.position() + largo);
+        escritos += largo;
+        return copia;
+    }
+
+    /**
+     * Marca como basura los bytes de un registro que ya no se usa.
+     */
+    void liberar(int largo) {
+        basura += largo;
+    }
+
+    /**
+     * Si la basura supera a los bytes vivos (y a un bloque mínimo): compactar devuelve al menos la mitad.
+     */
+    boolean convieneCompactar() {
+        return basura > BLOQUE_MINIMO && basura > escritos - basura;
+    }
+
+    /**
+     * Lee un texto UTF-8.
+     *
+     * @param referencia Referencia al inicio del texto
+     * @param largo Largo en bytes, o -1 para null
+     */
+    String leer(long referencia, int largo) {
+        if (largo < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[largo];
+        bloque(referencia).get(posicion(referencia), bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Copia los bytes de un texto a un arreglo (con una copia en bloque), por ejemplo para recorrerlo
+     * muchas veces sin leer byte por byte del buffer.
+     *
+     * @param destino Arreglo con lugar para al menos {@code largo} bytes
+     */
+    void copiarBytes(long referencia, int largo, byte[] destino) {
+        bloque(referencia).get(posicion(referencia), destino, 0, largo);
+    }
+
+    /**
+     * Si el texto es exactamente la secuencia de bytes.
+     */
+    boolean igual(long referencia, int largo, byte[] bytes) {
+        return largo == bytes.length && coincide(bloque(referencia), posicion(referencia), bytes);
+    }
+
+    private static boolean coincide(ByteBuffer bloque, int desde, byte[] bytes) {
+        for (int j = 0; j < bytes.length; j++) {
+            if (bloque.get(desde + j) != bytes[j]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Bytes reservados fuera del heap por los bloques.
+     */
+    long reservados() {
+        return reservados;
+    }
+
+    private ByteBuffer bloqueCon(int largo) {
+        if (actual == null || actual.remaining() < largo) {
+            int anterior = actual != null ? actual.capacity() : 0;
+            int capacidad = Math.max(largo, Math.min(BLOQUE_MAXIMO, Math.max(BLOQUE_MINIMO, anterior * 2)));
+            actual = ByteBuffer.allocateDirect(capacidad);
+            bloques.add(actual);
+            reservados += capacidad;
+        }
+        return actual;
+    }
+
+    private ByteBuffer bloque(long referencia) {
+        return bloques.get((int) (referencia >>> 32));
+    }
+
+    private static int posicion(long referencia) {
+        return (int) referencia;
+    }
+
+    private static long referencia(int bloque, int posicion) {
+        return ((long) bloque << 32) | posicion;
+    }
+}
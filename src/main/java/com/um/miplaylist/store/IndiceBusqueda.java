@@ -0,0 +1,321 @@
+package com.um.miplaylist.store;
+
+import com.um.miplaylist.model.Video;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Índice invertido de los nombres de los videos para la búsqueda de texto.
+ * <p>
+ * Los nombres se parten en términos (secuencias de letras y dígitos) en minúsculas y sin tildes,
+ * así "Canción" y "cancion" coinciden. Los términos se guardan ordenados en un skiplist, de modo que
+ * los que empiezan con un prefijo quedan contiguos y el que es igual al prefijo queda primero.
+ * <p>
+ * Las lecturas no toman locks. Las escrituras de un mismo video las serializa el {@link VideoStore};
+ * las listas de videos de cada término se protegen con franjas de locks por término, porque videos
+ * distintos pueden compartir términos.
+ */
+final class IndiceBusqueda {
+
+    private static final int FRANJAS = 64;
+    private static final String[] SIN_TERMINOS = new String[0];
+
+    private static final Comparator<Resultado> ORDEN = Comparator
+            .<Resultado>comparingInt(Resultado::puntaje).reversed()
+            .thenComparing(Comparator.<Resultado>comparingLong(Resultado::likes).reversed())
+            .thenComparingLong(Resultado::id);
+
+    private final ConcurrentSkipListMap<String, Set<Documento>> terminos = new ConcurrentSkipListMap<>();
+    private final IndiceLong<Documento> documentos = new IndiceLong<>();
+    private final Object[] franjas;
+
+    /**
+     * Video indexado con sus términos unidos en un solo texto (" t1 t2 t3 "), así verificar la consulta
+     * sobre un candidato es una sola lectura de memoria en lugar de una por término. Las listas de cada
+     * término guardan el documento (con igualdad por identidad): evaluar un candidato no requiere
+     * buscarlo por ID.
+     */
+    private static final class Documento {
+        private final Video video;
+        private final String texto;
+
+        Documento(Video video, String[] terminos) {
+            this.video = video;
+            this.texto = " " + String.join(" ", terminos) + " ";
+        }
+
+        String[] terminos() {
+            String unidos = texto.strip();
+            return unidos.isEmpty() ? SIN_TERMINOS : unidos.split(" ");
+        }
+    }
+
+    /**
+     * Candidato a resultado. Los likes se leen una sola vez para que el orden no cambie mientras se elige.
+     */
+    private record Resultado(Video video, int puntaje, long likes) {
+        long id() {
+            return video.getId();
+        }
+    }
+
+    IndiceBusqueda() {
+        this.franjas = new Object[FRANJAS];
+        for (int i = 0; i < FRANJAS; i++) {
+            franjas[i] = new Object();
+        }
+    }
+
+    /**
+     * Indexa el nombre del video, reemplazando lo indexado antes para el mismo ID.
+     * Las escrituras sobre un mismo ID deben venir serializadas.
+     *
+     * @param id ID del video
+     * @param video Video a indexar
+     */
+    void agregar(long id, Video video) {
+        String[] nuevos = terminos(video.getNombre());
+        Documento documento = new Documento(video, nuevos);
+        for (String termino : nuevos) {
+            synchronized (franja(termino)) {
+                terminos.computeIfAbsent(termino, t -> ConcurrentHashMap.newKeySet()).add(documento);
+            }
+        }
+        quitar(documentos.put(id, documento));
+    }
+
+    /**
+     * Quita el video del índice. Las escrituras sobre un mismo ID deben venir serializadas.
+     *
+     * @param id ID del video
+     */
+    void quitar(long id) {
+        quitar(documentos.remove(id));
+    }
+
+    private void quitar(Documento documento) {
+        if (documento == null) {
+            return;
+        }
+        for (String termino : documento.terminos()) {
+            synchronized (franja(termino)) {
+                Set<Documento> conTermino = terminos.get(termino);
+                if (conTermino != null && conTermino.remove(documento) && conTermino.isEmpty()) {
+                    terminos.remove(termino);
+                }
+            }
+        }
+    }
+
+    /**
+     * Busca los videos cuyo nombre contiene todos los términos de la consulta, cada uno como
+     * término completo o como prefijo de un término ("blin" encuentra "Blinding").
+     * <p>
+     * Los resultados se ordenan por puntaje (2 por cada término de la consulta que coincide
+     * completo, 1 por cada uno que coincide sólo como prefijo), después por likes y después por ID.
+     * Se recorren todos los videos del término más selectivo de la consulta y los demás términos
+     * se verifican sobre cada candidato; sólo los {@code limite} mejores se conservan (en un heap
+     * acotado), así el costo de un prefijo frecuente es el del recorrido y no el de ordenar.
+     *
+     * @param consulta Texto a buscar
+     * @param limite Cantidad máxima de resultados
+     * @return Videos en orden de relevancia; vacío si la consulta no tiene términos
+     */
+    List<Video> buscar(String consulta, int limite) {
+        String[] buscados = terminos(consulta);
+        if (buscados.length == 0 || limite <= 0) {
+            return List.of();
+        }
+
+        String guia = masSelectivo(buscados);
+        String[] completos = new String[buscados.length];
+        String[] prefijos = new String[buscados.length];
+        for (int i = 0; i < buscados.length; i++) {
+            completos[i] = " " + buscados[i] + " ";
+            prefijos[i] = " " + buscados[i];
+        }
+        String prefijoGuia = " " + guia;
+        PriorityQueue<Resultado> mejores = new PriorityQueue<>(limite + 1, ORDEN.reversed());
+        for (Map.Entry<String, Set<Documento>> entrada : conPrefijo(guia).entrySet()) {
+            String termino = entrada.getKey();
+            for (Documento documento : entrada.getValue()) {
+                // Un video con dos términos del mismo prefijo aparece en las dos listas: se evalúa en la primera
+                if (yaVisto(documento.texto, prefijoGuia, termino)) {
+                    continue;
+                }
+                int puntaje = puntaje(documento.texto, completos, prefijos);
+                if (puntaje > 0 && (mejores.size() < limite || entra(puntaje, documento.video, mejores.peek()))) {
+                    mejores.add(new Resultado(documento.video, puntaje, documento.video.getLikes()));
+                    if (mejores.size() > limite) {
+                        mejores.poll();
+                    }
+                }
+            }
+        }
+
+        List<Resultado> ordenados = new ArrayList<>(mejores);
+        ordenados.sort(ORDEN);
+        List<Video> videos = new ArrayList<>(ordenados.size());
+        for (Resultado resultado : ordenados) {
+            videos.add(resultado.video());
+        }
+        return videos;
+    }
+
+    /**
+     * Si el candidato desplaza al peor de los resultados elegidos; evita crear el resultado si no.
+     */
+    private static boolean entra(int puntaje, Video video, Resultado peor) {
+        if (puntaje != peor.puntaje()) {
+            return puntaje > peor.puntaje();
+        }
+        long likes = video.getLikes();
+        return likes != peor.likes() ? likes > peor.likes() : video.getId() < peor.id();
+    }
+
+    /**
+     * Si el documento ya se evaluó en un término anterior (en orden alfabético) con el mismo prefijo.
+     */
+    private static boolean yaVisto(String texto, String prefijo, String termino) {
+        for (int i = texto.indexOf(prefijo); i >= 0; i = texto.indexOf(prefijo, i + 1)) {
+            int inicio = i + 1;
+            int fin = texto.indexOf(' ', inicio);
+            if (compararRegion(texto, inicio, fin, termino) < 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static int compararRegion(String texto, int inicio, int fin, String termino) {
+        int largo = Math.min(fin - inicio, termino.length());
+        for (int i = 0; i < largo; i++) {
+            int diferencia = texto.charAt(inicio + i) - termino.charAt(i);
+            if (diferencia != 0) {
+                return diferencia;
+            }
+        }
+        return (fin - inicio) - termino.length();
+    }
+
+    /**
+     * Término de la consulta con menos candidatos. Al contar se deja de sumar en cuanto se supera
+     * al mejor hasta el momento, así un prefijo frecuente no se recorre entero.
+     */
+    private String masSelectivo(String[] buscados) {
+        String elegido = buscados[0];
+        long menor = Long.MAX_VALUE;
+        for (String buscado : buscados) {
+            long cantidad = 0;
+            for (Set<Documento> conTermino : conPrefijo(buscado).values()) {
+                cantidad += conTermino.size();
+                if (cantidad >= menor) {
+                    break;
+                }
+            }
+            if (cantidad < menor) {
+                menor = cantidad;
+                elegido = buscado;
+            }
+            if (cantidad == 0) {
+                break;
+            }
+        }
+        return elegido;
+    }
+
+    private NavigableMap<String, Set<Documento>> conPrefijo(String prefijo) {
+        return terminos.subMap(prefijo, true, prefijo + Character.MAX_VALUE, false);
+    }
+
+    /**
+     * Puntaje del documento para la consulta, o 0 si algún término de la consulta no coincide.
+     *
+     * @param texto Términos del documento unidos por espacios, con espacios en los extremos
+     * @param completos Cada término de la consulta entre espacios (coincidencia completa)
+     * @param prefijos Cada término de la consulta precedido por un espacio (coincidencia como prefijo)
+     */
+    private static int puntaje(String texto, String[] completos, String[] prefijos) {
+        int puntaje = 0;
+        for (int i = 0; i < completos.length; i++) {
+            if (texto.contains(completos[i])) {
+                puntaje += 2;
+            } else if (texto.contains(prefijos[i])) {
+                puntaje += 1;
+            } else {
+                return 0;
+            }
+        }
+        return puntaje;
+    }
+
+    /**
+     * Parte un texto en términos sin repetir: secuencias de letras y dígitos, en minúsculas
+     * y sin marcas diacríticas ("Canción Ñandú" da "cancion" y "nandu").
+     *
+     * @param texto Texto a partir (puede ser null)
+     * @return Términos en orden de aparición
+     */
+    static String[] terminos(String texto) {
+        if (texto == null || texto.isEmpty()) {
+            return SIN_TERMINOS;
+        }
+        String descompuesto = Normalizer.normalize(texto, Normalizer.Form.NFD);
+        Set<String> terminos = new LinkedHashSet<>();
+        StringBuilder actual = new StringBuilder();
+        for (int i = 0; i < descompuesto.length(); ) {
+            int c = descompuesto.codePointAt(i);
+            i += Character.charCount(c);
+            int tipo = Character.getType(c);
+            if (tipo == Character.NON_SPACING_MARK || tipo == Character.COMBINING_SPACING_MARK
+                    || tipo == Character.ENCLOSING_MARK) {
+                continue;
+            }
+            if (Character.isLetterOrDigit(c)) {
+                actual.appendCodePoint(Character.toLowerCase(c));
+            } else if (!actual.isEmpty()) {
+                terminos.add(actual.toString());
+                actual.setLength(0);
+            }
+        }
+        if (!actual.isEmpty()) {
+            terminos.add(actual.toString());
+        }
+        return terminos.toArray(SIN_TERMINOS);
+    }
+
+    private Object franja(String termino) {
+        return franjas[(termino.hashCode() & 0x7fffffff) % FRANJAS];
+    }
+
+    /**
+     * Cantidad de términos distintos indexados.
+     */
+    int contarTerminos() {
+        return terminos.size();
+    }
+
+    /**
+     * Para tests: IDs indexados bajo un término exacto.
+     */
+    Set<Long> idsDe(String termino) {
+        Set<Documento> conTermino = terminos.get(termino);
+        if (conTermino == null) {
+            return Set.of();
+        }
+        Set<Long> ids = new HashSet<>();
+        conTermino.forEach(documento -> ids.add(documento.video.getId()));
+        return ids;
+    }
+}
@@ -0,0 +1,238 @@
+package com.um.miplaylist.store;
+
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * Índice hash concurrente con claves {@code long} primitivas (sin boxing).
+ * Está dividido en segmentos con direccionamiento abierto (sondeo lineal);
+ * cada segmento se protege con un {@link StampedLock}: las lecturas son optimistas
+ * y sólo toman el lock si detectan una escritura concurrente.
+ *
+ * @param <V> Tipo de los valores
+ */
+public final class IndiceLong<V> {
+
+    private static final int SEGMENTOS = 32;
+    private static final int CAPACIDAD_INICIAL = 16;
+
+    private final Segmento[] segmentos;
+
+    public IndiceLong() {
+        this.segmentos = new Segmento[SEGMENTOS];
+        for (int i = 0; i < SEGMENTOS; i++) {
+            segmentos[i] = new Segmento();
+        }
+    }
+
+    /**
+     * Obtiene el valor asociado a una clave.
+     *
+     * @param clave Clave a buscar
+     * @return El valor, o null si no existe
+     */
+    @SuppressWarnings("unchecked")
+    public V get(long clave) {
+        long hash = mezclar(clave);
+        Segmento segmento = segmento(hash);
+        long stamp = segmento.tryOptimisticRead();
+        Object valor = segmento.buscar(clave, hash);
+        if (!segmento.validate(stamp)) {
+            stamp = segmento.readLock();
+            try {
+                valor = segmento.buscar(clave, hash);
+            } finally {
+                segmento.unlockRead(stamp);
+            }
+        }
+        return (V) valor;
+    }
+
+    /**
+     * Asocia un valor a una clave, reemplazando el anterior si existía.
+     *
+     * @param clave Clave
+     * @param valor Valor (no nulo)
+     * @return El valor anterior, o null si no existía
+     */
+    @SuppressWarnings("unchecked")
+    public V put(long clave, V valor) {
+        if (valor == null) {
+            throw new IllegalArgumentException("El valor no puede ser null");
+        }
+        long hash = mezclar(clave);
+        Segmento segmento = segmento(hash);
+        long stamp = segmento.writeLock();
+        try {
+            return (V) segmento.insertar(clave, hash, valor);
+        } finally {
+            segmento.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Elimina una clave del índice.
+     *
+     * @param clave Clave a eliminar
+     * @return El valor eliminado, o null si no existía
+     */
+    @SuppressWarnings("unchecked")
+    public V remove(long clave) {
+        long hash = mezclar(clave);
+        Segmento segmento = segmento(hash);
+        long stamp = segmento.writeLock();
+        try {
+            return (V) segmento.eliminar(clave, hash);
+        } finally {
+            segmento.unlockWrite(stamp);
+        }
+    }
+
+    public boolean containsKey(long clave) {
+        return get(clave) != null;
+    }
+
+    public int size() {
+        int total = 0;
+        for (Segmento segmento : segmentos) {
+            total += segmento.tamano;
+        }
+        return total;
+    }
+
+    private Segmento segmento(long hash) {
+        return segmentos[(int) (hash >>> 59) & (SEGMENTOS - 1)];
+    }
+
+    /**
+     * Función de mezcla de 64 bits (finalizador de MurmurHash3) para que IDs
+     * consecutivos se repartan entre segmentos y posiciones.
+     */
+    private static long mezclar(long clave) {
+        long h = clave;
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+
+    /**
+     * Arreglos de un segmento. Se reemplazan juntos al redimensionar, de modo que
+     * una lectura optimista siempre ve claves y valores del mismo tamaño.
+     */
+    private static final class Tabla {
+        final long[] claves;
+        final Object[] valores;
+
+        Tabla(int capacidad) {
+            this.claves = new long[capacidad];
+            this.valores = new Object[capacidad];
+        }
+    }
+
+    private static final class Segmento extends StampedLock {
+
+        private volatile Tabla tabla = new Tabla(CAPACIDAD_INICIAL);
+        private volatile int tamano;
+
+        Object buscar(long clave, long hash) {
+            Tabla t = tabla;
+            int mascara = t.claves.length - 1;
+            int i = (int) hash & mascara;
+            // Acotado por la capacidad: una lectura optimista concurrente nunca itera sin fin
+            for (int n = 0; n <= mascara; n++) {
+                Object valor = t.valores[i];
+                if (valor == null) {
+                    return null;
+                }
+                if (t.claves[i] == clave) {
+                    return valor;
+                }
+                i = (i + 1) & mascara;
+            }
+            return null;
+        }
+
+        Object insertar(long clave, long hash, Object valor) {
+            Tabla t = tabla;
+            int mascara = t.claves.length - 1;
+            int i = (int) hash & mascara;
+            while (t.valores[i] != null) {
+                if (t.claves[i] == clave) {
+                    Object anterior = t.valores[i];
+                    t.valores[i] = valor;
+                    return anterior;
+                }
+                i = (i + 1) & mascara;
+            }
+            t.claves[i] = clave;
+            t.valores[i] = valor;
+            tamano = tamano + 1;
+            if (tamano * 4 >= t.claves.length * 3) {
+                redimensionar(t);
+            }
+            return null;
+        }
+
+        Object eliminar(long clave, long hash) {
+            Tabla t = tabla;
+            int mascara = t.claves.length - 1;
+            int i = (int) hash & mascara;
+            while (t.valores[i] != null) {
+                if (t.claves[i] == clave) {
+                    Object anterior = t.valores[i];
+                    desplazarHaciaAtras(t, i);
+                    tamano = tamano - 1;
+                    return anterior;
+                }
+                i = (i + 1) & mascara;
+            }
+            return null;
+        }
+
+        /**
+         * Borrado sin lápidas: corre hacia el hueco las entradas siguientes del
+         * mismo grupo cuya posición ideal queda antes del hueco.
+         */
+        private void desplazarHaciaAtras(Tabla t, int hueco) {
+            int mascara = t.claves.length - 1;
+            int i = hueco;
+            while (true) {
+                i = (i + 1) & mascara;
+                Object valor = t.valores[i];
+                if (valor == null) {
+                    break;
+                }
+                int ideal = (int) mezclar(t.claves[i]) & mascara;
+                boolean mover = hueco <= i
+                        ? (ideal <= hueco || ideal > i)
+                        : (ideal <= hueco && ideal > i);
+                if (mover) {
+                    t.claves[hueco] = t.claves[i];
+                    t.valores[hueco] = valor;
+                    hueco = i;
+                }
+            }
+            t.valores[hueco] = null;
+            t.claves[hueco] = 0L;
+        }
+
+        private void redimensionar(Tabla vieja) {
+            Tabla nueva = new Tabla(vieja.claves.length * 2);
+            int mascara = nueva.claves.length - 1;
+            for (int j = 0; j < vieja.claves.length; j++) {
+                Object valor = vieja.valores[j];
+                if (valor != null) {
+                    int i = (int) mezclar(vieja.claves[j]) & mascara;
+                    while (nueva.valores[i] != null) {
+                        i = (i + 1) & mascara;
+                    }
+                    nueva.claves[i] = vieja.claves[j];
+                    nueva.valores[i] = valor;
+                }
+            }
+            tabla = nueva;
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.um.miplaylist.store;
+
+import com.um.miplaylist.model.Video;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Lista inmutable de los videos de un índice, compartida por todos los lectores hasta que
+ * el índice cambie.
+ * <p>
+ * Los escritores no copian nada: sólo llaman a {@link #invalidar()} después de agregar o quitar
+ * un video del índice. El primer lector que encuentra la lista vencida la reconstruye con una
+ * copia O(n) y la publica; los siguientes la reciben sin recorrer ni asignar nada. Como la versión
+ * se incrementa después de cada cambio, una lista publicada con una versión incluye al menos
+ * todos los cambios de esa versión.
+ * <p>
+ * La lista es una foto de qué videos hay y en qué orden; los likes y el estado de favorito
+ * de cada video son los actuales, porque los videos se comparten.
+ */
+final class Instantanea {
+
+    private final Collection<Video> fuente;
+    private final AtomicLong version;
+    private final AtomicReference<Publicada> publicada;
+
+    private record Publicada(long version, List<Video> videos) {
+    }
+
+    /**
+     * @param fuente Vista del índice, en el orden en que se debe listar
+     */
+    Instantanea(Collection<Video> fuente) {
+        this.fuente = fuente;
+        this.version = new AtomicLong();
+        this.publicada = new AtomicReference<>(new Publicada(-1, List.of()));
+    }
+
+    /**
+     * Marca la lista como vencida. Se llama después de modificar el índice.
+     */
+    void invalidar() {
+        version.incrementAndGet();
+    }
+
+    /**
+     * Lista vigente; la reconstruye sólo si el índice cambió desde la última vez.
+     *
+     * @return Lista inmutable de los videos
+     */
+    List<Video> obtener() {
+        long actual = version.get();
+        Publicada vigente = publicada.get();
+        if (vigente.version() == actual) {
+            return vigente.videos();
+        }
+        List<Video> videos = Collections.unmodifiableList(Arrays.asList(fuente.toArray(new Video[0])));
+        // Si otro lector publicó una versión más nueva mientras se copiaba, se conserva la suya
+        publicada.accumulateAndGet(new Publicada(actual, videos),
+                (anterior, nueva) -> nueva.version() > anterior.version() ? nueva : anterior);
+        return videos;
+    }
+}
@@ -0,0 +1,109 @@
+package com.um.miplaylist.store;
+
+import com.um.miplaylist.model.Video;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Ranking de videos por likes: un skiplist concurrente ordenado por (likes descendente, id ascendente).
+ * <p>
+ * Cada video tiene a lo sumo una posición en el skiplist; la posición vigente de cada ID se guarda
+ * en un mapa y se reemplaza dentro de {@link ConcurrentHashMap#compute}, que serializa las
+ * actualizaciones de un mismo video. Como la posición se recalcula leyendo los likes del video
+ * (que sólo crecen), la última actualización siempre deja el valor más reciente aunque
+ * varios likes concurrentes se apliquen en otro orden.
+ * <p>
+ * El skiplist no guarda tamaños de subárboles: para el puesto de un video, las mismas posiciones
+ * se mantienen también en un {@link ArbolPuestos}, que cuenta las anteriores en O(log n).
+ * Los primeros del ranking se siguen leyendo del skiplist, sin locks.
+ */
+final class RankingLikes {
+
+    private static final Comparator<Posicion> ORDEN = Comparator
+            .<Posicion>comparingLong(Posicion::likes).reversed()
+            .thenComparingLong(Posicion::id);
+
+    private final ConcurrentSkipListSet<Posicion> ranking = new ConcurrentSkipListSet<>(ORDEN);
+    private final ConcurrentHashMap<Long, Posicion> posiciones = new ConcurrentHashMap<>();
+    private final ArbolPuestos puestos = new ArbolPuestos();
+
+    /**
+     * Posición de un video en el ranking.
+     */
+    record Posicion(long likes, long id) {
+    }
+
+    /**
+     * Ubica al video según sus likes actuales. O(log n).
+     *
+     * @param id ID del video
+     * @param video Video del que se leen los likes
+     * @param vigente Indica si el video sigue en el almacén; si no, no se agrega (evita dejar
+     *                en el ranking un video eliminado mientras se le daba like)
+     */
+    void actualizar(long id, Video video, BooleanSupplier vigente) {
+        posiciones.compute(id, (clave, anterior) -> {
+            if (!vigente.getAsBoolean()) {
+                return anterior;
+            }
+            long likes = video.getLikes();
+            if (anterior != null) {
+                if (anterior.likes() == likes) {
+                    return anterior;
+                }
+                ranking.remove(anterior);
+                puestos.quitar(anterior.likes(), id);
+            }
+            Posicion nueva = new Posicion(likes, id);
+            ranking.add(nueva);
+            puestos.agregar(likes, id);
+            return nueva;
+        });
+    }
+
+    /**
+     * Quita al video del ranking. O(log n).
+     */
+    void quitar(long id) {
+        posiciones.computeIfPresent(id, (clave, anterior) -> {
+            ranking.remove(anterior);
+            puestos.quitar(anterior.likes(), id);
+            return null;
+        });
+    }
+
+    /**
+     * Los primeros {@code n} del ranking. O(log n + n).
+     *
+     * @return IDs en orden de ranking
+     */
+    List<Long> primeros(int n) {
+        List<Long> ids = new ArrayList<>(Math.min(n, posiciones.size()));
+        for (Posicion posicion : ranking) {
+            if (ids.size() == n) {
+                break;
+            }
+            ids.add(posicion.id());
+        }
+        return ids;
+    }
+
+    /**
+     * Puesto del video (1 es el de más likes), contado en el {@link ArbolPuestos}: O(log n)
+     * también para los últimos puestos.
+     *
+     * @return Puesto, o 0 si el video no está en el ranking
+     */
+    long puesto(long id) {
+        Posicion posicion = posiciones.get(id);
+        if (posicion == null) {
+            return 0;
+        }
+        return puestos.contarAnteriores(posicion.likes(), id) + 1;
+    }
+}
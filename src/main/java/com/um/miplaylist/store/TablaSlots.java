@@ -0,0 +1,131 @@
+package com.um.miplaylist.store;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.function.IntPredicate;
+import java.util.function.IntUnaryOperator;
+
+/**
+ * Tabla hash de direccionamiento abierto (sondeo lineal) fuera del heap que guarda números de slot.
+ * No guarda las claves: quien la usa compara la clave leyendo sus propias columnas y da el hash de
+ * cada slot, que se usa para reubicar las entradas al crecer y al borrar (borrado con corrimiento
+ * hacia atrás, sin lápidas). Ocupa 4 bytes por celda y se mantiene a lo sumo medio llena.
+ * No es segura para hilos: la protege el lock de quien la usa.
+ */
+final class TablaSlots {
+
+    private static final int CAPACIDAD_INICIAL = 1024;
+    private static final int VACIA = 0;
+
+    private final IntUnaryOperator hashDeSlot;
+    private ByteBuffer celdas;
+    private int mascara;
+    private int cantidad;
+
+    /**
+     * @param hashDeSlot Hash de la clave guardada en cada slot
+     */
+    TablaSlots(IntUnaryOperator hashDeSlot) {
+        this.hashDeSlot = hashDeSlot;
+        reservar(CAPACIDAD_INICIAL);
+    }
+
+    /**
+     * Busca el slot cuya clave tiene el hash indicado y cumple {@code coincide}.
+     *
+     * @return El slot, o -1 si no está
+     */
+    int buscar(int hash, IntPredicate coincide) {
+        for (int i = indice(hash); ; i = (i + 1) & mascara) {
+            int celda = celda(i);
+            if (celda == VACIA) {
+                return -1;
+            }
+            int slot = celda - 1;
+            if (hashDeSlot.applyAsInt(slot) == hash && coincide.test(slot)) {
+                return slot;
+            }
+        }
+    }
+
+    /**
+     * Agrega un slot; no verifica si ya había otro con la misma clave.
+     */
+    void agregar(int hash, int slot) {
+        if ((cantidad + 1) * 2 > mascara + 1) {
+            crecer();
+        }
+        ubicar(hash, slot);
+        cantidad++;
+    }
+
+    /**
+     * Quita un slot, si está.
+     */
+    void quitar(int hash, int slot) {
+        int i = indice(hash);
+        while (celda(i) != slot + 1) {
+            if (celda(i) == VACIA) {
+                return;
+            }
+            i = (i + 1) & mascara;
+        }
+        // Corre hacia atrás las entradas siguientes que quedarían inalcanzables con el hueco
+        for (int j = (i + 1) & mascara; celda(j) != VACIA; j = (j + 1) & mascara) {
+            int ideal = indice(hashDeSlot.applyAsInt(celda(j) - 1));
+            boolean alcanzable = i <= j ? (ideal > i && ideal <= j) : (ideal > i || ideal <= j);
+            if (!alcanzable) {
+                celdas.putInt(i * Integer.BYTES, celda(j));
+                i = j;
+            }
+        }
+        celdas.putInt(i * Integer.BYTES, VACIA);
+        cantidad--;
+    }
+
+    void limpiar() {
+        reservar(CAPACIDAD_INICIAL);
+        cantidad = 0;
+    }
+
+    /**
+     * Bytes reservados fuera del heap.
+     */
+    long reservados() {
+        return celdas.capacity();
+    }
+
+    private void crecer() {
+        ByteBuffer anteriores = celdas;
+        int capacidad = mascara + 1;
+        reservar(capacidad * 2);
+        for (int i = 0; i < capacidad; i++) {
+            int celda = anteriores.getInt(i * Integer.BYTES);
+            if (celda != VACIA) {
+                ubicar(hashDeSlot.applyAsInt(celda - 1), celda - 1);
+            }
+        }
+    }
+
+    private void ubicar(int hash, int slot) {
+        int i = indice(hash);
+        while (celda(i) != VACIA) {
+            i = (i + 1) & mascara;
+        }
+        celdas.putInt(i * Integer.BYTES, slot + 1);
+    }
+
+    private void reservar(int capacidad) {
+        celdas = ByteBuffer.allocateDirect(capacidad * Integer.BYTES).order(ByteOrder.nativeOrder());
+        mascara = capacidad - 1;
+    }
+
+    private int celda(int i) {
+        return celdas.getInt(i * Integer.BYTES);
+    }
+
+    private int indice(int hash) {
+        int mezcla = hash * 0x9E3779B9;
+        return (mezcla ^ (mezcla >>> 16)) & mascara;
+    }
+}
@@ -0,0 +1,441 @@
+package com.um.miplaylist.store;
+
+import com.um.miplaylist.model.Estadisticas;
+import com.um.miplaylist.model.Pagina;
+import com.um.miplaylist.model.Video;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * Almacén concurrente en memoria para los videos de la playlist, con los videos como objetos en el heap.
+ * Mantiene un índice primario por ID (claves {@code long} primitivas, ver {@link IndiceLong}),
+ * un índice de orden de inserción estable y un índice secundario con sólo los favoritos,
+ * en el mismo orden, para listarlos sin recorrer toda la playlist. Un {@link RankingLikes}
+ * ordena los videos por likes para el ranking de más gustados, un {@link IndiceBusqueda}
+ * indexa los nombres para la búsqueda de texto y un índice hash por ID de YouTube detecta
+ * links repetidos en O(1).
+ * Las lecturas no toman locks; las escrituras sobre un mismo ID se serializan
+ * mediante franjas de locks (lock striping), por lo que escrituras sobre IDs
+ * distintos avanzan en paralelo.
+ * <p>
+ * Además mantiene agregados (cantidad de videos, de favoritos y likes totales) que se actualizan
+ * en cada escritura, para consultarlos sin recorrer los videos. Cada agregado es atómico por sí
+ * mismo, pero no se leen juntos como una foto instantánea.
+ * <p>
+ * Los listados completos ({@link #listar()} y {@link #listarFavoritos()}) son listas inmutables
+ * compartidas ({@link Instantanea}): se reconstruyen sólo cuando se agrega, elimina o cambia de
+ * favorito un video, y mientras tanto leerlas no copia nada.
+ */
+public class VideoStore implements AlmacenVideos {
+
+    private static final int FRANJAS = 64;
+
+    private final IndiceLong<Entrada> porId;
+    private final ConcurrentSkipListMap<Long, Video> porOrden;
+    private final ConcurrentSkipListMap<Long, Video> favoritosPorOrden;
+    private final Instantanea todos;
+    private final Instantanea soloFavoritos;
+    private final AtomicLong secuencia;
+    private final Object[] franjas;
+    private final AtomicLong cantidad;
+    private final AtomicLong favoritos;
+    private final LongAdder likes;
+    private final RankingLikes ranking;
+    private final IndiceBusqueda busqueda;
+    private final ConcurrentHashMap<String, Long> porYouTubeId;
+    // Serializan las altas que rechazan duplicados de un mismo ID de YouTube; se toman antes que las franjas por ID
+    private final Object[] franjasYouTube;
+
+    /**
+     * Posición de un video dentro del índice de orden.
+     */
+    private record Entrada(long orden, Video video) {
+    }
+
+    public VideoStore() {
+        this.porId = new IndiceLong<>();
+        this.porOrden = new ConcurrentSkipListMap<>();
+        this.favoritosPorOrden = new ConcurrentSkipListMap<>();
+        this.todos = new Instantanea(porOrden.values());
+        this.soloFavoritos = new Instantanea(favoritosPorOrden.values());
+        this.secuencia = new AtomicLong();
+        this.cantidad = new AtomicLong();
+        this.favoritos = new AtomicLong();
+        this.likes = new LongAdder();
+        this.ranking = new RankingLikes();
+        this.busqueda = new IndiceBusqueda();
+        this.porYouTubeId = new ConcurrentHashMap<>();
+        this.franjas = new Object[FRANJAS];
+        this.franjasYouTube = new Object[FRANJAS];
+        for (int i = 0; i < FRANJAS; i++) {
+            franjas[i] = new Object();
+            franjasYouTube[i] = new Object();
+        }
+    }
+
+    /**
+     * Agrega un video ejecutando antes una acción de registro bajo el lock de su franja.
+     * Si la acción falla, el video no se publica.
+     *
+     * @param video Video a agregar (debe tener ID asignado)
+     * @param registro Acción a ejecutar antes de publicar el video (por ejemplo, anexarlo a un journal)
+     * @return El video almacenado
+     */
+    @Override
+    public Video agregar(Video video, Consumer<Video> registro) {
+        long id = video.getId();
+        synchronized (franja(id)) {
+            registro.accept(video);
+            Entrada existente = porId.get(id);
+            long orden;
+            if (existente != null) {
+                orden = existente.orden();
+                descontar(orden, existente.video());
+            } else {
+                orden = secuencia.incrementAndGet();
+                cantidad.incrementAndGet();
+            }
+            contabilizar(orden, video);
+            Entrada nueva = new Entrada(orden, video);
+            porId.put(id, nueva);
+            porOrden.put(orden, video);
+            todos.invalidar();
+            indexarYouTubeId(id, existente != null ? existente.video() : null, video);
+            busqueda.agregar(id, video);
+            ranking.actualizar(id, video, () -> porId.get(id) == nueva);
+        }
+        return video;
+    }
+
+    /**
+     * Agrega un video salvo que otro video de la playlist tenga el mismo ID de YouTube
+     * (los formatos {@code watch?v=}, {@code youtu.be/} y {@code embed/} del mismo video coinciden).
+     * La verificación es O(1) sobre el índice por ID de YouTube y es atómica respecto de otras altas
+     * del mismo ID de YouTube. Reemplazar un video por otro con su mismo ID no cuenta como duplicado.
+     *
+     * @param video Video a agregar (debe tener ID asignado)
+     * @param registro Acción a ejecutar antes de publicar el video (por ejemplo, anexarlo a un journal)
+     * @return El video que ya tenía ese ID de YouTube, o vacío si se agregó
+     */
+    @Override
+    public Optional<Video> agregarSinDuplicar(Video video, Consumer<Video> registro) {
+        String youTubeId = claveYouTube(video);
+        if (youTubeId == null) {
+            agregar(video, registro);
+            return Optional.empty();
+        }
+        synchronized (franjasYouTube[(youTubeId.hashCode() & 0x7fffffff) % FRANJAS]) {
+            Optional<Video> duplicado = buscarPorYouTubeId(youTubeId)
+                    .filter(existente -> !existente.getId().equals(video.getId()));
+            if (duplicado.isEmpty()) {
+                agregar(video, registro);
+            }
+            return duplicado;
+        }
+    }
+
+    /**
+     * Busca el video con el ID de YouTube indicado, en O(1).
+     *
+     * @param youTubeId ID de YouTube (ver {@link Video#extraerYouTubeId()})
+     * @return El video, o vacío si ninguno tiene ese ID de YouTube
+     */
+    @Override
+    public Optional<Video> buscarPorYouTubeId(String youTubeId) {
+        Long id = youTubeId != null ? porYouTubeId.get(youTubeId) : null;
+        return id != null ? buscar(id) : Optional.empty();
+    }
+
+    /**
+     * Elimina un video ejecutando antes una acción de registro bajo el lock de su franja.
+     * Si la acción falla, el video no se elimina.
+     *
+     * @param id ID del video
+     * @param registro Acción a ejecutar sobre el video antes de quitarlo
+     * @return El video eliminado, o vacío si no existía
+     */
+    @Override
+    public Optional<Video> eliminar(long id, Consumer<Video> registro) {
+        synchronized (franja(id)) {
+            Entrada entrada = porId.get(id);
+            if (entrada == null) {
+                return Optional.empty();
+            }
+            registro.accept(entrada.video());
+            porId.remove(id);
+            porOrden.remove(entrada.orden());
+            todos.invalidar();
+            ranking.quitar(id);
+            busqueda.quitar(id);
+            String youTubeId = claveYouTube(entrada.video());
+            if (youTubeId != null) {
+                porYouTubeId.remove(youTubeId, id);
+            }
+            descontar(entrada.orden(), entrada.video());
+            cantidad.decrementAndGet();
+            return Optional.of(entrada.video());
+        }
+    }
+
+    /**
+     * Aplica una operación sobre el video con el ID indicado.
+     * La operación se ejecuta con exclusión mutua respecto de otras escrituras sobre el mismo ID.
+     * Si cambia el estado de favorito, el índice y el agregado de favoritos se actualizan; los likes
+     * deben incrementarse con {@link #darLike(long, Consumer)}.
+     *
+     * @param id ID del video
+     * @param operacion Operación a aplicar
+     * @return true si el video existía y se aplicó la operación
+     */
+    @Override
+    public boolean mutar(long id, Consumer<Video> operacion) {
+        synchronized (franja(id)) {
+            Entrada entrada = porId.get(id);
+            if (entrada == null) {
+                return false;
+            }
+            boolean eraFavorito = entrada.video().isFavorito();
+            operacion.accept(entrada.video());
+            if (entrada.video().isFavorito() != eraFavorito) {
+                if (eraFavorito) {
+                    favoritosPorOrden.remove(entrada.orden());
+                    favoritos.decrementAndGet();
+                } else {
+                    favoritosPorOrden.put(entrada.orden(), entrada.video());
+                    favoritos.incrementAndGet();
+                }
+                soloFavoritos.invalidar();
+            }
+            return true;
+        }
+    }
+
+    /**
+     * Suma un like al video bajo el lock de su franja, como las demás escrituras: así un like no
+     * se cruza con la eliminación del mismo video y el total de likes coincide con la suma de los
+     * videos. El contador del video se incrementa atómicamente, el total es un {@link LongAdder}
+     * y la posición en el ranking se actualiza en O(log n).
+     *
+     * @param id ID del video
+     * @param registro Acción a ejecutar antes de sumar el like (por ejemplo, anexarlo a un journal)
+     * @return true si el video existía
+     */
+    @Override
+    public boolean darLike(long id, Consumer<Video> registro) {
+        synchronized (franja(id)) {
+            Entrada entrada = porId.get(id);
+            if (entrada == null) {
+                return false;
+            }
+            registro.accept(entrada.video());
+            entrada.video().incrementarLikes();
+            likes.increment();
+            ranking.actualizar(id, entrada.video(), () -> porId.get(id) == entrada);
+            return true;
+        }
+    }
+
+    /**
+     * Los videos con más likes (a igualdad de likes, primero el de menor ID).
+     *
+     * @param n Cantidad máxima de videos
+     * @return Videos en orden de ranking
+     */
+    @Override
+    public List<Video> masGustados(int n) {
+        List<Video> videos = new ArrayList<>(n);
+        for (long id : ranking.primeros(n)) {
+            buscar(id).ifPresent(videos::add);
+        }
+        return videos;
+    }
+
+    /**
+     * Puesto del video en el ranking de likes (1 es el de más likes).
+     * Cuesta O(puesto): es barato para los primeros puestos.
+     *
+     * @param id ID del video
+     * @return Puesto, o 0 si el video no existe
+     */
+    @Override
+    public long puestoEnRanking(long id) {
+        return ranking.puesto(id);
+    }
+
+    /**
+     * Busca videos por nombre en el índice invertido: cada término de la consulta debe coincidir
+     * con un término del nombre, completo o como prefijo, sin distinguir mayúsculas ni tildes.
+     * El nombre se indexa al agregar el video.
+     *
+     * @param consulta Texto a buscar
+     * @param limite Cantidad máxima de resultados
+     * @return Videos en orden de relevancia
+     */
+    @Override
+    public List<Video> buscarPorNombre(String consulta, int limite) {
+        return busqueda.buscar(consulta, limite);
+    }
+
+    /**
+     * Busca un video por su ID sin tomar locks.
+     *
+     * @param id ID del video
+     * @return El video, o vacío si no existe
+     */
+    @Override
+    public Optional<Video> buscar(long id) {
+        Entrada entrada = porId.get(id);
+        return entrada != null ? Optional.of(entrada.video()) : Optional.empty();
+    }
+
+    /**
+     * Videos en orden de inserción, como lista inmutable. Si no se agregaron ni eliminaron videos
+     * desde la última llamada, devuelve la misma lista sin copiar; si no, la reconstruye una vez.
+     * La copia se hace sobre el índice de orden, cuya iteración es débilmente consistente.
+     *
+     * @return Lista inmutable con los videos
+     */
+    @Override
+    public List<Video> listar() {
+        return todos.obtener();
+    }
+
+    /**
+     * Página de videos en orden de inserción a partir de un cursor.
+     * Recorre sólo los videos de la página (más uno para saber si hay siguiente),
+     * sin importar cuántos haya antes del cursor.
+     *
+     * @param cursor Cursor devuelto por la página anterior, o 0 para empezar desde el principio
+     * @param tamano Cantidad máxima de videos
+     * @return Página con los videos y el cursor de la siguiente
+     */
+    @Override
+    public Pagina pagina(long cursor, int tamano) {
+        return pagina(porOrden, cursor, tamano);
+    }
+
+    /**
+     * Página de favoritos en orden de inserción, leída del índice de favoritos.
+     * Los cursores son del mismo tipo que los de {@link #pagina(long, int)}.
+     *
+     * @param cursor Cursor devuelto por la página anterior, o 0 para empezar desde el principio
+     * @param tamano Cantidad máxima de videos
+     * @return Página con los favoritos y el cursor de la siguiente
+     */
+    @Override
+    public Pagina paginaFavoritos(long cursor, int tamano) {
+        return pagina(favoritosPorOrden, cursor, tamano);
+    }
+
+    /**
+     * Favoritos en orden de inserción, como lista inmutable que se reconstruye sólo cuando cambian
+     * los favoritos. Reconstruirla cuesta lo proporcional a la cantidad de favoritos, no al tamaño
+     * de la playlist.
+     *
+     * @return Lista inmutable con los favoritos
+     */
+    @Override
+    public List<Video> listarFavoritos() {
+        return soloFavoritos.obtener();
+    }
+
+    private static Pagina pagina(ConcurrentSkipListMap<Long, Video> indice, long cursor, int tamano) {
+        List<Video> pagina = new ArrayList<>(tamano);
+        Iterator<Map.Entry<Long, Video>> entradas = indice.tailMap(cursor, false).entrySet().iterator();
+        long ultimo = cursor;
+        while (pagina.size() < tamano && entradas.hasNext()) {
+            Map.Entry<Long, Video> entrada = entradas.next();
+            pagina.add(entrada.getValue());
+            ultimo = entrada.getKey();
+        }
+        return new Pagina(pagina, entradas.hasNext() ? ultimo : null);
+    }
+
+    /**
+     * Vista de solo lectura de los videos en orden de inserción, sin copiar.
+     *
+     * @return Colección débilmente consistente
+     */
+    @Override
+    public Collection<Video> valores() {
+        return Collections.unmodifiableCollection(porOrden.values());
+    }
+
+    @Override
+    public int contar() {
+        return (int) cantidad.get();
+    }
+
+    /**
+     * Agregados mantenidos en cada escritura; no recorre los videos.
+     *
+     * @return Cantidad de videos, de favoritos y likes totales
+     */
+    @Override
+    public Estadisticas estadisticas() {
+        return new Estadisticas(cantidad.get(), favoritos.get(), likes.sum());
+    }
+
+    /**
+     * Elimina todos los videos del almacén.
+     */
+    @Override
+    public void limpiar() {
+        for (Video video : porOrden.values()) {
+            eliminar(video.getId());
+        }
+    }
+
+    private void contabilizar(long orden, Video video) {
+        if (video.isFavorito()) {
+            favoritosPorOrden.put(orden, video);
+            favoritos.incrementAndGet();
+            soloFavoritos.invalidar();
+        }
+        likes.add(video.getLikes());
+    }
+
+    private void descontar(long orden, Video video) {
+        if (video.isFavorito()) {
+            favoritosPorOrden.remove(orden);
+            favoritos.decrementAndGet();
+            soloFavoritos.invalidar();
+        }
+        likes.add(-video.getLikes());
+    }
+
+    /**
+     * Actualiza el índice por ID de YouTube al agregar o reemplazar un video. Si el ID de YouTube ya es
+     * de otro video (duplicados cargados de datos viejos), el índice conserva al primero.
+     */
+    private void indexarYouTubeId(long id, Video anterior, Video video) {
+        String nuevo = claveYouTube(video);
+        String viejo = anterior != null ? claveYouTube(anterior) : null;
+        if (viejo != null && !viejo.equals(nuevo)) {
+            porYouTubeId.remove(viejo, id);
+        }
+        if (nuevo != null) {
+            porYouTubeId.putIfAbsent(nuevo, id);
+        }
+    }
+
+    private static String claveYouTube(Video video) {
+        String youTubeId = video.extraerYouTubeId();
+        return youTubeId == null || youTubeId.isEmpty() ? null : youTubeId;
+    }
+
+    private Object franja(long id) {
+        return franjas[(Long.hashCode(id) & 0x7fffffff) % FRANJAS];
+    }
+}
@@ -0,0 +1,821 @@
+package com.um.miplaylist.store;
+
+import com.um.miplaylist.model.Estadisticas;
+import com.um.miplaylist.model.Pagina;
+import com.um.miplaylist.model.Video;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.AbstractCollection;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+/**
+ * Almacén con los datos de los videos fuera del heap, para playlists que no entran cómodas en él:
+ * con millones de videos el heap queda casi vacío y las pausas del GC no dependen de la playlist.
+ * <p>
+ * Cada video ocupa un slot en columnas de {@link ByteBuffer} directos (ID, orden, likes, favorito, hash
+ * del ID de YouTube y referencia a sus textos); el nombre, el link, los términos de búsqueda y el ID de
+ * YouTube se guardan en UTF-8 en un {@link ArenaTextos}. Los slots de los videos eliminados se reutilizan
+ * (lista de libres encadenada en la columna de orden) y el área de textos se compacta cuando la mitad
+ * es basura. Los índices por ID y por ID de YouTube son {@link TablaSlots}, también fuera del heap, y el
+ * orden de inserción es un registro de (orden, slot) con lápidas que se compacta del mismo modo. En el
+ * heap sólo queda un bit por video para el índice de favoritos.
+ * <p>
+ * Los videos que devuelve son copias leídas de las columnas. Las lecturas y los likes toman el lock de
+ * lectura (los likes se suman atómicamente en la columna) y las demás escrituras el de escritura.
+ * A diferencia de {@link VideoStore}, el ranking y la búsqueda por nombre no tienen índices propios:
+ * recorren las columnas, O(n) por consulta, y la búsqueda evalúa todos los videos.
+ */
+public class VideoStoreFueraDelHeap implements AlmacenVideos {
+
+    private static final int CAPACIDAD_INICIAL = 1024;
+    private static final int MINIMO_LAPIDAS = 1024;
+    private static final long SIN_ID = Long.MIN_VALUE;
+    private static final int SIN_SLOT = -1;
+    private static final int SIN_TEXTO = -1;
+    // Largos de los textos de cada slot: nombre, link, términos de búsqueda e ID de YouTube
+    private static final int TEXTOS = 4;
+    private static final int NOMBRE = 0;
+    private static final int LINK = 1;
+    private static final int TERMINOS = 2;
+    private static final int YOUTUBE = 3;
+    // Las columnas se indexan con int: la más ancha (los largos) limita la cantidad de slots
+    private static final int MAXIMO_SLOTS = (Integer.MAX_VALUE - Long.BYTES) / (TEXTOS * Integer.BYTES);
+    private static final VarHandle LIKES = MethodHandles.byteBufferViewVarHandle(long[].class, ByteOrder.nativeOrder());
+    private static final Comparator<Candidato> ORDEN_RANKING = Comparator
+            .<Candidato>comparingLong(Candidato::likes).reversed()
+            .thenComparingLong(Candidato::id);
+    private static final Comparator<Candidato> ORDEN_BUSQUEDA = Comparator
+            .<Candidato>comparingInt(Candidato::puntaje).reversed()
+            .thenComparing(ORDEN_RANKING);
+
+    private final ReentrantReadWriteLock bloqueo = new ReentrantReadWriteLock();
+    private final AtomicLong secuencia = new AtomicLong();
+    private final AtomicLong cantidad = new AtomicLong();
+    private final AtomicLong favoritos = new AtomicLong();
+    private final LongAdder likes = new LongAdder();
+    private final TablaSlots porId;
+    private final TablaSlots porYouTubeId;
+
+    // Columnas por slot
+    private ByteBuffer ids;
+    private ByteBuffer ordenes;
+    private ByteBuffer likesPorSlot;
+    private ByteBuffer favoritosPorSlot;
+    private ByteBuffer hashesYouTube;
+    private ByteBuffer posiciones;
+    private ByteBuffer textos;
+    private ByteBuffer largos;
+    private int capacidad;
+    private int slotsUsados;
+    private int libre;
+    private ArenaTextos arena;
+
+    // Registro del orden de inserción: orden y slot por posición (SIN_SLOT si se eliminó)
+    private ByteBuffer ordenPorPosicion;
+    private ByteBuffer slotPorPosicion;
+    private int capacidadPosiciones;
+    private int posicionesUsadas;
+    private int lapidas;
+    private BitSet favoritosPorPosicion;
+
+    /**
+     * Candidato del ranking o de la búsqueda, leído de las columnas.
+     */
+    private record Candidato(int slot, int puntaje, long likes, long id) {
+    }
+
+    public VideoStoreFueraDelHeap() {
+        this.porId = new TablaSlots(slot -> Long.hashCode(id(slot)));
+        this.porYouTubeId = new TablaSlots(slot -> hashesYouTube.getInt(slot * Integer.BYTES));
+        reiniciar();
+    }
+
+    private void reiniciar() {
+        capacidad = CAPACIDAD_INICIAL;
+        ids = columna(capacidad, Long.BYTES);
+        ordenes = columna(capacidad, Long.BYTES);
+        likesPorSlot = columna(capacidad, Long.BYTES);
+        favoritosPorSlot = columna(capacidad, 1);
+        hashesYouTube = columna(capacidad, Integer.BYTES);
+        posiciones = columna(capacidad, Integer.BYTES);
+        textos = columna(capacidad, Long.BYTES);
+        largos = columna(capacidad, TEXTOS * Integer.BYTES);
+        slotsUsados = 0;
+        libre = SIN_SLOT;
+        arena = new ArenaTextos();
+        capacidadPosiciones = CAPACIDAD_INICIAL;
+        ordenPorPosicion = columna(capacidadPosiciones, Long.BYTES);
+        slotPorPosicion = columna(capacidadPosiciones, Integer.BYTES);
+        posicionesUsadas = 0;
+        lapidas = 0;
+        favoritosPorPosicion = new BitSet();
+        porId.limpiar();
+        porYouTubeId.limpiar();
+    }
+
+    @Override
+    public Video agregar(Video video, Consumer<Video> registro) {
+        bloqueo.writeLock().lock();
+        try {
+            registro.accept(video);
+            escribir(video);
+            return video;
+        } finally {
+            bloqueo.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public Optional<Video> agregarSinDuplicar(Video video, Consumer<Video> registro) {
+        bloqueo.writeLock().lock();
+        try {
+            String youTubeId = claveYouTube(video);
+            int existente = youTubeId != null ? slotDeYouTubeId(youTubeId) : SIN_SLOT;
+            if (existente != SIN_SLOT && id(existente) != video.getId()) {
+                return Optional.of(leer(existente));
+            }
+            registro.accept(video);
+            escribir(video);
+            return Optional.empty();
+        } finally {
+            bloqueo.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public Optional<Video> buscarPorYouTubeId(String youTubeId) {
+        if (youTubeId == null) {
+            return Optional.empty();
+        }
+        bloqueo.readLock().lock();
+        try {
+            int slot = slotDeYouTubeId(youTubeId);
+            return slot != SIN_SLOT ? Optional.of(leer(slot)) : Optional.empty();
+        } finally {
+            bloqueo.readLock().unlock();
+        }
+    }
+
+    @Override
+    public Optional<Video> eliminar(long id, Consumer<Video> registro) {
+        bloqueo.writeLock().lock();
+        try {
+            int slot = slotDe(id);
+            if (slot == SIN_SLOT) {
+                return Optional.empty();
+            }
+            Video video = leer(slot);
+            registro.accept(video);
+            porId.quitar(Long.hashCode(id), slot);
+            quitarDeYouTube(slot);
+            int posicion = posiciones.getInt(slot * Integer.BYTES);
+            slotPorPosicion.putInt(posicion * Integer.BYTES, SIN_SLOT);
+            lapidas++;
+            descontar(slot);
+            cantidad.decrementAndGet();
+            liberarTextos(slot);
+            ids.putLong(slot * Long.BYTES, SIN_ID);
+            ordenes.putLong(slot * Long.BYTES, libre);
+            libre = slot;
+            compactarSiConviene();
+            return Optional.of(video);
+        } finally {
+            bloqueo.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public boolean mutar(long id, Consumer<Video> operacion) {
+        bloqueo.writeLock().lock();
+        try {
+            int slot = slotDe(id);
+            if (slot == SIN_SLOT) {
+                return false;
+            }
+            Video video = leer(slot);
+            boolean eraFavorito = video.isFavorito();
+            operacion.accept(video);
+            if (video.isFavorito() != eraFavorito) {
+                favoritosPorSlot.put(slot, (byte) (video.isFavorito() ? 1 : 0));
+                favoritosPorPosicion.set(posiciones.getInt(slot * Integer.BYTES), video.isFavorito());
+                if (video.isFavorito()) {
+                    favoritos.incrementAndGet();
+                } else {
+                    favoritos.decrementAndGet();
+                }
+            }
+            return true;
+        } finally {
+            bloqueo.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Suma un like con el lock de lectura: el incremento es atómico sobre la columna de likes,
+     * así los likes a videos distintos (y al mismo) no se esperan entre sí.
+     */
+    @Override
+    public boolean darLike(long id, Consumer<Video> registro) {
+        bloqueo.readLock().lock();
+        try {
+            int slot = slotDe(id);
+            if (slot == SIN_SLOT) {
+                return false;
+            }
+            registro.accept(leer(slot));
+            LIKES.getAndAdd(likesPorSlot, slot * Long.BYTES, 1L);
+            likes.increment();
+            return true;
+        } finally {
+            bloqueo.readLock().unlock();
+        }
+    }
+
+    /**
+     * Recorre la columna de likes con una cola de los {@code n} mejores. O(n log n) en el tamaño
+     * de la playlist sólo en el peor caso; en general casi todos los videos se descartan con una comparación.
+     */
+    @Override
+    public List<Video> masGustados(int n) {
+        if (n <= 0) {
+            return List.of();
+        }
+        bloqueo.readLock().lock();
+        try {
+            PriorityQueue<Candidato> mejores = new PriorityQueue<>(n + 1, ORDEN_RANKING.reversed());
+            for (int slot = 0; slot < slotsUsados; slot++) {
+                long id = id(slot);
+                if (id == SIN_ID) {
+                    continue;
+                }
+                long likesDelSlot = likes(slot);
+                Candidato peor = mejores.peek();
+                if (mejores.size() < n || likesDelSlot > peor.likes() || (likesDelSlot == peor.likes() && id < peor.id())) {
+                    mejores.add(new Candidato(slot, 0, likesDelSlot, id));
+                    if (mejores.size() > n) {
+                        mejores.poll();
+                    }
+                }
+            }
+            return leerOrdenados(mejores, ORDEN_RANKING);
+        } finally {
+            bloqueo.readLock().unlock();
+        }
+    }
+
+    /**
+     * Cuenta los videos que van antes en el ranking recorriendo las columnas: O(n) en el tamaño de la playlist.
+     */
+    @Override
+    public long puestoEnRanking(long id) {
+        bloqueo.readLock().lock();
+        try {
+            int slot = slotDe(id);
+            if (slot == SIN_SLOT) {
+                return 0;
+            }
+            long propios = likes(slot);
+            long antes = 0;
+            for (int otro = 0; otro < slotsUsados; otro++) {
+                long otroId = id(otro);
+                if (otroId == SIN_ID) {
+                    continue;
+                }
+                long otrosLikes = likes(otro);
+                if (otrosLikes > propios || (otrosLikes == propios && otroId < id)) {
+                    antes++;
+                }
+            }
+            return antes + 1;
+        } finally {
+            bloqueo.readLock().unlock();
+        }
+    }
+
+    /**
+     * Busca con el mismo puntaje y orden que {@link IndiceBusqueda#buscar}, comparando los bytes UTF-8
+     * de los términos guardados de cada video sin decodificarlos. Con UTF-8 buscar los bytes equivale a
+     * buscar el texto, porque ningún carácter codificado contiene a otro en su interior. Recorre toda la playlist.
+     */
+    @Override
+    public List<Video> buscarPorNombre(String consulta, int limite) {
+        String[] buscados = IndiceBusqueda.terminos(consulta);
+        if (buscados.length == 0 || limite <= 0) {
+            return List.of();
+        }
+        byte[][] prefijos = new byte[buscados.length][];
+        for (int i = 0; i < buscados.length; i++) {
+            prefijos[i] = utf8(" " + buscados[i]);
+        }
+        bloqueo.readLock().lock();
+        try {
+            PriorityQueue<Candidato> mejores = new PriorityQueue<>(limite + 1, ORDEN_BUSQUEDA.reversed());
+            byte[] terminos = new byte[256];
+            for (int slot = 0; slot < slotsUsados; slot++) {
+                long id = id(slot);
+                if (id == SIN_ID) {
+                    continue;
+                }
+                int largo = largo(slot, TERMINOS);
+                if (largo > terminos.length) {
+                    terminos = new byte[Math.max(largo, 2 * terminos.length)];
+                }
+                arena.copiarBytes(referenciaTexto(slot, TERMINOS), largo, terminos);
+                int puntaje = puntaje(terminos, largo, prefijos);
+                if (puntaje > 0) {
+                    mejores.add(new Candidato(slot, puntaje, likes(slot), id));
+                    if (mejores.size() > limite) {
+                        mejores.poll();
+                    }
+                }
+            }
+            return leerOrdenados(mejores, ORDEN_BUSQUEDA);
+        } finally {
+            bloqueo.readLock().unlock();
+        }
+    }
+
+    private static int puntaje(byte[] terminos, int largo, byte[][] prefijos) {
+        int puntaje = 0;
+        for (byte[] prefijo : prefijos) {
+            int coincidencia = coincidencia(terminos, largo, prefijo);
+            if (coincidencia == 0) {
+                return 0;
+            }
+            puntaje += coincidencia;
+        }
+        return puntaje;
+    }
+
+    /**
+     * En una sola pasada por los términos: 2 si alguno es igual al buscado, 1 si alguno sólo empieza con él, 0 si no.
+     *
+     * @param prefijo Término buscado precedido por un espacio
+     */
+    private static int coincidencia(byte[] terminos, int largo, byte[] prefijo) {
+        int coincidencia = 0;
+        int ultimo = largo - prefijo.length;
+        recorrido:
+        for (int i = 0; i <= ultimo; i++) {
+            for (int j = 0; j < prefijo.length; j++) {
+                if (terminos[i + j] != prefijo[j]) {
+                    continue recorrido;
+                }
+            }
+            if (terminos[i + prefijo.length] == ' ') {
+                return 2;
+            }
+            coincidencia = 1;
+        }
+        return coincidencia;
+    }
+
+    private List<Video> leerOrdenados(PriorityQueue<Candidato> candidatos, Comparator<Candidato> orden) {
+        List<Candidato> ordenados = new ArrayList<>(candidatos);
+        ordenados.sort(orden);
+        List<Video> videos = new ArrayList<>(ordenados.size());
+        for (Candidato candidato : ordenados) {
+            videos.add(leer(candidato.slot()));
+        }
+        return videos;
+    }
+
+    @Override
+    public Optional<Video> buscar(long id) {
+        bloqueo.readLock().lock();
+        try {
+            int slot = slotDe(id);
+            return slot != SIN_SLOT ? Optional.of(leer(slot)) : Optional.empty();
+        } finally {
+            bloqueo.readLock().unlock();
+        }
+    }
+
+    /**
+     * Copia los videos en orden de inserción. Cada llamada lee la playlist completa de las columnas:
+     * no se guarda una instantánea en el heap.
+     */
+    @Override
+    public List<Video> listar() {
+        bloqueo.readLock().lock();
+        try {
+            List<Video> videos = new ArrayList<>((int) cantidad.get());
+            for (int posicion = 0; posicion < posicionesUsadas; posicion++) {
+                int slot = slotPorPosicion.getInt(posicion * Integer.BYTES);
+                if (slot != SIN_SLOT) {
+                    videos.add(leer(slot));
+                }
+            }
+            return Collections.unmodifiableList(videos);
+        } finally {
+            bloqueo.readLock().unlock();
+        }
+    }
+
+    @Override
+    public Pagina pagina(long cursor, int tamano) {
+        bloqueo.readLock().lock();
+        try {
+            List<Video> pagina = new ArrayList<>(tamano);
+            long ultimo = cursor;
+            int posicion = siguienteViva(posicionPosterior(cursor));
+            while (pagina.size() < tamano && posicion < posicionesUsadas) {
+                pagina.add(leer(slotPorPosicion.getInt(posicion * Integer.BYTES)));
+                ultimo = ordenPorPosicion.getLong(posicion * Long.BYTES);
+                posicion = siguienteViva(posicion + 1);
+            }
+            return new Pagina(pagina, posicion < posicionesUsadas ? ultimo : null);
+        } finally {
+            bloqueo.readLock().unlock();
+        }
+    }
+
+    /**
+     * Página de favoritos saltando de favorito en favorito con el índice de bits: no recorre
+     * los videos que no son favoritos.
+     */
+    @Override
+    public Pagina paginaFavoritos(long cursor, int tamano) {
+        bloqueo.readLock().lock();
+        try {
+            List<Video> pagina = new ArrayList<>(tamano);
+            long ultimo = cursor;
+            int posicion = favoritosPorPosicion.nextSetBit(posicionPosterior(cursor));
+            while (pagina.size() < tamano && posicion >= 0) {
+                pagina.add(leer(slotPorPosicion.getInt(posicion * Integer.BYTES)));
+                ultimo = ordenPorPosicion.getLong(posicion * Long.BYTES);
+                posicion = favoritosPorPosicion.nextSetBit(posicion + 1);
+            }
+            return new Pagina(pagina, posicion >= 0 ? ultimo : null);
+        } finally {
+            bloqueo.readLock().unlock();
+        }
+    }
+
+    @Override
+    public List<Video> listarFavoritos() {
+        bloqueo.readLock().lock();
+        try {
+            List<Video> videos = new ArrayList<>((int) favoritos.get());
+            for (int posicion = favoritosPorPosicion.nextSetBit(0); posicion >= 0;
+                 posicion = favoritosPorPosicion.nextSetBit(posicion + 1)) {
+                videos.add(leer(slotPorPosicion.getInt(posicion * Integer.BYTES)));
+            }
+            return Collections.unmodifiableList(videos);
+        } finally {
+            bloqueo.readLock().unlock();
+        }
+    }
+
+    /**
+     * Recorre la playlist de a páginas por cursor, así no copia la playlist completa y no la afectan
+     * las compactaciones del registro de orden.
+     */
+    @Override
+    public Collection<Video> valores() {
+        return new AbstractCollection<>() {
+            @Override
+            public Iterator<Video> iterator() {
+                return new Iterator<>() {
+                    private Pagina actual = pagina(0, 512);
+                    private int indice;
+
+                    @Override
+                    public boolean hasNext() {
+                        if (indice == actual.videos().size() && actual.siguiente() != null) {
+                            actual = pagina(actual.siguiente(), 512);
+                            indice = 0;
+                        }
+                        return indice < actual.videos().size();
+                    }
+
+                    @Override
+                    public Video next() {
+                        if (!hasNext()) {
+                            throw new NoSuchElementException();
+                        }
+                        return actual.videos().get(indice++);
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return contar();
+            }
+        };
+    }
+
+    @Override
+    public int contar() {
+        return (int) cantidad.get();
+    }
+
+    @Override
+    public Estadisticas estadisticas() {
+        return new Estadisticas(cantidad.get(), favoritos.get(), likes.sum());
+    }
+
+    @Override
+    public void limpiar() {
+        bloqueo.writeLock().lock();
+        try {
+            reiniciar();
+            cantidad.set(0);
+            favoritos.set(0);
+            likes.reset();
+        } finally {
+            bloqueo.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Bytes reservados fuera del heap por las columnas, los índices y el área de textos.
+     */
+    public long bytesFueraDelHeap() {
+        bloqueo.readLock().lock();
+        try {
+            long columnas = (long) capacidad * (4L * Long.BYTES + 1 + 2 * Integer.BYTES + TEXTOS * Integer.BYTES);
+            long registro = (long) capacidadPosiciones * (Long.BYTES + Integer.BYTES);
+            return columnas + registro + porId.reservados() + porYouTubeId.reservados() + arena.reservados();
+        } finally {
+            bloqueo.readLock().unlock();
+        }
+    }
+
+    /**
+     * Escribe el video en su slot (nuevo o el del mismo ID, conservando la posición). Con el lock de escritura.
+     */
+    private void escribir(Video video) {
+        long id = video.getId();
+        int slot = slotDe(id);
+        if (slot != SIN_SLOT) {
+            descontar(slot);
+            quitarDeYouTube(slot);
+            liberarTextos(slot);
+        } else {
+            slot = reservarSlot();
+            ids.putLong(slot * Long.BYTES, id);
+            long orden = secuencia.incrementAndGet();
+            ordenes.putLong(slot * Long.BYTES, orden);
+            posiciones.putInt(slot * Integer.BYTES, agregarPosicion(orden, slot));
+            porId.agregar(Long.hashCode(id), slot);
+            cantidad.incrementAndGet();
+        }
+        escribirTextos(slot, video);
+        LIKES.setVolatile(likesPorSlot, slot * Long.BYTES, video.getLikes());
+        favoritosPorSlot.put(slot, (byte) (video.isFavorito() ? 1 : 0));
+        contabilizar(slot);
+
+        String youTubeId = claveYouTube(video);
+        if (youTubeId != null && slotDeYouTubeId(youTubeId) == SIN_SLOT) {
+            // Si el ID de YouTube ya es de otro video (duplicados de datos viejos), el índice conserva al primero
+            hashesYouTube.putInt(slot * Integer.BYTES, youTubeId.hashCode());
+            porYouTubeId.agregar(youTubeId.hashCode(), slot);
+        }
+        compactarSiConviene();
+    }
+
+    private void escribirTextos(int slot, Video video) {
+        String youTubeId = claveYouTube(video);
+        byte[][] partes = {
+            utf8(video.getNombre()),
+            utf8(video.getLink()),
+            utf8(" " + String.join(" ", IndiceBusqueda.terminos(video.getNombre())) + " "),
+            utf8(youTubeId)
+        };
+        textos.putLong(slot * Long.BYTES, arena.escribir(partes));
+        for (int i = 0; i < TEXTOS; i++) {
+            largos.putInt((slot * TEXTOS + i) * Integer.BYTES, partes[i] != null ? partes[i].length : SIN_TEXTO);
+        }
+    }
+
+    private void liberarTextos(int slot) {
+        int total = 0;
+        for (int i = 0; i < TEXTOS; i++) {
+            total += Math.max(0, largo(slot, i));
+        }
+        arena.liberar(total);
+    }
+
+    private void contabilizar(int slot) {
+        if (favorito(slot)) {
+            favoritosPorPosicion.set(posiciones.getInt(slot * Integer.BYTES));
+            favoritos.incrementAndGet();
+        }
+        likes.add(likes(slot));
+    }
+
+    private void descontar(int slot) {
+        if (favorito(slot)) {
+            favoritosPorPosicion.clear(posiciones.getInt(slot * Integer.BYTES));
+            favoritos.decrementAndGet();
+        }
+        likes.add(-likes(slot));
+    }
+
+    /**
+     * Quita el slot del índice por ID de YouTube si es el que figura en él.
+     */
+    private void quitarDeYouTube(int slot) {
+        int largo = largo(slot, YOUTUBE);
+        if (largo < 0) {
+            return;
+        }
+        String youTubeId = arena.leer(referenciaTexto(slot, YOUTUBE), largo);
+        if (slotDeYouTubeId(youTubeId) == slot) {
+            porYouTubeId.quitar(youTubeId.hashCode(), slot);
+        }
+    }
+
+    private int slotDe(long id) {
+        return porId.buscar(Long.hashCode(id), slot -> id(slot) == id);
+    }
+
+    private int slotDeYouTubeId(String youTubeId) {
+        byte[] bytes = utf8(youTubeId);
+        return porYouTubeId.buscar(youTubeId.hashCode(),
+                slot -> arena.igual(referenciaTexto(slot, YOUTUBE), largo(slot, YOUTUBE), bytes));
+    }
+
+    private int reservarSlot() {
+        if (libre != SIN_SLOT) {
+            int slot = libre;
+            libre = (int) ordenes.getLong(slot * Long.BYTES);
+            return slot;
+        }
+        if (slotsUsados == capacidad) {
+            if (capacidad == MAXIMO_SLOTS) {
+                throw new IllegalStateException("El almacén fuera del heap llegó al máximo de " + MAXIMO_SLOTS + " videos");
+            }
+            int nueva = (int) Math.min(MAXIMO_SLOTS, 2L * capacidad);
+            ids = crecer(ids, nueva, Long.BYTES);
+            ordenes = crecer(ordenes, nueva, Long.BYTES);
+            likesPorSlot = crecer(likesPorSlot, nueva, Long.BYTES);
+            favoritosPorSlot = crecer(favoritosPorSlot, nueva, 1);
+            hashesYouTube = crecer(hashesYouTube, nueva, Integer.BYTES);
+            posiciones = crecer(posiciones, nueva, Integer.BYTES);
+            textos = crecer(textos, nueva, Long.BYTES);
+            largos = crecer(largos, nueva, TEXTOS * Integer.BYTES);
+            capacidad = nueva;
+        }
+        return slotsUsados++;
+    }
+
+    private int agregarPosicion(long orden, int slot) {
+        if (posicionesUsadas == capacidadPosiciones) {
+            int nueva = (int) Math.min(MAXIMO_SLOTS, 2L * capacidadPosiciones);
+            ordenPorPosicion = crecer(ordenPorPosicion, nueva, Long.BYTES);
+            slotPorPosicion = crecer(slotPorPosicion, nueva, Integer.BYTES);
+            capacidadPosiciones = nueva;
+        }
+        int posicion = posicionesUsadas++;
+        ordenPorPosicion.putLong(posicion * Long.BYTES, orden);
+        slotPorPosicion.putInt(posicion * Integer.BYTES, slot);
+        return posicion;
+    }
+
+    /**
+     * Primera posición con orden mayor al cursor (búsqueda binaria: los órdenes crecen con la posición).
+     */
+    private int posicionPosterior(long cursor) {
+        int desde = 0;
+        int hasta = posicionesUsadas;
+        while (desde < hasta) {
+            int medio = (desde + hasta) >>> 1;
+            if (ordenPorPosicion.getLong(medio * Long.BYTES) <= cursor) {
+                desde = medio + 1;
+            } else {
+                hasta = medio;
+            }
+        }
+        return desde;
+    }
+
+    private int siguienteViva(int posicion) {
+        while (posicion < posicionesUsadas && slotPorPosicion.getInt(posicion * Integer.BYTES) == SIN_SLOT) {
+            posicion++;
+        }
+        return posicion;
+    }
+
+    /**
+     * Quita las lápidas del registro de orden y copia los textos vivos a un área nueva cuando
+     * la mitad es espacio muerto. Con el lock de escritura.
+     */
+    private void compactarSiConviene() {
+        if (lapidas > MINIMO_LAPIDAS && lapidas > posicionesUsadas - lapidas) {
+            ByteBuffer nuevosOrdenes = columna(capacidadPosiciones, Long.BYTES);
+            ByteBuffer nuevosSlots = columna(capacidadPosiciones, Integer.BYTES);
+            BitSet nuevosFavoritos = new BitSet();
+            int nuevas = 0;
+            for (int posicion = 0; posicion < posicionesUsadas; posicion++) {
+                int slot = slotPorPosicion.getInt(posicion * Integer.BYTES);
+                if (slot == SIN_SLOT) {
+                    continue;
+                }
+                nuevosOrdenes.putLong(nuevas * Long.BYTES, ordenPorPosicion.getLong(posicion * Long.BYTES));
+                nuevosSlots.putInt(nuevas * Integer.BYTES, slot);
+                posiciones.putInt(slot * Integer.BYTES, nuevas);
+                if (favorito(slot)) {
+                    nuevosFavoritos.set(nuevas);
+                }
+                nuevas++;
+            }
+            ordenPorPosicion = nuevosOrdenes;
+            slotPorPosicion = nuevosSlots;
+            favoritosPorPosicion = nuevosFavoritos;
+            posicionesUsadas = nuevas;
+            lapidas = 0;
+        }
+        if (arena.convieneCompactar()) {
+            ArenaTextos nueva = new ArenaTextos();
+            for (int slot = 0; slot < slotsUsados; slot++) {
+                if (id(slot) == SIN_ID) {
+                    continue;
+                }
+                int total = 0;
+                for (int i = 0; i < TEXTOS; i++) {
+                    total += Math.max(0, largo(slot, i));
+                }
+                textos.putLong(slot * Long.BYTES, nueva.copiar(arena, textos.getLong(slot * Long.BYTES), total));
+            }
+            arena = nueva;
+        }
+    }
+
+    private Video leer(int slot) {
+        return new Video(id(slot),
+                arena.leer(referenciaTexto(slot, NOMBRE), largo(slot, NOMBRE)),
+                arena.leer(referenciaTexto(slot, LINK), largo(slot, LINK)),
+                likes(slot), favorito(slot));
+    }
+
+    private long id(int slot) {
+        return ids.getLong(slot * Long.BYTES);
+    }
+
+    private long likes(int slot) {
+        return (long) LIKES.getVolatile(likesPorSlot, slot * Long.BYTES);
+    }
+
+    private boolean favorito(int slot) {
+        return favoritosPorSlot.get(slot) != 0;
+    }
+
+    private int largo(int slot, int texto) {
+        return largos.getInt((slot * TEXTOS + texto) * Integer.BYTES);
+    }
+
+    /**
+     * Referencia al texto indicado del slot: los textos de un slot están uno a continuación del otro.
+     */
+    private long referenciaTexto(int slot, int texto) {
+        long referencia = textos.getLong(slot * Long.BYTES);
+        for (int i = 0; i < texto; i++) {
+            referencia += Math.max(0, largo(slot, i));
+        }
+        return referencia;
+    }
+
+    private static String claveYouTube(Video video) {
+        String youTubeId = video.extraerYouTubeId();
+        return youTubeId == null || youTubeId.isEmpty() ? null : youTubeId;
+    }
+
+    private static byte[] utf8(String texto) {
+        return texto != null ? texto.getBytes(StandardCharsets.UTF_8) : null;
+    }
+
+    /**
+     * Columna fuera del heap alineada a 8 bytes, como piden los accesos atómicos a los likes.
+     */
+    private static ByteBuffer columna(int filas, int bytesPorFila) {
+        return ByteBuffer.allocateDirect(filas * bytesPorFila + Long.BYTES - 1)
+                .alignedSlice(Long.BYTES)
+                .order(ByteOrder.nativeOrder());
+    }
+
+    private static ByteBuffer crecer(ByteBuffer actual, int filas, int bytesPorFila) {
+        ByteBuffer nueva = columna(filas, bytesPorFila);
+        nueva.put(0, actual, 0, actual.capacity());
+        return nueva;
+    }
+}
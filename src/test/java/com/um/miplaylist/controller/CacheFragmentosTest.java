@@ -0,0 +1,68 @@
+package com.um.miplaylist.controller;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests de la cache de fragmentos renderizados por versión.
+ */
+class CacheFragmentosTest {
+
+    @Test
+    void testReutilizaMientrasNoCambiaLaVersion() {
+        CacheFragmentos cache = new CacheFragmentos();
+        AtomicInteger renderizados = new AtomicInteger();
+
+        for (int i = 0; i < 3; i++) {
+            assertEquals("v1", cache.obtener("/", 1, () -> {
+                renderizados.incrementAndGet();
+                return "v1";
+            }));
+        }
+        assertEquals(1, renderizados.get());
+
+        assertEquals("v2", cache.obtener("/", 2, () -> "v2"));
+        assertEquals("v2", cache.obtener("/", 2, () -> "otro"));
+    }
+
+    @Test
+    void testUnaVersionNuevaDescartaLasAnteriores() {
+        CacheFragmentos cache = new CacheFragmentos();
+        cache.obtener("/", 1, () -> "inicio");
+        cache.obtener("/favoritos", 1, () -> "favoritos");
+        assertEquals(2, cache.contar());
+
+        cache.obtener("/", 2, () -> "inicio nuevo");
+
+        assertEquals(1, cache.contar());
+        assertEquals("favoritos nuevo", cache.obtener("/favoritos", 2, () -> "favoritos nuevo"));
+    }
+
+    @Test
+    void testNoGuardaLoRenderizadoConUnaVersionVieja() {
+        CacheFragmentos cache = new CacheFragmentos();
+        cache.obtener("/", 5, () -> "actual");
+
+        // Un pedido que leyó la versión antes de la última mutación termina de renderizar tarde
+        assertEquals("viejo", cache.obtener("/favoritos", 4, () -> "viejo"));
+
+        assertEquals(1, cache.contar());
+        assertEquals("actual", cache.obtener("/", 5, () -> "otro"));
+    }
+
+    @Test
+    void testConservaLosMasRecientes() {
+        CacheFragmentos cache = new CacheFragmentos();
+        for (int i = 0; i <= CacheFragmentos.MAXIMO; i++) {
+            int pagina = i;
+            cache.obtener(pagina, 1, () -> "pagina " + pagina);
+        }
+
+        assertEquals(CacheFragmentos.MAXIMO, cache.contar());
+        assertEquals("renderizada otra vez", cache.obtener(0, 1, () -> "renderizada otra vez"));
+        assertEquals("pagina " + CacheFragmentos.MAXIMO, cache.obtener(CacheFragmentos.MAXIMO, 1, () -> "otro"));
+    }
+}
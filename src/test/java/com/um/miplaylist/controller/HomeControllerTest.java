@@ -1,17 +1,26 @@
 package com.um.miplaylist.controller;
 
+import com.um.miplaylist.model.Estadisticas;
+import com.um.miplaylist.model.Pagina;
 import com.um.miplaylist.model.Video;
+import com.um.miplaylist.service.VideoDuplicadoException;
 import com.um.miplaylist.service.VideoService;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
 import org.springframework.test.web.servlet.MockMvc;
 
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
 
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.not;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
@@ -32,6 +41,14 @@ class HomeControllerTest {
     @MockBean
     private VideoService videoService;
 
+    // El controlador (y su cache de fragmentos) se comparte entre tests: cada test ve otra versión de los datos
+    private static final AtomicLong versiones = new AtomicLong(1_000);
+
+    @BeforeEach
+    void setUp() {
+        when(videoService.obtenerVersion()).thenReturn(versiones.incrementAndGet());
+    }
+
     @Test
     void testHomePage() throws Exception {
         // Preparar datos de prueba
@@ -40,9 +57,8 @@ class HomeControllerTest {
             new Video(2L, "Video 2", "https://www.youtube.com/watch?v=def456", 5, false)
         );
 
-        when(videoService.listarTodos()).thenReturn(videosSimulados);
-        when(videoService.contarVideos()).thenReturn(2);
-        when(videoService.listarFavoritos()).thenReturn(Arrays.asList(videosSimulados.get(0)));
+        when(videoService.listarPagina(null, null)).thenReturn(new Pagina(videosSimulados, null));
+        when(videoService.obtenerEstadisticas()).thenReturn(new Estadisticas(2, 1, 15));
 
         // Ejecutar y verificar
         mockMvc.perform(get("/"))
@@ -52,12 +68,111 @@ class HomeControllerTest {
                 .andExpect(model().attributeExists("totalVideos"))
                 .andExpect(model().attributeExists("videosFavoritos"))
                 .andExpect(model().attributeExists("nuevoVideo"))
-                .andExpect(model().attribute("totalVideos", 2))
-                .andExpect(model().attribute("videosFavoritos", 1));
+                .andExpect(model().attribute("totalVideos", 2L))
+                .andExpect(model().attribute("videosFavoritos", 1L))
+                // Cada tarjeta lleva su ID para que las acciones sin recarga la actualicen en el lugar
+                .andExpect(content().string(containsString("data-id=\"2\"")))
+                .andExpect(content().string(containsString("data-accion=\"like\"")))
+                // Miniaturas en lugar de reproductores: ningún iframe hasta que se elige un video
+                .andExpect(content().string(containsString("https://i.ytimg.com/vi/def456/hqdefault.jpg")))
+                .andExpect(content().string(not(containsString("<iframe"))));
+
+        verify(videoService, times(1)).listarPagina(null, null);
+        verify(videoService, times(1)).obtenerEstadisticas();
+        verify(videoService, never()).listarFavoritos();
+    }
+
+    @Test
+    void testHomePageUsaElContextPathEnLaApi() throws Exception {
+        when(videoService.listarPagina(null, null)).thenReturn(new Pagina(List.of(), null));
+        when(videoService.obtenerEstadisticas()).thenReturn(new Estadisticas(0, 0, 0));
+
+        mockMvc.perform(get("/miplaylist/").contextPath("/miplaylist"))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("const urlApi = \"\\/miplaylist\\/api\\/videos\";")));
+    }
+
+    @Test
+    void testHomePagePaginada() throws Exception {
+        List<Video> pagina = List.of(new Video(30L, "Video 30", "https://www.youtube.com/watch?v=abc123"));
+        when(videoService.listarPagina(29L, 1)).thenReturn(new Pagina(pagina, 30L));
+        when(videoService.obtenerEstadisticas()).thenReturn(new Estadisticas(30, 0, 0));
+
+        mockMvc.perform(get("/").param("cursor", "29").param("tamano", "1"))
+                .andExpect(status().isOk())
+                .andExpect(model().attribute("videos", pagina))
+                .andExpect(model().attribute("siguienteCursor", 30L))
+                .andExpect(content().string(containsString("/?cursor=30&amp;tamano=1")));
+
+        verify(videoService, times(1)).listarPagina(29L, 1);
+    }
+
+    @Test
+    void testFavoritos() throws Exception {
+        List<Video> favoritos = List.of(new Video(1L, "Video 1", "https://www.youtube.com/watch?v=abc123", 10, true));
+        when(videoService.listarPaginaFavoritos(null, null)).thenReturn(new Pagina(favoritos, null));
+        when(videoService.obtenerEstadisticas()).thenReturn(new Estadisticas(2, 1, 10));
+
+        mockMvc.perform(get("/favoritos"))
+                .andExpect(status().isOk())
+                .andExpect(view().name("index"))
+                .andExpect(model().attribute("videos", favoritos))
+                .andExpect(model().attribute("rutaBase", "/favoritos"));
+
+        verify(videoService, times(1)).listarPaginaFavoritos(null, null);
+        verify(videoService, never()).listarPagina(any(), any());
+    }
+
+    @Test
+    void testPaginaSinCambiosRespondeNoModificada() throws Exception {
+        when(videoService.listarPagina(null, null)).thenReturn(new Pagina(List.of(
+                new Video(1L, "Video 1", "https://www.youtube.com/watch?v=abc123", 10, true)), null));
+        when(videoService.obtenerEstadisticas()).thenReturn(new Estadisticas(1, 1, 10));
+
+        String etag = mockMvc.perform(get("/"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "no-cache"))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertNotNull(etag);
+
+        mockMvc.perform(get("/").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+        verify(videoService, times(1)).listarPagina(null, null);
+
+        // Una mutación cambia la versión: la página se vuelve a renderizar con otro ETag
+        when(videoService.obtenerVersion()).thenReturn(versiones.incrementAndGet());
+        mockMvc.perform(get("/").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, not(etag)))
+                .andExpect(content().string(containsString("Video 1")));
+    }
 
-        verify(videoService, times(1)).listarTodos();
-        verify(videoService, times(1)).contarVideos();
-        verify(videoService, times(1)).listarFavoritos();
+    @Test
+    void testFragmentoCacheadoMientrasNoCambiaLaVersion() throws Exception {
+        when(videoService.listarPagina(null, null))
+                .thenReturn(new Pagina(List.of(new Video(1L, "Antes", "https://www.youtube.com/watch?v=abc123")), null))
+                .thenReturn(new Pagina(List.of(new Video(1L, "Después", "https://www.youtube.com/watch?v=abc123")), null));
+        when(videoService.obtenerEstadisticas()).thenReturn(new Estadisticas(1, 0, 0));
+
+        mockMvc.perform(get("/")).andExpect(content().string(containsString("Antes")));
+        // Misma versión: se sirve el fragmento ya renderizado
+        mockMvc.perform(get("/")).andExpect(content().string(containsString("Antes")));
+
+        when(videoService.obtenerVersion()).thenReturn(versiones.incrementAndGet());
+        mockMvc.perform(get("/")).andExpect(content().string(containsString("Después")));
+    }
+
+    @Test
+    void testPaginaConMensajeFlashNoSeValidaNiLlevaETag() throws Exception {
+        when(videoService.listarPagina(null, null)).thenReturn(new Pagina(List.of(), null));
+        when(videoService.obtenerEstadisticas()).thenReturn(new Estadisticas(0, 0, 0));
+        String etag = mockMvc.perform(get("/")).andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(get("/").header(HttpHeaders.IF_NONE_MATCH, etag).flashAttr("error", "No se encontró el video"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(HttpHeaders.ETAG))
+                .andExpect(content().string(containsString("No se encontró el video")));
     }
 
     @Test
@@ -75,6 +190,33 @@ class HomeControllerTest {
         verify(videoService, times(1)).agregarVideo(any(Video.class));
     }
 
+    @Test
+    void testAgregarVideoIgnoraElIdDelFormulario() throws Exception {
+        when(videoService.agregarVideo(any(Video.class))).thenAnswer(invocacion -> invocacion.getArgument(0));
+
+        mockMvc.perform(post("/agregar")
+                .param("id", "1")
+                .param("nombre", "Intento de reemplazo")
+                .param("link", "https://www.youtube.com/watch?v=test123"))
+                .andExpect(status().is3xxRedirection())
+                .andExpect(flash().attributeExists("success"));
+
+        verify(videoService).agregarVideo(argThat(video -> video.getId() == null));
+    }
+
+    @Test
+    void testAgregarVideoDuplicado() throws Exception {
+        Video existente = new Video(1L, "The Weeknd - Blinding Lights", "https://www.youtube.com/watch?v=4NRXx6U8ABQ");
+        when(videoService.agregarVideo(any(Video.class))).thenThrow(new VideoDuplicadoException(existente));
+
+        mockMvc.perform(post("/agregar")
+                .param("nombre", "Blinding Lights")
+                .param("link", "https://youtu.be/4NRXx6U8ABQ"))
+                .andExpect(status().is3xxRedirection())
+                .andExpect(redirectedUrl("/"))
+                .andExpect(flash().attribute("error", "El video ya está en la playlist como \"The Weeknd - Blinding Lights\""));
+    }
+
     @Test
     void testAgregarVideoSinNombre() throws Exception {
         mockMvc.perform(post("/agregar")
@@ -0,0 +1,324 @@
+package com.um.miplaylist.controller;
+
+import com.fasterxml.jackson.core.JsonParseException;
+import com.um.miplaylist.model.Estadisticas;
+import com.um.miplaylist.model.MutacionVideo;
+import com.um.miplaylist.model.Pagina;
+import com.um.miplaylist.model.PuestoRanking;
+import com.um.miplaylist.model.ResultadoMutacion;
+import com.um.miplaylist.model.ResumenImportacion;
+import com.um.miplaylist.model.Video;
+import com.um.miplaylist.service.VideoDuplicadoException;
+import com.um.miplaylist.service.VideoService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Optional;
+
+import static org.hamcrest.Matchers.nullValue;
+import static org.mockito.Mockito.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Tests de la API JSON.
+ */
+@WebMvcTest(VideoApiController.class)
+class VideoApiControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private VideoService videoService;
+
+    @Test
+    void testListarVideosPrimeraPagina() throws Exception {
+        when(videoService.listarPagina(null, 2)).thenReturn(new Pagina(List.of(
+                new Video(1L, "Video 1", "https://youtu.be/abc", 3, true),
+                new Video(2L, "Video 2", "https://youtu.be/def")), 2L));
+
+        mockMvc.perform(get("/api/videos").param("tamano", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.videos.length()").value(2))
+                .andExpect(jsonPath("$.videos[0].nombre").value("Video 1"))
+                .andExpect(jsonPath("$.videos[0].likes").value(3))
+                .andExpect(jsonPath("$.siguiente").value(2));
+    }
+
+    @Test
+    void testListarVideosUltimaPagina() throws Exception {
+        when(videoService.listarPagina(2L, null)).thenReturn(new Pagina(List.of(
+                new Video(3L, "Video 3", "https://youtu.be/ghi")), null));
+
+        mockMvc.perform(get("/api/videos").param("cursor", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.videos[0].id").value(3))
+                .andExpect(jsonPath("$.siguiente").value(nullValue()));
+
+        verify(videoService).listarPagina(2L, null);
+    }
+
+    @Test
+    void testBuscarVideo() throws Exception {
+        when(videoService.buscarPorId(1L)).thenReturn(Optional.of(new Video(1L, "Video 1", "https://youtu.be/abc", 3, true)));
+        when(videoService.buscarPorId(99L)).thenReturn(Optional.empty());
+
+        mockMvc.perform(get("/api/videos/1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.nombre").value("Video 1"));
+        mockMvc.perform(get("/api/videos/99"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void testAgregarVideo() throws Exception {
+        when(videoService.agregarVideo(any(Video.class))).thenAnswer(invocacion -> {
+            Video video = invocacion.getArgument(0);
+            video.setId(7L);
+            return video;
+        });
+
+        mockMvc.perform(post("/api/videos")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"id\": 1, \"nombre\": \"Nuevo\", \"link\": \"https://youtu.be/nuevo123456\"}"))
+                .andExpect(status().isCreated())
+                .andExpect(header().string(HttpHeaders.LOCATION, "http://localhost/api/videos/7"))
+                .andExpect(jsonPath("$.id").value(7))
+                .andExpect(jsonPath("$.nombre").value("Nuevo"));
+    }
+
+    @Test
+    void testAgregarVideoConContextPath() throws Exception {
+        when(videoService.agregarVideo(any(Video.class))).thenAnswer(invocacion -> {
+            Video video = invocacion.getArgument(0);
+            video.setId(7L);
+            return video;
+        });
+
+        mockMvc.perform(post("/miplaylist/api/videos").contextPath("/miplaylist")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"nombre\": \"Nuevo\", \"link\": \"https://youtu.be/nuevo123456\"}"))
+                .andExpect(status().isCreated())
+                .andExpect(header().string(HttpHeaders.LOCATION, "http://localhost/miplaylist/api/videos/7"));
+    }
+
+    @Test
+    void testAgregarVideoInvalido() throws Exception {
+        mockMvc.perform(post("/api/videos")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"nombre\": \"Sin link valido\", \"link\": \"https://example.com\"}"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value("El link debe ser un video válido de YouTube"));
+
+        verify(videoService, never()).agregarVideo(any(Video.class));
+    }
+
+    @Test
+    void testAgregarVideoDuplicado() throws Exception {
+        Video existente = new Video(1L, "Original", "https://youtu.be/abc12345678");
+        when(videoService.agregarVideo(any(Video.class))).thenThrow(new VideoDuplicadoException(existente));
+
+        mockMvc.perform(post("/api/videos")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"nombre\": \"Copia\", \"link\": \"https://youtu.be/abc12345678\"}"))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.error").value("El video ya está en la playlist como \"Original\""));
+    }
+
+    @Test
+    void testEliminarVideo() throws Exception {
+        when(videoService.eliminarVideo(1L)).thenReturn(true);
+        when(videoService.eliminarVideo(99L)).thenReturn(false);
+
+        mockMvc.perform(delete("/api/videos/1"))
+                .andExpect(status().isNoContent());
+        mockMvc.perform(delete("/api/videos/99"))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.error").value("No se encontró el video a eliminar"));
+    }
+
+    @Test
+    void testDarLikeDevuelveElVideoActualizado() throws Exception {
+        when(videoService.incrementarLikes(1L)).thenReturn(true);
+        when(videoService.buscarPorId(1L)).thenReturn(Optional.of(new Video(1L, "Video 1", "https://youtu.be/abc", 4, false)));
+
+        mockMvc.perform(post("/api/videos/1/like"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.likes").value(4));
+    }
+
+    @Test
+    void testToggleFavoritoDevuelveElVideoActualizado() throws Exception {
+        when(videoService.toggleFavorito(1L)).thenReturn(true);
+        when(videoService.buscarPorId(1L)).thenReturn(Optional.of(new Video(1L, "Video 1", "https://youtu.be/abc", 4, true)));
+
+        mockMvc.perform(post("/api/videos/1/favorito"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.favorito").value(true));
+    }
+
+    @Test
+    void testAccionSobreVideoInexistente() throws Exception {
+        when(videoService.incrementarLikes(99L)).thenReturn(false);
+        when(videoService.toggleFavorito(99L)).thenReturn(false);
+
+        mockMvc.perform(post("/api/videos/99/like"))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.error").value("No se encontró el video"));
+        mockMvc.perform(post("/api/videos/99/favorito"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void testListarFavoritos() throws Exception {
+        when(videoService.listarPaginaFavoritos(null, null)).thenReturn(new Pagina(List.of(
+                new Video(4L, "Favorito", "https://youtu.be/fav", 1, true)), null));
+
+        mockMvc.perform(get("/api/favoritos"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.videos[0].id").value(4))
+                .andExpect(jsonPath("$.videos[0].favorito").value(true));
+    }
+
+    @Test
+    void testBuscar() throws Exception {
+        when(videoService.buscarPorNombre("weeknd blin", null)).thenReturn(List.of(
+                new Video(1L, "The Weeknd - Blinding Lights", "https://youtu.be/4NRXx6U8ABQ", 42, true)));
+
+        mockMvc.perform(get("/api/buscar").param("q", "weeknd blin"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id").value(1))
+                .andExpect(jsonPath("$.length()").value(1));
+    }
+
+    @Test
+    void testImportarVideos() throws Exception {
+        when(videoService.importarVideos(any())).thenReturn(new ResumenImportacion(2, 1, 0, List.of()));
+
+        mockMvc.perform(post("/api/videos/importar")
+                        .contentType(MediaType.APPLICATION_NDJSON)
+                        .content("{\"nombre\": \"A\", \"link\": \"https://youtu.be/a\"}\n"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.importados").value(2))
+                .andExpect(jsonPath("$.duplicados").value(1));
+    }
+
+    @Test
+    void testImportarJsonInvalido() throws Exception {
+        when(videoService.importarVideos(any())).thenThrow(new JsonParseException(null, "Fin inesperado"));
+
+        mockMvc.perform(post("/api/videos/importar")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[{"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void testAplicarLote() throws Exception {
+        List<MutacionVideo> lote = List.of(new MutacionVideo(1L, MutacionVideo.Accion.LIKE),
+                new MutacionVideo(2L, MutacionVideo.Accion.ELIMINAR));
+        when(videoService.aplicarLote(lote)).thenReturn(List.of(
+                new ResultadoMutacion(1L, MutacionVideo.Accion.LIKE, true),
+                new ResultadoMutacion(2L, MutacionVideo.Accion.ELIMINAR, false)));
+
+        mockMvc.perform(post("/api/videos/lote")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[{\"id\": 1, \"accion\": \"LIKE\"}, {\"id\": 2, \"accion\": \"ELIMINAR\"}]"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].aplicada").value(true))
+                .andExpect(jsonPath("$[1].accion").value("ELIMINAR"))
+                .andExpect(jsonPath("$[1].aplicada").value(false));
+    }
+
+    @Test
+    void testAplicarLoteDemasiadoGrande() throws Exception {
+        when(videoService.aplicarLote(any())).thenThrow(new IllegalArgumentException("Un lote admite como máximo 10000 mutaciones"));
+
+        mockMvc.perform(post("/api/videos/lote")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[]"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void testAplicarLoteConAccionDesconocida() throws Exception {
+        mockMvc.perform(post("/api/videos/lote")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[{\"id\": 1, \"accion\": \"BORRAR\"}]"))
+                .andExpect(status().isBadRequest());
+        verifyNoInteractions(videoService);
+    }
+
+    @Test
+    void testExportarVideosEnStreaming() throws Exception {
+        doAnswer(invocacion -> {
+            OutputStream salida = invocacion.getArgument(0);
+            salida.write("{\"nombre\":\"A\"}\n".getBytes(StandardCharsets.UTF_8));
+            return null;
+        }).when(videoService).exportarVideos(any(), eq(true));
+
+        MvcResult resultado = mockMvc.perform(get("/api/videos/exportar").param("formato", "ndjson"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(resultado))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andExpect(header().string(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"playlist.ndjson\""))
+                .andExpect(content().string("{\"nombre\":\"A\"}\n"));
+
+        mockMvc.perform(get("/api/videos/exportar").param("formato", "xml"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void testRanking() throws Exception {
+        when(videoService.listarMasGustados(2)).thenReturn(List.of(
+                new PuestoRanking(1, new Video(7L, "Top", "https://youtu.be/top", 99, false)),
+                new PuestoRanking(2, new Video(3L, "Segundo", "https://youtu.be/seg", 50, false))));
+
+        mockMvc.perform(get("/api/ranking").param("n", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].puesto").value(1))
+                .andExpect(jsonPath("$[0].video.id").value(7))
+                .andExpect(jsonPath("$[1].video.likes").value(50));
+    }
+
+    @Test
+    void testPuestoEnRanking() throws Exception {
+        when(videoService.buscarPuestoEnRanking(3L)).thenReturn(
+                Optional.of(new PuestoRanking(2, new Video(3L, "Segundo", "https://youtu.be/seg", 50, false))));
+        when(videoService.buscarPuestoEnRanking(99L)).thenReturn(Optional.empty());
+
+        mockMvc.perform(get("/api/ranking/3"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.puesto").value(2));
+        mockMvc.perform(get("/api/ranking/99"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void testEstadisticas() throws Exception {
+        when(videoService.obtenerEstadisticas()).thenReturn(new Estadisticas(3, 2, 85));
+
+        mockMvc.perform(get("/api/estadisticas"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.videos").value(3))
+                .andExpect(jsonPath("$.favoritos").value(2))
+                .andExpect(jsonPath("$.likes").value(85));
+    }
+}
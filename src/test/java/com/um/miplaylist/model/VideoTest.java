@@ -0,0 +1,161 @@
+package com.um.miplaylist.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests del modelo Video.
+ */
+class VideoTest {
+
+    @Test
+    void testLikesConcurrentesNoSePierden() throws Exception {
+        int hilos = 16;
+        int likesPorHilo = 250_000;
+        Video video = new Video(1L, "Viral", "https://www.youtube.com/watch?v=viral", 7, false);
+
+        ExecutorService executor = Executors.newFixedThreadPool(hilos);
+        CountDownLatch inicio = new CountDownLatch(1);
+        List<Future<?>> tareas = new ArrayList<>();
+        for (int h = 0; h < hilos; h++) {
+            tareas.add(executor.submit(() -> {
+                inicio.await();
+                for (int i = 0; i < likesPorHilo; i++) {
+                    video.incrementarLikes();
+                }
+                return null;
+            }));
+        }
+        inicio.countDown();
+        for (Future<?> tarea : tareas) {
+            tarea.get();
+        }
+        executor.shutdown();
+
+        assertEquals(7L + (long) hilos * likesPorHilo, video.getLikes(),
+                "Ningún like concurrente debería perderse");
+    }
+
+    @Test
+    void testLikesSuperanRangoDeInt() {
+        Video video = new Video(1L, "Viral", "https://youtu.be/viral", Integer.MAX_VALUE, false);
+        video.incrementarLikes();
+
+        assertEquals(Integer.MAX_VALUE + 1L, video.getLikes(), "Los likes no deberían desbordar");
+    }
+
+    @Test
+    void testSetLikesReemplazaElValor() {
+        Video video = new Video(1L, "Video", "https://youtu.be/abc", 10, false);
+        video.incrementarLikes();
+        video.setLikes(3);
+
+        assertEquals(3, video.getLikes());
+    }
+
+    @Test
+    void testExtraerYouTubeIdEquivaleALasExpresionesRegulares() {
+        String[] links = {
+            "https://www.youtube.com/watch?v=JGwWNGJdvx8",
+            "https://www.youtube.com/watch?v=JGwWNGJdvx8&t=30s",
+            "https://youtu.be/kJQP7kiw5Fk?si=abc",
+            "https://www.youtube.com/embed/OPf0YbXqDm0#inicio",
+            "https://youtuXbe/raro",
+            "https://youtu\nbe/sin-salto",
+            "https://www.youtube.com/embed/uno?x=https://youtu.be/dos",
+            "https://youtu.be/uno?next=watch?v=dos",
+            "https://www.youtube.com/watch?v=",
+            "https://www.youtube.com/watch?v=&list=abc",
+            "https://vimeo.com/123456",
+            "youtu.be/",
+            "youtu",
+            ""
+        };
+        for (String link : links) {
+            assertEquals(extraerConExpresionesRegulares(link), new Video(1L, "Video", link).extraerYouTubeId(),
+                    "Link: " + link);
+        }
+        assertNull(new Video(1L, "Video", null).extraerYouTubeId());
+    }
+
+    @Test
+    void testIdYouTubeSeRecalculaAlCambiarElLink() {
+        Video video = new Video(1L, "Video", "https://youtu.be/primero");
+        assertEquals("primero", video.extraerYouTubeId());
+        assertSame(video.extraerYouTubeId(), video.extraerYouTubeId(), "El ID debería quedar cacheado");
+
+        video.setLink("https://www.youtube.com/watch?v=segundo");
+        assertEquals("segundo", video.extraerYouTubeId());
+
+        video.setLink("https://vimeo.com/1");
+        assertNull(video.extraerYouTubeId());
+        assertEquals("https://vimeo.com/1", video.getLink());
+    }
+
+    @Test
+    void testElLinkSeDevuelveTalCualSeAsigno() {
+        for (String link : new String[]{
+                "https://www.youtube.com/watch?v=dQw4w9WgXcQ",
+                "https://youtu.be/dQw4w9WgXcQ",
+                "https://www.youtube.com/embed/dQw4w9WgXcQ",
+                "https://www.youtube.com/watch?v=dQw4w9WgXcQ&t=42s",
+                "https://youtu.be/dQw4w9WgXcQ?si=abc",
+                "http://www.youtube.com/watch?v=dQw4w9WgXcQ",
+                "https://www.youtube.com/embed/watch?v=dQw4w9WgXcQ",
+                "https://youtu.be/",
+                "no es un link",
+                ""}) {
+            Video video = new Video(1L, "Video", link);
+            assertEquals(link, video.getLink(), "Link: " + link);
+            assertEquals(Video.extraerYouTubeId(link), video.extraerYouTubeId(), "Link: " + link);
+        }
+        assertNull(new Video(1L, "Video", null).getLink());
+        assertNull(new Video().getLink());
+    }
+
+    @Test
+    void testIdNuloEIgualdadPorId() {
+        Video sinId = new Video(null, "Video", "https://youtu.be/abc");
+        assertNull(sinId.getId());
+        assertEquals(sinId, new Video());
+        assertEquals(new Video(7L, "Uno", "https://youtu.be/a"), new Video(7L, "Otro", "https://youtu.be/b"));
+        assertEquals(Long.hashCode(7L), new Video(7L, "Uno", "https://youtu.be/a").hashCode());
+        assertNotEquals(new Video(7L, "Uno", "https://youtu.be/a"), sinId);
+
+        sinId.setId(3L);
+        assertEquals(3L, sinId.getId());
+        sinId.setId(null);
+        assertNull(sinId.getId());
+    }
+
+    /**
+     * Implementación anterior, usada como referencia del comportamiento esperado.
+     */
+    private static String extraerConExpresionesRegulares(String link) {
+        if (link == null || link.isEmpty()) {
+            return null;
+        }
+        String[] patterns = {
+            "(?<=watch\\?v=)[^#\\&\\?]*",
+            "(?<=youtu.be/)[^#\\&\\?]*",
+            "(?<=embed/)[^#\\&\\?]*"
+        };
+        for (String pattern : patterns) {
+            Matcher matcher = Pattern.compile(pattern).matcher(link);
+            if (matcher.find()) {
+                return matcher.group();
+            }
+        }
+        return null;
+    }
+}
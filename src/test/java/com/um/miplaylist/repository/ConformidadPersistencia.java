@@ -0,0 +1,112 @@
+package com.um.miplaylist.repository;
+
+import com.um.miplaylist.model.Video;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests de conformidad que debe pasar toda implementación de {@link PersistenciaVideos}: cada una
+ * tiene su clase de tests que extiende ésta e indica cómo abrirla.
+ */
+abstract class ConformidadPersistencia {
+
+    @TempDir
+    Path directorio;
+
+    protected PersistenciaVideos persistencia;
+
+    /**
+     * Abre la persistencia guardada en el directorio; abrirla de nuevo debe ver lo guardado antes.
+     */
+    protected abstract PersistenciaVideos abrir(Path directorio);
+
+    @BeforeEach
+    void abrirPersistencia() {
+        persistencia = abrir(directorio);
+    }
+
+    @AfterEach
+    void cerrarPersistencia() throws Exception {
+        persistencia.cerrar();
+    }
+
+    @Test
+    void testSinDatosGuardados() throws Exception {
+        assertFalse(persistencia.existeArchivo());
+        assertTrue(cargar(persistencia).isEmpty());
+        assertTrue(persistencia.leerJournal().isEmpty());
+    }
+
+    @Test
+    void testGuardarYCargarConservaOrdenYCampos() throws Exception {
+        List<Video> videos = List.of(
+                new Video(30L, "Canción 🎵", "https://youtu.be/c", 7, true),
+                new Video(10L, "Sin link", null),
+                new Video(20L, "Otro formato", "https://www.youtube.com/watch?v=b&t=5s", 0, false));
+        persistencia.guardar(videos);
+        persistencia.cerrar();
+
+        persistencia = abrir(directorio);
+        assertTrue(persistencia.existeArchivo());
+        assertEquals(textos(videos), textos(cargar(persistencia)));
+    }
+
+    @Test
+    void testGuardarReemplazaLaPlaylistAnterior() throws Exception {
+        persistencia.guardar(List.of(new Video(1L, "Uno", "https://youtu.be/uno")));
+        persistencia.guardar(List.of(new Video(2L, "Dos", "https://youtu.be/dos")));
+
+        assertEquals(List.of(2L), cargar(persistencia).stream().map(Video::getId).toList());
+    }
+
+    @Test
+    void testOperacionesRegistradasSobreviveAReabrir() throws Exception {
+        persistencia.compactar(List.of(new Video(1L, "Uno", "https://youtu.be/uno")));
+        persistencia.registrar(Operacion.agregar(new Video(2L, "Dos", "https://youtu.be/dos")));
+        persistencia.registrar(Operacion.like(1L));
+        persistencia.registrar(Operacion.toggleFavorito(2L));
+        persistencia.registrar(Operacion.eliminar(1L));
+        persistencia.sincronizarJournal();
+        assertEquals(4, persistencia.getRegistrosJournal());
+        persistencia.cerrar();
+
+        persistencia = abrir(directorio);
+        List<Operacion> operaciones = persistencia.leerJournal();
+        assertEquals(List.of(Operacion.Tipo.ADD, Operacion.Tipo.LIKE, Operacion.Tipo.TOGGLE_FAV, Operacion.Tipo.DELETE),
+                operaciones.stream().map(Operacion::tipo).toList());
+        assertEquals("Dos", operaciones.get(0).video().getNombre());
+        assertEquals(List.of(2L, 1L, 2L, 1L), operaciones.stream().map(Operacion::id).toList());
+    }
+
+    @Test
+    void testCompactarDescartaLasOperacionesRegistradas() throws Exception {
+        persistencia.compactar(List.of(new Video(1L, "Uno", "https://youtu.be/uno")));
+        persistencia.registrar(Operacion.like(1L));
+        persistencia.sincronizarJournal();
+        persistencia.compactar(List.of(new Video(1L, "Uno", "https://youtu.be/uno", 1, false)));
+        assertEquals(0, persistencia.getRegistrosJournal());
+        persistencia.cerrar();
+
+        persistencia = abrir(directorio);
+        assertTrue(persistencia.leerJournal().isEmpty());
+        assertEquals(1, cargar(persistencia).get(0).getLikes());
+    }
+
+    private static List<Video> cargar(PersistenciaVideos persistencia) throws Exception {
+        List<Video> videos = new ArrayList<>();
+        persistencia.cargar(videos::add);
+        return videos;
+    }
+
+    private static List<String> textos(List<Video> videos) {
+        return videos.stream().map(Video::toString).toList();
+    }
+}
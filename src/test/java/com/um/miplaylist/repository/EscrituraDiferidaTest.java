@@ -0,0 +1,74 @@
+package com.um.miplaylist.repository;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests de la escritura diferida. El intervalo periódico es largo: los volcados que se ven
+ * son los adelantados por el umbral de cambios.
+ */
+class EscrituraDiferidaTest {
+
+    private static final Duration SIN_VOLCADO_PERIODICO = Duration.ofHours(1);
+
+    @Test
+    void testUmbralAdelantaElVolcado() throws Exception {
+        AtomicInteger volcados = new AtomicInteger();
+        try (EscrituraDiferida escritura = new EscrituraDiferida(volcados::incrementAndGet, SIN_VOLCADO_PERIODICO, 3)) {
+            escritura.marcarCambio();
+            escritura.marcarCambio();
+            assertEquals(0, volcados.get());
+
+            escritura.marcarCambio();
+            esperar(() -> escritura.getCambiosPendientes() == 0);
+            assertEquals(1, volcados.get());
+        }
+    }
+
+    @Test
+    void testVolcadoFallidoSeReintentaConElSiguienteCambio() throws Exception {
+        AtomicBoolean fallar = new AtomicBoolean(true);
+        AtomicInteger intentos = new AtomicInteger();
+        try (EscrituraDiferida escritura = new EscrituraDiferida(() -> {
+            intentos.incrementAndGet();
+            if (fallar.get()) {
+                throw new IOException("Disco lleno");
+            }
+        }, SIN_VOLCADO_PERIODICO, 2)) {
+            escritura.marcarCambio();
+            escritura.marcarCambio();
+            esperar(() -> intentos.get() == 1);
+            assertEquals(2, escritura.getCambiosPendientes(), "Los cambios siguen pendientes tras el fallo");
+
+            fallar.set(false);
+            escritura.marcarCambio();
+            esperar(() -> escritura.getCambiosPendientes() == 0);
+        }
+    }
+
+    @Test
+    void testMarcarCambioDespuesDeCerrarNoFalla() throws Exception {
+        AtomicInteger volcados = new AtomicInteger();
+        EscrituraDiferida escritura = new EscrituraDiferida(volcados::incrementAndGet, SIN_VOLCADO_PERIODICO, 1);
+        escritura.close();
+
+        assertDoesNotThrow(escritura::marcarCambio);
+        assertEquals(1, escritura.getCambiosPendientes());
+        assertEquals(0, volcados.get());
+    }
+
+    private static void esperar(BooleanSupplier condicion) throws InterruptedException {
+        long limite = System.nanoTime() + 5_000_000_000L;
+        while (!condicion.getAsBoolean()) {
+            assertTrue(System.nanoTime() < limite, "La condición no se cumplió a tiempo");
+            Thread.sleep(5);
+        }
+    }
+}
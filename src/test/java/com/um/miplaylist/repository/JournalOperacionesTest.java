@@ -0,0 +1,158 @@
+package com.um.miplaylist.repository;
+
+import com.um.miplaylist.model.Video;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests del journal de operaciones.
+ */
+class JournalOperacionesTest {
+
+    @TempDir
+    Path directorio;
+
+    @Test
+    void testRegistrarYLeer() throws Exception {
+        Path ruta = directorio.resolve("playlist.json.journal");
+        try (JournalOperaciones journal = new JournalOperaciones(ruta)) {
+            journal.reiniciar(123L);
+            journal.registrar(Operacion.agregar(new Video(7L, "Nuevo", "https://youtu.be/abc", 2, true)));
+            journal.registrar(Operacion.like(7L));
+            journal.registrar(Operacion.toggleFavorito(7L));
+            journal.registrar(Operacion.eliminar(7L));
+            journal.sincronizar();
+            assertEquals(4, journal.getRegistros());
+        }
+
+        JournalOperaciones.Lectura lectura = new JournalOperaciones(ruta).leer();
+        assertNotNull(lectura);
+        assertEquals(123L, lectura.checksumSnapshot());
+        assertEquals(List.of(Operacion.Tipo.ADD, Operacion.Tipo.LIKE, Operacion.Tipo.TOGGLE_FAV, Operacion.Tipo.DELETE),
+                lectura.operaciones().stream().map(Operacion::tipo).toList());
+        Video agregado = lectura.operaciones().get(0).video();
+        assertEquals("Nuevo", agregado.getNombre());
+        assertEquals(2, agregado.getLikes());
+    }
+
+    @Test
+    void testRegistroFinalTruncadoSeDescarta() throws Exception {
+        Path ruta = directorio.resolve("playlist.json.journal");
+        try (JournalOperaciones journal = new JournalOperaciones(ruta)) {
+            journal.reiniciar(1L);
+            journal.registrar(Operacion.like(1L));
+            journal.registrar(Operacion.like(2L));
+        }
+        // Simular una caída a mitad de escritura del último registro
+        Files.write(ruta, "{\"tipo\":\"LIKE\",\"id\":3".getBytes(StandardCharsets.UTF_8), StandardOpenOption.APPEND);
+        long tamanoConBasura = Files.size(ruta);
+
+        JournalOperaciones recuperado = new JournalOperaciones(ruta);
+        JournalOperaciones.Lectura lectura = recuperado.leer();
+
+        assertEquals(List.of(1L, 2L), lectura.operaciones().stream().map(Operacion::id).toList());
+        assertTrue(Files.size(ruta) < tamanoConBasura, "El registro truncado debería recortarse del archivo");
+    }
+
+    @Test
+    void testUltimoRegistroIlegibleSeDescarta() throws Exception {
+        Path ruta = directorio.resolve("playlist.json.journal");
+        try (JournalOperaciones journal = new JournalOperaciones(ruta)) {
+            journal.reiniciar(1L);
+            journal.registrar(Operacion.like(1L));
+        }
+        Files.write(ruta, "{\"tipo\":\"LI\u0000\n".getBytes(StandardCharsets.UTF_8), StandardOpenOption.APPEND);
+
+        JournalOperaciones.Lectura lectura = new JournalOperaciones(ruta).leer();
+
+        assertEquals(List.of(1L), lectura.operaciones().stream().map(Operacion::id).toList());
+        assertEquals(List.of(1L), new JournalOperaciones(ruta).leer().operaciones().stream().map(Operacion::id).toList());
+    }
+
+    @Test
+    void testRegistroIlegibleEntreOtrosApartaElJournal() throws Exception {
+        Path ruta = directorio.resolve("playlist.json.journal");
+        try (JournalOperaciones journal = new JournalOperaciones(ruta)) {
+            journal.reiniciar(1L);
+            journal.registrar(Operacion.like(1L));
+            journal.sincronizar();
+        }
+        Files.write(ruta, "basura\n{\"tipo\":\"LIKE\",\"id\":2}\n".getBytes(StandardCharsets.UTF_8), StandardOpenOption.APPEND);
+        byte[] original = Files.readAllBytes(ruta);
+
+        JournalDanadoException error = assertThrows(JournalDanadoException.class, () -> new JournalOperaciones(ruta).leer());
+
+        assertFalse(Files.exists(ruta));
+        assertArrayEquals(original, Files.readAllBytes(error.getApartado()), "Las operaciones posteriores no deberían perderse");
+        assertTrue(error.getApartado().getFileName().toString().startsWith("playlist.json.journal.corrupto-"));
+    }
+
+    @Test
+    void testRegistrosSeEscribenJuntosAlSincronizar() throws Exception {
+        Path ruta = directorio.resolve("playlist.json.journal");
+        try (JournalOperaciones journal = new JournalOperaciones(ruta)) {
+            journal.reiniciar(1L);
+            long soloCabecera = Files.size(ruta);
+            for (long id = 1; id <= 100; id++) {
+                journal.registrar(Operacion.like(id));
+            }
+            assertEquals(soloCabecera, Files.size(ruta), "Los registros deberían esperar al sincronizar");
+
+            journal.sincronizar();
+            assertEquals(100, new JournalOperaciones(ruta).leer().operaciones().size());
+        }
+    }
+
+    @Test
+    void testJournalInexistente() throws Exception {
+        assertNull(new JournalOperaciones(directorio.resolve("no-existe.journal")).leer());
+    }
+
+    @Test
+    void testRegistrarSinAbrirFalla() {
+        JournalOperaciones journal = new JournalOperaciones(directorio.resolve("cerrado.journal"));
+        assertThrows(java.io.IOException.class, () -> journal.registrar(Operacion.like(1L)));
+    }
+
+    @Test
+    void testRegistrosConcurrentesConSincronizacionAgrupada() throws Exception {
+        Path ruta = directorio.resolve("concurrente.journal");
+        int hilos = 8;
+        int registrosPorHilo = 200;
+        try (JournalOperaciones journal = new JournalOperaciones(ruta)) {
+            journal.reiniciar(0L);
+            ExecutorService executor = Executors.newFixedThreadPool(hilos);
+            List<Future<?>> tareas = new ArrayList<>();
+            for (int h = 0; h < hilos; h++) {
+                long base = (long) h * registrosPorHilo;
+                tareas.add(executor.submit(() -> {
+                    for (long i = base; i < base + registrosPorHilo; i++) {
+                        journal.registrar(Operacion.like(i));
+                        journal.sincronizar();
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> tarea : tareas) {
+                tarea.get();
+            }
+            executor.shutdown();
+        }
+
+        JournalOperaciones.Lectura lectura = new JournalOperaciones(ruta).leer();
+        assertEquals(hilos * registrosPorHilo, lectura.operaciones().size());
+        assertEquals(hilos * registrosPorHilo, lectura.operaciones().stream().mapToLong(Operacion::id).distinct().count());
+    }
+}
@@ -0,0 +1,286 @@
+package com.um.miplaylist.repository;
+
+import com.um.miplaylist.config.PlaylistProperties.FormatoArchivo;
+import com.um.miplaylist.model.Video;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests del repositorio de videos sobre archivos temporales.
+ */
+class VideoRepositoryTest {
+
+    @TempDir
+    Path directorio;
+
+    private VideoRepository repository;
+
+    @BeforeEach
+    void setUp() {
+        repository = new VideoRepository(directorio.resolve("playlist.json").toString());
+    }
+
+    @Test
+    void testGuardarYCargar() throws Exception {
+        repository.guardar(List.of(
+                new Video(1L, "Uno", "https://youtu.be/uno", 5, true),
+                new Video(2L, "Dos", "https://youtu.be/dos")));
+
+        List<Video> cargados = repository.cargar();
+
+        assertEquals(2, cargados.size());
+        assertEquals("Uno", cargados.get(0).getNombre());
+        assertEquals(5, cargados.get(0).getLikes());
+        assertTrue(cargados.get(0).isFavorito());
+    }
+
+    @Test
+    void testJournalPosteriorAlSnapshotSeReaplica() throws Exception {
+        repository.compactar(List.of(new Video(1L, "Uno", "https://youtu.be/uno")));
+        repository.registrar(Operacion.like(1L));
+        repository.sincronizarJournal();
+        repository.cerrar();
+
+        VideoRepository reabierto = new VideoRepository(directorio.resolve("playlist.json").toString());
+        List<Operacion> operaciones = reabierto.leerJournal();
+
+        assertEquals(1, operaciones.size());
+        assertEquals(Operacion.Tipo.LIKE, operaciones.get(0).tipo());
+    }
+
+    @Test
+    void testJournalYaIncorporadoAlSnapshotSeDescarta() throws Exception {
+        repository.compactar(List.of(new Video(1L, "Uno", "https://youtu.be/uno")));
+        repository.registrar(Operacion.like(1L));
+        repository.sincronizarJournal();
+        // Caída simulada: el snapshot nuevo (que ya incluye el like) se escribió,
+        // pero el journal no llegó a reiniciarse
+        repository.guardar(List.of(new Video(1L, "Uno", "https://youtu.be/uno", 1, false)));
+        repository.cerrar();
+
+        VideoRepository reabierto = new VideoRepository(directorio.resolve("playlist.json").toString());
+
+        assertTrue(reabierto.leerJournal().isEmpty(), "El like no debería aplicarse dos veces");
+        assertEquals(1, reabierto.cargar().get(0).getLikes());
+    }
+
+    @Test
+    void testGuardarEsAtomicoYConservaGeneracionAnterior() throws Exception {
+        Path archivo = directorio.resolve("playlist.json");
+        repository.guardar(List.of(new Video(1L, "Primera", "https://youtu.be/uno")));
+        repository.guardar(List.of(new Video(1L, "Segunda", "https://youtu.be/uno")));
+
+        assertFalse(Files.exists(directorio.resolve("playlist.json.tmp")), "No deberían quedar temporales");
+        assertTrue(Files.readString(archivo).contains("#CRC32:"), "El snapshot debería tener pie de checksum");
+        assertTrue(Files.readString(directorio.resolve("playlist.json.prev")).contains("Primera"));
+        assertEquals("Segunda", repository.cargar().get(0).getNombre());
+    }
+
+    @Test
+    void testArchivoDanadoRecurreALaGeneracionAnterior() throws Exception {
+        Path archivo = directorio.resolve("playlist.json");
+        repository.guardar(List.of(new Video(1L, "Primera", "https://youtu.be/uno")));
+        repository.guardar(List.of(new Video(1L, "Segunda", "https://youtu.be/uno")));
+
+        // Dañar un byte del cuerpo sin romper la sintaxis JSON: sólo el checksum lo detecta
+        String contenido = Files.readString(archivo);
+        Files.writeString(archivo, contenido.replace("Segunda", "Segundo"));
+
+        List<Video> cargados = repository.cargar();
+
+        assertEquals("Primera", cargados.get(0).getNombre());
+        try (Stream<Path> archivos = Files.list(directorio)) {
+            assertTrue(archivos.anyMatch(p -> p.getFileName().toString().startsWith("playlist.json.corrupto-")),
+                    "El archivo dañado debería conservarse aparte");
+        }
+    }
+
+    @Test
+    void testArchivoTruncadoSinGeneracionAnteriorFalla() throws Exception {
+        Files.writeString(directorio.resolve("playlist.json"), "[ { \"id\" : 1, \"nombre\" : \"Cor");
+
+        assertThrows(IOException.class, () -> repository.cargar());
+    }
+
+    @Test
+    void testArchivoSinPieDeChecksumSeAcepta() throws Exception {
+        Files.writeString(directorio.resolve("playlist.json"),
+                "[{\"id\":3,\"nombre\":\"Viejo\",\"link\":\"https://youtu.be/viejo\",\"likes\":4,\"favorito\":false}]");
+
+        List<Video> cargados = repository.cargar();
+
+        assertEquals(1, cargados.size());
+        assertEquals("Viejo", cargados.get(0).getNombre());
+    }
+
+    @Test
+    void testStreamingConMuchosVideos() throws Exception {
+        List<Video> originales = new ArrayList<>();
+        for (long i = 1; i <= 20_000; i++) {
+            originales.add(new Video(i, "Canción ñandú \"" + i + "\" 🎵", "https://youtu.be/v" + i, i * 3, i % 7 == 0));
+        }
+        repository.guardar(originales);
+
+        List<Video> cargados = new ArrayList<>();
+        repository.cargar(cargados::add);
+
+        assertEquals(originales.size(), cargados.size());
+        for (int i = 0; i < originales.size(); i++) {
+            assertEquals(originales.get(i).getId(), cargados.get(i).getId());
+            assertEquals(originales.get(i).getNombre(), cargados.get(i).getNombre());
+            assertEquals(originales.get(i).getLikes(), cargados.get(i).getLikes());
+            assertEquals(originales.get(i).isFavorito(), cargados.get(i).isFavorito());
+        }
+        assertFalse(Files.readString(directorio.resolve("playlist.json")).contains("\n  "),
+                "Por defecto la salida no debería estar indentada");
+    }
+
+    @Test
+    void testFormatoIndentadoYCamposDesconocidos() throws Exception {
+        VideoRepository indentado = new VideoRepository(directorio.resolve("indentado.json").toString(), true);
+        indentado.guardar(List.of(new Video(1L, "Uno", "https://youtu.be/uno", 2, true)));
+        assertTrue(Files.readString(directorio.resolve("indentado.json")).contains("\n  "));
+        assertEquals("Uno", indentado.cargar().get(0).getNombre());
+
+        // Archivo del formato anterior: indentado, sin pie y con un campo que ya no existe
+        Files.writeString(directorio.resolve("playlist.json"), """
+                [ {
+                  "id" : 9,
+                  "nombre" : "Antiguo",
+                  "link" : "https://youtu.be/antiguo",
+                  "likes" : 12,
+                  "favorito" : true,
+                  "extra" : { "anidado" : [ 1, 2 ] }
+                } ]""");
+        Video antiguo = repository.cargar().get(0);
+        assertEquals(9L, antiguo.getId());
+        assertEquals(12, antiguo.getLikes());
+        assertTrue(antiguo.isFavorito());
+    }
+
+    @Test
+    void testFormatoBinarioGuardarYCargar() throws Exception {
+        Path archivo = directorio.resolve("playlist.bin");
+        VideoRepository binario = new VideoRepository(archivo.toString(), FormatoArchivo.BINARIO, false);
+        List<Video> originales = new ArrayList<>();
+        for (long i = 1; i <= 21; i++) {
+            originales.add(new Video(i, "Canción ñandú " + i + " 🎵", i == 5 ? null : "https://youtu.be/v" + i,
+                    i * 1_000_000_007L, i % 3 == 0));
+        }
+        originales.add(new Video());
+        binario.guardar(originales);
+
+        byte[] inicio = Arrays.copyOf(Files.readAllBytes(archivo), 4);
+        assertArrayEquals(SnapshotBinario.MAGIA, inicio);
+
+        List<Video> cargados = binario.cargar();
+        assertEquals(originales.size(), cargados.size());
+        for (int i = 0; i < originales.size(); i++) {
+            Video original = originales.get(i);
+            Video cargado = cargados.get(i);
+            assertEquals(original.getId(), cargado.getId());
+            assertEquals(original.getNombre(), cargado.getNombre());
+            assertEquals(original.getLink(), cargado.getLink());
+            assertEquals(original.getLikes(), cargado.getLikes());
+            assertEquals(original.isFavorito(), cargado.isFavorito());
+        }
+    }
+
+    @Test
+    void testBinarioDanadoRecurreALaGeneracionAnterior() throws Exception {
+        Path archivo = directorio.resolve("playlist.bin");
+        VideoRepository binario = new VideoRepository(archivo.toString(), FormatoArchivo.BINARIO, false);
+        binario.guardar(List.of(new Video(1L, "Primera", "https://youtu.be/uno")));
+        binario.guardar(List.of(new Video(1L, "Segunda", "https://youtu.be/uno")));
+
+        byte[] contenido = Files.readAllBytes(archivo);
+        contenido[contenido.length - 1] ^= 1;
+        Files.write(archivo, contenido);
+
+        assertEquals("Primera", binario.cargar().get(0).getNombre());
+    }
+
+    @Test
+    void testCambioDeFormatoDetectaElArchivoExistente() throws Exception {
+        Path archivo = directorio.resolve("playlist.json");
+        repository.guardar(List.of(new Video(1L, "Uno", "https://youtu.be/uno", 3, true)));
+
+        VideoRepository binario = new VideoRepository(archivo.toString(), FormatoArchivo.BINARIO, false);
+        List<Video> cargados = binario.cargar();
+        assertEquals("Uno", cargados.get(0).getNombre());
+
+        binario.guardar(cargados);
+        assertArrayEquals(SnapshotBinario.MAGIA, Arrays.copyOf(Files.readAllBytes(archivo), 4));
+        // Un repositorio configurado en JSON también lee el binario
+        assertEquals(3, repository.cargar().get(0).getLikes());
+    }
+
+    @Test
+    void testJournalSobreSnapshotBinario() throws Exception {
+        Path archivo = directorio.resolve("playlist.bin");
+        VideoRepository binario = new VideoRepository(archivo.toString(), FormatoArchivo.BINARIO, false);
+        binario.compactar(List.of(new Video(1L, "Uno", "https://youtu.be/uno")));
+        binario.registrar(Operacion.like(1L));
+        binario.sincronizarJournal();
+        binario.cerrar();
+
+        VideoRepository reabierto = new VideoRepository(archivo.toString(), FormatoArchivo.BINARIO, false);
+        assertEquals(1, reabierto.leerJournal().size());
+    }
+
+    @Test
+    void testConversorSnapshot() throws Exception {
+        repository.guardar(List.of(new Video(1L, "Uno", "https://youtu.be/uno", 7, true),
+                new Video(2L, "Dos", "https://youtu.be/dos")));
+        Path destino = directorio.resolve("playlist.bin");
+
+        int convertidos = ConversorSnapshot.convertir(directorio.resolve("playlist.json"), destino, FormatoArchivo.BINARIO);
+
+        assertEquals(2, convertidos);
+        List<Video> cargados = new VideoRepository(destino.toString()).cargar();
+        assertEquals(List.of(1L, 2L), cargados.stream().map(Video::getId).toList());
+        assertEquals(7, cargados.get(0).getLikes());
+    }
+
+    @Test
+    void testConversorRechazaJournalPendiente() throws Exception {
+        repository.compactar(List.of(new Video(1L, "Uno", "https://youtu.be/uno")));
+        repository.registrar(Operacion.like(1L));
+        repository.sincronizarJournal();
+        repository.cerrar();
+
+        assertThrows(IOException.class, () -> ConversorSnapshot.convertir(directorio.resolve("playlist.json"),
+                directorio.resolve("playlist.bin"), FormatoArchivo.BINARIO));
+        assertFalse(Files.exists(directorio.resolve("playlist.bin")));
+    }
+
+    @Nested
+    class ConformidadJson extends ConformidadPersistencia {
+
+        @Override
+        protected PersistenciaVideos abrir(Path directorio) {
+            return new VideoRepository(directorio.resolve("playlist.json").toString(), FormatoArchivo.JSON, false);
+        }
+    }
+
+    @Nested
+    class ConformidadBinario extends ConformidadPersistencia {
+
+        @Override
+        protected PersistenciaVideos abrir(Path directorio) {
+            return new VideoRepository(directorio.resolve("playlist.json").toString(), FormatoArchivo.BINARIO, false);
+        }
+    }
+}
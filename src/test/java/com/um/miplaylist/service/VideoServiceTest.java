@@ -1,18 +1,40 @@
 package com.um.miplaylist.service;
 
+import com.um.miplaylist.config.PlaylistProperties;
+import com.um.miplaylist.model.Estadisticas;
+import com.um.miplaylist.model.MutacionVideo;
+import com.um.miplaylist.model.Pagina;
+import com.um.miplaylist.model.PuestoRanking;
+import com.um.miplaylist.model.ResultadoMutacion;
+import com.um.miplaylist.model.ResumenImportacion;
 import com.um.miplaylist.model.Video;
 import com.um.miplaylist.repository.VideoRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.Mockito.*;
 
@@ -51,7 +73,11 @@ class VideoServiceTest {
 
         // Configurar mock para simular carga de datos
         when(videoRepository.existeArchivo()).thenReturn(true);
-        when(videoRepository.cargar()).thenReturn(datosGuardados);
+        doAnswer(invocacion -> {
+            Consumer<Video> destino = invocacion.getArgument(0);
+            datosGuardados.forEach(destino);
+            return null;
+        }).when(videoRepository).cargar(any());
         doNothing().when(videoRepository).guardar(anyList());
 
         // Crear nuevo servicio (que cargará los datos)
@@ -60,7 +86,116 @@ class VideoServiceTest {
         List<Video> videos = servicioConDatos.listarTodos();
         assertEquals(1, videos.size());
         assertEquals("Video Guardado", videos.get(0).getNombre());
-        verify(videoRepository, times(1)).cargar();
+        verify(videoRepository, times(1)).cargar(any());
+    }
+
+    @Test
+    void testCargarDatosFusionaDuplicados() throws IOException {
+        List<Video> datosGuardados = List.of(
+                new Video(1L, "Original", "https://www.youtube.com/watch?v=4NRXx6U8ABQ", 10, false),
+                new Video(2L, "Otro", "https://youtu.be/JGwWNGJdvx8", 3, false),
+                new Video(3L, "Copia corta", "https://youtu.be/4NRXx6U8ABQ?t=42", 5, true),
+                new Video(4L, "Copia embebida", "https://www.youtube.com/embed/4NRXx6U8ABQ", 1, false));
+        when(videoRepository.existeArchivo()).thenReturn(true);
+        doAnswer(invocacion -> {
+            Consumer<Video> destino = invocacion.getArgument(0);
+            datosGuardados.forEach(destino);
+            return null;
+        }).when(videoRepository).cargar(any());
+        clearInvocations(videoRepository);
+
+        VideoService servicioConDatos = new VideoService(videoRepository);
+
+        List<Video> videos = servicioConDatos.listarTodos();
+        assertEquals(List.of(1L, 2L), videos.stream().map(Video::getId).toList());
+        assertEquals(16, videos.get(0).getLikes(), "Los likes de los duplicados se suman");
+        assertTrue(videos.get(0).isFavorito(), "Queda favorito si algún duplicado lo era");
+        assertEquals(19, servicioConDatos.obtenerEstadisticas().likes());
+        verify(videoRepository).guardar(anyList());
+    }
+
+    @Test
+    void testAgregarVideoDuplicadoSeRechaza() {
+        int cantidadInicial = videoService.contarVideos();
+        Video weeknd = videoService.listarTodos().get(0);
+
+        VideoDuplicadoException e = assertThrows(VideoDuplicadoException.class,
+                () -> videoService.agregarVideo(new Video(null, "Otra vez", "https://youtu.be/4NRXx6U8ABQ")));
+        assertEquals(weeknd, e.getExistente());
+        assertThrows(VideoDuplicadoException.class,
+                () -> videoService.agregarVideo(new Video(null, "Embebido", "https://www.youtube.com/embed/4NRXx6U8ABQ?autoplay=1")));
+        assertEquals(cantidadInicial, videoService.contarVideos());
+
+        // Reemplazar el mismo video no es un duplicado, y al eliminarlo el link queda libre
+        videoService.agregarVideo(new Video(weeknd.getId(), "Blinding Lights", "https://youtu.be/4NRXx6U8ABQ", 42, true));
+        videoService.eliminarVideo(weeknd.getId());
+        Video nuevo = videoService.agregarVideo(new Video(null, "De nuevo", "https://youtu.be/4NRXx6U8ABQ"));
+        assertTrue(videoService.buscarPorId(nuevo.getId()).isPresent());
+    }
+
+    @Test
+    void testImportarVideosConUnSoloVolcado() throws IOException {
+        PlaylistProperties propiedades = new PlaylistProperties();
+        propiedades.getPersistencia().setModo(PlaylistProperties.ModoPersistencia.SINCRONO);
+        VideoService servicio = new VideoService(videoRepository, propiedades);
+        clearInvocations(videoRepository);
+
+        StringBuilder ndjson = new StringBuilder();
+        int cantidad = VideoService.LOTE_IMPORTACION * 2 + 500;
+        for (int i = 0; i < cantidad; i++) {
+            ndjson.append("{\"id\": 1, \"nombre\": \"Importado ").append(i)
+                    .append("\", \"link\": \"https://youtu.be/imp").append(i).append("\", \"likes\": 2}\n");
+        }
+        ndjson.append("{\"nombre\": \"Sin link\"}\n");
+        ndjson.append("{\"nombre\": \"Repetido\", \"link\": \"https://www.youtube.com/embed/imp0\"}\n");
+        ndjson.append("{\"nombre\": \"Ya estaba\", \"link\": \"https://youtu.be/4NRXx6U8ABQ\"}\n");
+
+        ResumenImportacion resumen = servicio.importarVideos(entrada(ndjson.toString()));
+
+        assertEquals(new ResumenImportacion(cantidad, 2, 1,
+                List.of("Video " + (cantidad + 1) + ": el link no es un video válido de YouTube")), resumen);
+        assertEquals(3 + cantidad, servicio.contarVideos());
+        assertEquals("Importado 0", servicio.listarTodos().get(3).getNombre());
+        assertNotEquals(1L, servicio.listarTodos().get(3).getId(), "Los IDs de la entrada se ignoran");
+        verify(videoRepository, times(1)).guardar(anyList());
+    }
+
+    @Test
+    void testImportarArregloYExportarIdaYVuelta() throws IOException {
+        String arreglo = "[{\"nombre\": \"Canción\", \"link\": \"https://youtu.be/abc12345678\", \"favorito\": true},"
+                + " {\"nombre\": \" \", \"link\": \"https://youtu.be/xyz\"}]";
+        assertEquals(new ResumenImportacion(1, 0, 1, List.of("Video 2: falta el nombre")),
+                videoService.importarVideos(entrada(arreglo)));
+
+        for (boolean ndjson : new boolean[] {false, true}) {
+            ByteArrayOutputStream exportado = new ByteArrayOutputStream();
+            videoService.exportarVideos(exportado, ndjson);
+
+            VideoService otro = new VideoService(mock(VideoRepository.class));
+            otro.listarTodos().forEach(v -> otro.eliminarVideo(v.getId()));
+            assertEquals(new ResumenImportacion(4, 0, 0, List.of()),
+                    otro.importarVideos(new ByteArrayInputStream(exportado.toByteArray())));
+            assertEquals(videoService.listarTodos().stream().map(Video::getNombre).toList(),
+                    otro.listarTodos().stream().map(Video::getNombre).toList());
+            assertTrue(otro.listarTodos().get(3).isFavorito());
+            assertEquals(videoService.obtenerEstadisticas(), otro.obtenerEstadisticas());
+        }
+    }
+
+    @Test
+    void testImportarEntradaMalFormadaConservaLoLeido() throws IOException {
+        String ndjson = "{\"nombre\": \"Bien\", \"link\": \"https://youtu.be/bien1234567\"}\n{\"nombre\": ";
+        clearInvocations(videoRepository);
+
+        assertThrows(IOException.class, () -> videoService.importarVideos(entrada(ndjson)));
+        assertThrows(IOException.class, () -> videoService.importarVideos(entrada("42")));
+
+        assertEquals(4, videoService.contarVideos());
+        verify(videoRepository, times(1)).guardar(anyList());
+    }
+
+    private static ByteArrayInputStream entrada(String contenido) {
+        return new ByteArrayInputStream(contenido.getBytes(StandardCharsets.UTF_8));
     }
 
     @Test
@@ -119,6 +254,88 @@ class VideoServiceTest {
         assertEquals(3, videos.size(), "Debería tener 3 videos iniciales");
     }
 
+    @Test
+    void testListarPaginaRecorreTodosLosVideosPorCursor() {
+        for (int i = 0; i < 50; i++) {
+            videoService.agregarVideo(new Video(null, "Video " + i, "https://youtu.be/v" + i));
+        }
+
+        List<Long> recorridos = new ArrayList<>();
+        Long cursor = null;
+        do {
+            Pagina pagina = videoService.listarPagina(cursor, 10);
+            assertTrue(pagina.videos().size() <= 10);
+            pagina.videos().forEach(v -> recorridos.add(v.getId()));
+            if (cursor == null) {
+                // Eliminar un video ya listado no corre los cursores de las páginas siguientes
+                videoService.eliminarVideo(recorridos.get(0));
+            }
+            cursor = pagina.siguiente();
+        } while (cursor != null);
+
+        assertEquals(53, recorridos.size());
+        assertEquals(53, recorridos.stream().distinct().count(), "Ningún video debería repetirse");
+    }
+
+    @Test
+    void testListarPaginaLimitaElTamano() {
+        assertEquals(3, videoService.listarPagina(null, null).videos().size());
+        assertEquals(1, videoService.listarPagina(null, 0).videos().size());
+        assertTrue(videoService.listarPagina(null, 0).hayMas());
+        assertFalse(videoService.listarPagina(null, 1000).hayMas());
+    }
+
+    @Test
+    void testEstadisticasSeMantienenEnCadaOperacion() {
+        // Ejemplos: 3 videos, 2 favoritos, 42 + 28 + 15 likes
+        assertEquals(new Estadisticas(3, 2, 85), videoService.obtenerEstadisticas());
+
+        Video nuevo = videoService.agregarVideo(new Video(null, "Nuevo", "https://youtu.be/nuevo", 5, true));
+        assertEquals(new Estadisticas(4, 3, 90), videoService.obtenerEstadisticas());
+
+        videoService.incrementarLikes(nuevo.getId());
+        videoService.toggleFavorito(nuevo.getId());
+        assertEquals(new Estadisticas(4, 2, 91), videoService.obtenerEstadisticas());
+
+        // Reemplazar un video existente descuenta los valores del anterior
+        videoService.agregarVideo(new Video(nuevo.getId(), "Reemplazo", "https://youtu.be/nuevo", 1, true));
+        assertEquals(new Estadisticas(4, 3, 86), videoService.obtenerEstadisticas());
+
+        videoService.eliminarVideo(nuevo.getId());
+        assertEquals(new Estadisticas(3, 2, 85), videoService.obtenerEstadisticas());
+        assertEquals(videoService.listarFavoritos().size(), videoService.obtenerEstadisticas().favoritos());
+    }
+
+    @Test
+    void testRankingDeMasGustados() {
+        // Ejemplos: Blinding Lights (42), Shape of You (28), Levitating (15)
+        List<PuestoRanking> ranking = videoService.listarMasGustados(null);
+        assertEquals(List.of(42L, 28L, 15L), ranking.stream().map(p -> p.video().getLikes()).toList());
+        assertEquals(List.of(1L, 2L, 3L), ranking.stream().map(PuestoRanking::puesto).toList());
+
+        Video levitating = ranking.get(2).video();
+        for (int i = 0; i < 20; i++) {
+            videoService.incrementarLikes(levitating.getId());
+        }
+
+        assertEquals(2, videoService.buscarPuestoEnRanking(levitating.getId()).orElseThrow().puesto());
+        assertEquals(levitating, videoService.listarMasGustados(2).get(1).video());
+        assertTrue(videoService.buscarPuestoEnRanking(999L).isEmpty());
+    }
+
+    @Test
+    void testBuscarPorNombre() {
+        assertEquals("The Weeknd - Blinding Lights", videoService.buscarPorNombre("weeknd blin", null).get(0).getNombre());
+        assertTrue(videoService.buscarPorNombre("cancion", null).isEmpty());
+
+        Video nuevo = videoService.agregarVideo(new Video(null, "Rosalía - Canción", "https://youtu.be/abc"));
+        assertEquals(List.of(nuevo), videoService.buscarPorNombre("CANCION", null));
+
+        videoService.eliminarVideo(nuevo.getId());
+        assertTrue(videoService.buscarPorNombre("cancion", null).isEmpty());
+        assertTrue(videoService.buscarPorNombre(null, null).isEmpty());
+    }
+
     @Test
     void testBuscarPorIdExistente() {
         List<Video> videos = videoService.listarTodos();
@@ -141,7 +358,7 @@ class VideoServiceTest {
         List<Video> videos = videoService.listarTodos();
         Video video = videos.get(0);
         Long videoId = video.getId();
-        int likesIniciales = video.getLikes();
+        long likesIniciales = video.getLikes();
 
         boolean resultado = videoService.incrementarLikes(videoId);
 
@@ -160,7 +377,7 @@ class VideoServiceTest {
         List<Video> videos = videoService.listarTodos();
         Video video = videos.get(0);
         Long videoId = video.getId();
-        int likesIniciales = video.getLikes();
+        long likesIniciales = video.getLikes();
 
         videoService.incrementarLikes(videoId);
         videoService.incrementarLikes(videoId);
@@ -171,6 +388,31 @@ class VideoServiceTest {
         assertEquals(likesIniciales + 3, videoActualizado.get().getLikes(), "Los likes deberían incrementarse en 3");
     }
 
+    @Test
+    void testIncrementarLikesConcurrentes() throws Exception {
+        Long videoId = videoService.listarTodos().get(0).getId();
+        long likesIniciales = videoService.buscarPorId(videoId).get().getLikes();
+        int hilos = 8;
+        int likesPorHilo = 2_000;
+
+        ExecutorService executor = Executors.newFixedThreadPool(hilos);
+        List<Future<?>> tareas = new ArrayList<>();
+        for (int h = 0; h < hilos; h++) {
+            tareas.add(executor.submit(() -> {
+                for (int i = 0; i < likesPorHilo; i++) {
+                    videoService.incrementarLikes(videoId);
+                }
+            }));
+        }
+        for (Future<?> tarea : tareas) {
+            tarea.get();
+        }
+        executor.shutdown();
+
+        assertEquals(likesIniciales + (long) hilos * likesPorHilo, videoService.buscarPorId(videoId).get().getLikes(),
+                "Los likes concurrentes no deberían perderse");
+    }
+
     @Test
     void testIncrementarLikesVideoNoExistente() {
         boolean resultado = videoService.incrementarLikes(99999L);
@@ -228,6 +470,76 @@ class VideoServiceTest {
         assertFalse(resultado, "Debería retornar false al intentar cambiar favorito de un video inexistente");
     }
 
+    @Test
+    void testAplicarLoteConUnSoloVolcado() throws IOException {
+        List<Video> videos = videoService.listarTodos();
+        Long primero = videos.get(0).getId();
+        Long segundo = videos.get(1).getId();
+        Long tercero = videos.get(2).getId();
+        long likesIniciales = videos.get(0).getLikes();
+        boolean favoritoInicial = videos.get(1).isFavorito();
+        clearInvocations(videoRepository);
+
+        List<ResultadoMutacion> resultados = videoService.aplicarLote(Arrays.asList(
+                new MutacionVideo(primero, MutacionVideo.Accion.LIKE),
+                new MutacionVideo(primero, MutacionVideo.Accion.LIKE),
+                new MutacionVideo(segundo, MutacionVideo.Accion.FAVORITO),
+                new MutacionVideo(tercero, MutacionVideo.Accion.ELIMINAR),
+                new MutacionVideo(tercero, MutacionVideo.Accion.LIKE),
+                new MutacionVideo(999L, MutacionVideo.Accion.LIKE),
+                new MutacionVideo(null, MutacionVideo.Accion.LIKE),
+                null));
+
+        assertEquals(List.of(true, true, true, true, false, false, false, false),
+                resultados.stream().map(ResultadoMutacion::aplicada).toList());
+        assertEquals(new ResultadoMutacion(tercero, MutacionVideo.Accion.LIKE, false), resultados.get(4));
+        assertEquals(likesIniciales + 2, videoService.buscarPorId(primero).get().getLikes());
+        assertEquals(!favoritoInicial, videoService.buscarPorId(segundo).get().isFavorito());
+        assertFalse(videoService.buscarPorId(tercero).isPresent());
+        verify(videoRepository, times(1)).guardar(anyList());
+    }
+
+    @Test
+    void testAplicarLoteSinCambiosNoGuarda() throws IOException {
+        clearInvocations(videoRepository);
+
+        assertEquals(List.of(new ResultadoMutacion(999L, MutacionVideo.Accion.ELIMINAR, false)),
+                videoService.aplicarLote(List.of(new MutacionVideo(999L, MutacionVideo.Accion.ELIMINAR))));
+        assertEquals(List.of(), videoService.aplicarLote(List.of()));
+
+        verify(videoRepository, never()).guardar(anyList());
+    }
+
+    @Test
+    void testAplicarLoteDemasiadoGrandeSeRechaza() {
+        Long videoId = videoService.listarTodos().get(0).getId();
+        long likesIniciales = videoService.buscarPorId(videoId).get().getLikes();
+        List<MutacionVideo> lote = Collections.nCopies(VideoService.LOTE_MUTACIONES_MAXIMO + 1,
+                new MutacionVideo(videoId, MutacionVideo.Accion.LIKE));
+
+        assertThrows(IllegalArgumentException.class, () -> videoService.aplicarLote(lote));
+        assertEquals(likesIniciales, videoService.buscarPorId(videoId).get().getLikes());
+    }
+
+    @Test
+    void testLaVersionCambiaConCadaMutacion() {
+        Long videoId = videoService.listarTodos().get(0).getId();
+        long version = videoService.obtenerVersion();
+
+        videoService.listarPagina(null, null);
+        videoService.obtenerEstadisticas();
+        assertEquals(version, videoService.obtenerVersion(), "Las lecturas no cambian la versión");
+
+        videoService.incrementarLikes(videoId);
+        assertTrue(videoService.obtenerVersion() > version);
+        version = videoService.obtenerVersion();
+        videoService.toggleFavorito(videoId);
+        assertTrue(videoService.obtenerVersion() > version);
+        version = videoService.obtenerVersion();
+        videoService.aplicarLote(List.of(new MutacionVideo(videoId, MutacionVideo.Accion.ELIMINAR)));
+        assertTrue(videoService.obtenerVersion() > version);
+    }
+
     @Test
     void testContarVideos() {
         int cantidad = videoService.contarVideos();
@@ -262,4 +574,190 @@ class VideoServiceTest {
         List<Video> favoritos = videoService.listarFavoritos();
         assertEquals(favoritosIniciales + 1, favoritos.size(), "Debería aumentar la cantidad de favoritos");
     }
+
+    @Test
+    void testModoDiferidoAgrupaEscriturasYVuelcaAlCerrar() throws IOException {
+        PlaylistProperties propiedades = new PlaylistProperties();
+        propiedades.getPersistencia().setModo(PlaylistProperties.ModoPersistencia.DIFERIDO);
+        propiedades.getPersistencia().setIntervaloVolcado(Duration.ofHours(1));
+        propiedades.getPersistencia().setUmbralCambios(1_000);
+        VideoService servicioDiferido = new VideoService(videoRepository, propiedades);
+        clearInvocations(videoRepository);
+
+        Long videoId = servicioDiferido.listarTodos().get(0).getId();
+        for (int i = 0; i < 5; i++) {
+            servicioDiferido.incrementarLikes(videoId);
+        }
+
+        verify(videoRepository, never()).guardar(anyList());
+        assertTrue(servicioDiferido.contarCambiosPendientes() >= 5, "Los likes deberían quedar pendientes de volcar");
+
+        servicioDiferido.cerrar();
+
+        verify(videoRepository, times(1)).guardar(anyList());
+        assertEquals(0, servicioDiferido.contarCambiosPendientes(), "Al cerrar no deberían quedar cambios pendientes");
+    }
+
+    @Test
+    void testModoDiferidoVuelcaAlAlcanzarUmbral() throws IOException, InterruptedException {
+        PlaylistProperties propiedades = new PlaylistProperties();
+        propiedades.getPersistencia().setModo(PlaylistProperties.ModoPersistencia.DIFERIDO);
+        propiedades.getPersistencia().setIntervaloVolcado(Duration.ofHours(1));
+        propiedades.getPersistencia().setUmbralCambios(10);
+        VideoService servicioDiferido = new VideoService(videoRepository, propiedades);
+        clearInvocations(videoRepository);
+
+        Long videoId = servicioDiferido.listarTodos().get(0).getId();
+        for (int i = 0; i < 10; i++) {
+            servicioDiferido.incrementarLikes(videoId);
+        }
+
+        // Esperar al volcado sin verify(timeout): sondear el mock compite por su lock con el hilo de fondo
+        long limite = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (servicioDiferido.contarCambiosPendientes() > 0 && System.nanoTime() < limite) {
+            Thread.sleep(10);
+        }
+        verify(videoRepository, atLeastOnce()).guardar(anyList());
+        servicioDiferido.cerrar();
+    }
+
+    @Test
+    void testModoJournalRecuperaCambiosTrasCaida(@TempDir Path directorio) {
+        PlaylistProperties propiedades = new PlaylistProperties();
+        propiedades.getPersistencia().setModo(PlaylistProperties.ModoPersistencia.JOURNAL);
+        propiedades.getPersistencia().setArchivo(directorio.resolve("playlist.json").toString());
+
+        VideoService servicio = new VideoService(new VideoRepository(propiedades), propiedades);
+        Long primero = servicio.listarTodos().get(0).getId();
+        Long segundo = servicio.listarTodos().get(1).getId();
+        long likesIniciales = servicio.buscarPorId(primero).get().getLikes();
+        boolean favoritoInicial = servicio.buscarPorId(segundo).get().isFavorito();
+
+        servicio.incrementarLikes(primero);
+        servicio.incrementarLikes(primero);
+        servicio.toggleFavorito(segundo);
+        Video agregado = servicio.agregarVideo(new Video(null, "Journal", "https://youtu.be/journal"));
+        servicio.eliminarVideo(servicio.listarTodos().get(2).getId());
+        List<Long> idsEsperados = servicio.listarTodos().stream().map(Video::getId).toList();
+
+        // Sin llamar a cerrar(): simula una caída del proceso
+        VideoService recuperado = new VideoService(new VideoRepository(propiedades), propiedades);
+
+        assertEquals(idsEsperados, recuperado.listarTodos().stream().map(Video::getId).toList());
+        assertEquals(likesIniciales + 2, recuperado.buscarPorId(primero).get().getLikes());
+        assertEquals(!favoritoInicial, recuperado.buscarPorId(segundo).get().isFavorito());
+        assertEquals("Journal", recuperado.buscarPorId(agregado.getId()).get().getNombre());
+    }
+
+    @Test
+    void testModoJournalDanadoNoArrancaNiPisaElSnapshot(@TempDir Path directorio) throws Exception {
+        PlaylistProperties propiedades = new PlaylistProperties();
+        propiedades.getPersistencia().setModo(PlaylistProperties.ModoPersistencia.JOURNAL);
+        propiedades.getPersistencia().setArchivo(directorio.resolve("playlist.json").toString());
+        VideoService servicio = new VideoService(new VideoRepository(propiedades), propiedades);
+        Long primero = servicio.listarTodos().get(0).getId();
+        servicio.incrementarLikes(primero);
+        servicio.incrementarLikes(primero);
+
+        Path journal = directorio.resolve("playlist.json.journal");
+        List<String> lineas = new ArrayList<>(Files.readAllLines(journal));
+        lineas.add(1, "basura");
+        Files.write(journal, lineas);
+        byte[] snapshot = Files.readAllBytes(directorio.resolve("playlist.json"));
+
+        assertThrows(UncheckedIOException.class, () -> new VideoService(new VideoRepository(propiedades), propiedades));
+        assertArrayEquals(snapshot, Files.readAllBytes(directorio.resolve("playlist.json")),
+                "El snapshot no debería reemplazarse por los videos de ejemplo");
+    }
+
+    @Test
+    void testErrorDeLecturaNoArrancaNiPisaElSnapshot(@TempDir Path directorio) throws Exception {
+        PlaylistProperties propiedades = new PlaylistProperties();
+        propiedades.getPersistencia().setModo(PlaylistProperties.ModoPersistencia.JOURNAL);
+        propiedades.getPersistencia().setArchivo(directorio.resolve("playlist.json").toString());
+        VideoService servicio = new VideoService(new VideoRepository(propiedades), propiedades);
+        servicio.incrementarLikes(servicio.listarTodos().get(0).getId());
+        byte[] snapshot = Files.readAllBytes(directorio.resolve("playlist.json"));
+
+        // Un error transitorio (permisos, disco) no aparta el archivo como uno dañado
+        VideoRepository sinAcceso = spy(new VideoRepository(propiedades));
+        doThrow(new IOException("Input/output error")).when(sinAcceso).cargar(any(Consumer.class));
+
+        assertThrows(UncheckedIOException.class, () -> new VideoService(sinAcceso, propiedades));
+        assertArrayEquals(snapshot, Files.readAllBytes(directorio.resolve("playlist.json")),
+                "El snapshot no debería reemplazarse por los videos de ejemplo");
+        verify(sinAcceso, never()).compactar(anyList());
+        verify(sinAcceso, never()).guardar(anyList());
+    }
+
+    @Test
+    void testModoJournalRecuperaLoteTrasCaida(@TempDir Path directorio) {
+        PlaylistProperties propiedades = new PlaylistProperties();
+        propiedades.getPersistencia().setModo(PlaylistProperties.ModoPersistencia.JOURNAL);
+        propiedades.getPersistencia().setArchivo(directorio.resolve("playlist.json").toString());
+        propiedades.getPersistencia().setCompactarCada(10);
+        VideoRepository repositorio = new VideoRepository(propiedades);
+
+        VideoService servicio = new VideoService(repositorio, propiedades);
+        Long videoId = servicio.listarTodos().get(0).getId();
+        Long eliminado = servicio.listarTodos().get(1).getId();
+        long likesIniciales = servicio.buscarPorId(videoId).get().getLikes();
+        List<MutacionVideo> lote = new ArrayList<>(Collections.nCopies(25, new MutacionVideo(videoId, MutacionVideo.Accion.LIKE)));
+        lote.add(new MutacionVideo(eliminado, MutacionVideo.Accion.ELIMINAR));
+        servicio.aplicarLote(lote);
+
+        // El lote entero queda en el journal aunque supere el umbral; se compacta recién después
+        assertEquals(0, repositorio.getRegistrosJournal(), "El journal debería haberse compactado tras el lote");
+        VideoService recuperado = new VideoService(new VideoRepository(propiedades), propiedades);
+        assertEquals(likesIniciales + 25, recuperado.buscarPorId(videoId).get().getLikes());
+        assertFalse(recuperado.buscarPorId(eliminado).isPresent());
+    }
+
+    @Test
+    void testModoJournalCompactaAlSuperarUmbral(@TempDir Path directorio) {
+        PlaylistProperties propiedades = new PlaylistProperties();
+        propiedades.getPersistencia().setModo(PlaylistProperties.ModoPersistencia.JOURNAL);
+        propiedades.getPersistencia().setArchivo(directorio.resolve("playlist.json").toString());
+        propiedades.getPersistencia().setCompactarCada(10);
+        VideoRepository repositorio = new VideoRepository(propiedades);
+
+        VideoService servicio = new VideoService(repositorio, propiedades);
+        Long videoId = servicio.listarTodos().get(0).getId();
+        long likesIniciales = servicio.buscarPorId(videoId).get().getLikes();
+        for (int i = 0; i < 25; i++) {
+            servicio.incrementarLikes(videoId);
+        }
+
+        assertTrue(repositorio.getRegistrosJournal() < 10, "El journal debería haberse compactado");
+        VideoService recuperado = new VideoService(new VideoRepository(propiedades), propiedades);
+        assertEquals(likesIniciales + 25, recuperado.buscarPorId(videoId).get().getLikes());
+    }
+
+    @Test
+    void testAlmacenFueraDelHeapConJournal(@TempDir Path directorio) {
+        PlaylistProperties propiedades = new PlaylistProperties();
+        propiedades.getPersistencia().setModo(PlaylistProperties.ModoPersistencia.JOURNAL);
+        propiedades.getPersistencia().setArchivo(directorio.resolve("playlist.json").toString());
+        propiedades.getAlmacen().setTipo(PlaylistProperties.TipoAlmacen.FUERA_DEL_HEAP);
+
+        VideoService servicio = new VideoService(new VideoRepository(propiedades), propiedades);
+        assertEquals(3, servicio.contarVideos());
+        Long primero = servicio.listarTodos().get(0).getId();
+        Video agregado = servicio.agregarVideo(new Video(null, "Fuera del heap", "https://youtu.be/fueradelheap"));
+        assertThrows(VideoDuplicadoException.class,
+                () -> servicio.agregarVideo(new Video(null, "Repetido", "https://www.youtube.com/watch?v=fueradelheap")));
+        servicio.incrementarLikes(agregado.getId());
+        servicio.toggleFavorito(agregado.getId());
+        servicio.eliminarVideo(primero);
+
+        assertEquals(1, servicio.buscarPorId(agregado.getId()).get().getLikes());
+        assertTrue(servicio.listarFavoritos().stream().map(Video::getId).toList().contains(agregado.getId()));
+        assertEquals(agregado.getId(), servicio.buscarPorNombre("fuera hea", null).get(0).getId());
+        List<Long> idsEsperados = servicio.listarTodos().stream().map(Video::getId).toList();
+
+        VideoService recuperado = new VideoService(new VideoRepository(propiedades), propiedades);
+        assertEquals(idsEsperados, recuperado.listarTodos().stream().map(Video::getId).toList());
+        assertTrue(recuperado.buscarPorId(agregado.getId()).get().isFavorito());
+        assertEquals(1, recuperado.buscarPorId(agregado.getId()).get().getLikes());
+    }
 }
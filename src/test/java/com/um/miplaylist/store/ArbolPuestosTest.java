@@ -0,0 +1,92 @@
+package com.um.miplaylist.store;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeSet;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests del árbol de estadísticos de orden del ranking.
+ */
+class ArbolPuestosTest {
+
+    private static final Comparator<long[]> ORDEN = Comparator
+            .<long[]>comparingLong(clave -> -clave[0])
+            .thenComparingLong(clave -> clave[1]);
+
+    @Test
+    void testContarAnteriores() {
+        ArbolPuestos arbol = new ArbolPuestos();
+        arbol.agregar(5, 1L);
+        arbol.agregar(9, 2L);
+        arbol.agregar(5, 3L);
+        arbol.agregar(0, 4L);
+
+        assertEquals(0, arbol.contarAnteriores(9, 2L));
+        assertEquals(1, arbol.contarAnteriores(5, 1L));
+        assertEquals(2, arbol.contarAnteriores(5, 3L), "A igualdad de likes, primero el de menor ID");
+        assertEquals(3, arbol.contarAnteriores(0, 4L));
+
+        arbol.quitar(9, 2L);
+        arbol.quitar(9, 2L);
+        assertEquals(0, arbol.contarAnteriores(5, 1L));
+        assertEquals(3, arbol.contar());
+    }
+
+    @Test
+    void testUltimosPuestosEntreMuchosEmpatados() {
+        ArbolPuestos arbol = new ArbolPuestos();
+        for (long id = 1; id <= 200_000; id++) {
+            arbol.agregar(0, id);
+        }
+        arbol.agregar(1, 200_001L);
+
+        assertEquals(200_000, arbol.contarAnteriores(0, 200_000L));
+        assertEquals(1, arbol.contarAnteriores(0, 1L));
+        assertEquals(0, arbol.contarAnteriores(1, 200_001L));
+    }
+
+    @Test
+    void testOperacionesAleatoriasCoincidenConTreeSet() {
+        ArbolPuestos arbol = new ArbolPuestos();
+        TreeSet<long[]> referencia = new TreeSet<>(ORDEN);
+        Map<Long, Long> likesPorId = new HashMap<>();
+        Random random = new Random(42);
+
+        for (int i = 0; i < 100_000; i++) {
+            long id = random.nextInt(3_000);
+            Long anteriores = likesPorId.get(id);
+            switch (random.nextInt(3)) {
+                case 0 -> {
+                    // Like: la clave del video se reemplaza por una con más likes
+                    long likes = anteriores == null ? random.nextInt(5) : anteriores + 1;
+                    if (anteriores != null) {
+                        arbol.quitar(anteriores, id);
+                        referencia.remove(new long[] {anteriores, id});
+                    }
+                    arbol.agregar(likes, id);
+                    referencia.add(new long[] {likes, id});
+                    likesPorId.put(id, likes);
+                }
+                case 1 -> {
+                    if (anteriores != null) {
+                        arbol.quitar(anteriores, id);
+                        referencia.remove(new long[] {anteriores, id});
+                        likesPorId.remove(id);
+                    }
+                }
+                default -> {
+                    long likes = random.nextInt(20);
+                    assertEquals(referencia.headSet(new long[] {likes, id}).size(), arbol.contarAnteriores(likes, id));
+                }
+            }
+        }
+
+        assertEquals(referencia.size(), arbol.contar());
+    }
+}
@@ -0,0 +1,297 @@
+package com.um.miplaylist.store;
+
+import com.um.miplaylist.model.Estadisticas;
+import com.um.miplaylist.model.Pagina;
+import com.um.miplaylist.model.Video;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests de conformidad que debe pasar toda implementación de {@link AlmacenVideos}: cada almacén
+ * tiene su clase de tests que extiende ésta e indica cómo crearlo.
+ *
+ * @param <A> Implementación probada
+ */
+abstract class ConformidadAlmacen<A extends AlmacenVideos> {
+
+    protected A store;
+
+    /**
+     * Crea un almacén vacío para cada test.
+     */
+    protected abstract A crearAlmacen();
+
+    @BeforeEach
+    void crearStore() {
+        store = crearAlmacen();
+    }
+
+    @Test
+    void testListarRespetaOrdenDeInsercion() {
+        store.agregar(new Video(30L, "C", "https://youtu.be/c"));
+        store.agregar(new Video(10L, "A", "https://youtu.be/a"));
+        store.agregar(new Video(20L, "B", "https://youtu.be/b"));
+
+        List<Video> videos = store.listar();
+        assertEquals(List.of(30L, 10L, 20L), videos.stream().map(Video::getId).toList());
+    }
+
+    @Test
+    void testAgregarConIdExistenteReemplazaManteniendoPosicion() {
+        store.agregar(new Video(1L, "Original", "https://youtu.be/a"));
+        store.agregar(new Video(2L, "Otro", "https://youtu.be/b"));
+        store.agregar(new Video(1L, "Reemplazo", "https://youtu.be/c"));
+
+        assertEquals(2, store.contar());
+        assertEquals("Reemplazo", store.listar().get(0).getNombre());
+    }
+
+    @Test
+    void testEliminarYBuscar() {
+        store.agregar(new Video(1L, "A", "https://youtu.be/a"));
+
+        assertTrue(store.buscar(1L).isPresent());
+        assertTrue(store.eliminar(1L).isPresent());
+        assertFalse(store.buscar(1L).isPresent());
+        assertFalse(store.eliminar(1L).isPresent(), "Eliminar dos veces no debería encontrar el video");
+        assertTrue(store.listar().isEmpty());
+    }
+
+    @Test
+    void testMutarVideoInexistente() {
+        assertFalse(store.mutar(42L, Video::incrementarLikes));
+    }
+
+    @Test
+    void testEscriturasYLecturasConcurrentes() throws Exception {
+        int hilos = 8;
+        int videosPorHilo = 2_000;
+        ExecutorService executor = Executors.newFixedThreadPool(hilos + 1);
+        CountDownLatch inicio = new CountDownLatch(1);
+        List<Future<?>> tareas = new ArrayList<>();
+
+        for (int h = 0; h < hilos; h++) {
+            long base = (long) h * videosPorHilo;
+            tareas.add(executor.submit(() -> {
+                inicio.await();
+                for (long i = base; i < base + videosPorHilo; i++) {
+                    store.agregar(new Video(i, "Video " + i, "https://youtu.be/x"));
+                    store.darLike(i);
+                    store.mutar(i, Video::toggleFavorito);
+                    if (i % 2 == 0) {
+                        store.eliminar(i);
+                    }
+                }
+                return null;
+            }));
+        }
+        // Lector concurrente: copiar mientras se escribe no debe fallar
+        tareas.add(executor.submit(() -> {
+            inicio.await();
+            for (int i = 0; i < 200; i++) {
+                store.listar();
+            }
+            return null;
+        }));
+
+        inicio.countDown();
+        for (Future<?> tarea : tareas) {
+            tarea.get();
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+
+        assertEquals(hilos * videosPorHilo / 2, store.contar());
+        assertEquals(store.contar(), store.listar().size(), "Los índices deberían quedar consistentes");
+        assertTrue(store.listar().stream().allMatch(v -> v.getLikes() == 1));
+        assertEquals(new Estadisticas(store.contar(), store.contar(), store.contar()), store.estadisticas(),
+                "Los agregados deberían coincidir con los videos que quedaron");
+        assertEquals(store.listar(), store.listarFavoritos(), "El índice de favoritos debería coincidir");
+    }
+
+    @Test
+    void testTotalDeLikesConLikesYEliminacionesConcurrentes() throws Exception {
+        int videos = 50;
+        for (long id = 0; id < videos; id++) {
+            store.agregar(new Video(id, "Video " + id, "https://youtu.be/v" + id));
+        }
+        int hilos = 6;
+        ExecutorService executor = Executors.newFixedThreadPool(hilos);
+        CountDownLatch inicio = new CountDownLatch(1);
+        List<Future<?>> tareas = new ArrayList<>();
+        for (int h = 0; h < hilos; h++) {
+            boolean elimina = h % 3 == 0;
+            tareas.add(executor.submit(() -> {
+                inicio.await();
+                Random azar = new Random();
+                for (int i = 0; i < 20_000; i++) {
+                    long id = azar.nextInt(videos);
+                    if (elimina) {
+                        store.eliminar(id);
+                        store.agregar(new Video(id, "Video " + id, "https://youtu.be/v" + id, 3, false));
+                    } else {
+                        store.darLike(id);
+                    }
+                }
+                return null;
+            }));
+        }
+        inicio.countDown();
+        for (Future<?> tarea : tareas) {
+            tarea.get(60, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        assertEquals(store.listar().stream().mapToLong(Video::getLikes).sum(), store.estadisticas().likes(),
+                "El total de likes debería coincidir con la suma de los videos");
+    }
+
+    @Test
+    void testIndiceDeFavoritos() {
+        store.agregar(new Video(1L, "A", "https://youtu.be/a", 0, true));
+        store.agregar(new Video(2L, "B", "https://youtu.be/b"));
+        store.agregar(new Video(3L, "C", "https://youtu.be/c", 0, true));
+
+        store.mutar(2L, Video::toggleFavorito);
+        store.mutar(1L, Video::toggleFavorito);
+        store.agregar(new Video(3L, "C reemplazado", "https://youtu.be/c"));
+        store.agregar(new Video(4L, "D", "https://youtu.be/d", 0, true));
+        store.eliminar(4L);
+
+        assertEquals(List.of(2L), store.listarFavoritos().stream().map(Video::getId).toList());
+
+        store.agregar(new Video(5L, "E", "https://youtu.be/e", 0, true));
+        Pagina primera = store.paginaFavoritos(0, 1);
+        assertEquals(List.of(2L), primera.videos().stream().map(Video::getId).toList());
+        Pagina segunda = store.paginaFavoritos(primera.siguiente(), 1);
+        assertEquals(List.of(5L), segunda.videos().stream().map(Video::getId).toList());
+        assertFalse(segunda.hayMas());
+    }
+
+    @Test
+    void testRankingDeLikes() {
+        store.agregar(new Video(1L, "A", "https://youtu.be/a", 5, false));
+        store.agregar(new Video(2L, "B", "https://youtu.be/b", 7, false));
+        store.agregar(new Video(3L, "C", "https://youtu.be/c", 5, false));
+
+        assertEquals(List.of(2L, 1L, 3L), idsMasGustados(10));
+        assertEquals(3, store.puestoEnRanking(3L));
+
+        store.darLike(3L);
+        store.darLike(3L);
+        store.darLike(3L);
+        assertEquals(List.of(3L, 2L, 1L), idsMasGustados(10));
+        assertEquals(1, store.puestoEnRanking(3L));
+
+        store.eliminar(3L);
+        store.agregar(new Video(1L, "A reemplazado", "https://youtu.be/a", 0, false));
+        assertEquals(List.of(2L, 1L), idsMasGustados(10));
+        assertEquals(List.of(2L), idsMasGustados(1));
+        assertEquals(0, store.puestoEnRanking(3L));
+    }
+
+    @Test
+    void testRankingConLikesConcurrentes() throws Exception {
+        for (long id = 1; id <= 10; id++) {
+            store.agregar(new Video(id, "Video " + id, "https://youtu.be/x"));
+        }
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<Future<?>> tareas = new ArrayList<>();
+        for (int h = 0; h < 8; h++) {
+            tareas.add(executor.submit(() -> {
+                for (int i = 0; i < 10_000; i++) {
+                    // El video 10 recibe más likes que el resto
+                    store.darLike(i % 2 == 0 ? 10L : 1 + i % 9);
+                }
+                return null;
+            }));
+        }
+        for (Future<?> tarea : tareas) {
+            tarea.get();
+        }
+        executor.shutdown();
+
+        List<Video> ranking = store.masGustados(10);
+        assertEquals(10L, ranking.get(0).getId());
+        assertEquals(40_000, ranking.get(0).getLikes());
+        for (int i = 1; i < ranking.size(); i++) {
+            assertTrue(ranking.get(i - 1).getLikes() >= ranking.get(i).getLikes(), "El ranking debería quedar ordenado");
+        }
+    }
+
+    private List<Long> idsMasGustados(int n) {
+        return store.masGustados(n).stream().map(Video::getId).toList();
+    }
+
+    @Test
+    void testAgregarSinDuplicarPorIdDeYouTube() {
+        Video original = new Video(1L, "Original", "https://www.youtube.com/watch?v=4NRXx6U8ABQ&list=x");
+
+        assertTrue(store.agregarSinDuplicar(original, v -> { }).isEmpty());
+        assertEquals(Optional.of(original), store.agregarSinDuplicar(new Video(2L, "Corto", "https://youtu.be/4NRXx6U8ABQ"), v -> { }));
+        assertEquals(Optional.of(original), store.agregarSinDuplicar(new Video(3L, "Embebido", "https://www.youtube.com/embed/4NRXx6U8ABQ"), v -> { }));
+        assertEquals(1, store.contar());
+        assertEquals(Optional.of(original), store.buscarPorYouTubeId("4NRXx6U8ABQ"));
+
+        // Cambiar el link de un video libera el ID de YouTube anterior
+        assertTrue(store.agregarSinDuplicar(new Video(1L, "Otro", "https://youtu.be/JGwWNGJdvx8"), v -> { }).isEmpty());
+        assertTrue(store.buscarPorYouTubeId("4NRXx6U8ABQ").isEmpty());
+        assertTrue(store.agregarSinDuplicar(new Video(2L, "Corto", "https://youtu.be/4NRXx6U8ABQ"), v -> { }).isEmpty());
+
+        store.eliminar(2L);
+        assertTrue(store.buscarPorYouTubeId("4NRXx6U8ABQ").isEmpty());
+    }
+
+    @Test
+    void testAgregarSinDuplicarConcurrente() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        CountDownLatch largada = new CountDownLatch(1);
+        List<Future<Boolean>> tareas = new ArrayList<>();
+        for (long id = 1; id <= 8; id++) {
+            long propio = id;
+            tareas.add(executor.submit(() -> {
+                largada.await();
+                return store.agregarSinDuplicar(new Video(propio, "Video " + propio, "https://youtu.be/4NRXx6U8ABQ"), v -> { }).isEmpty();
+            }));
+        }
+        largada.countDown();
+        int agregados = 0;
+        for (Future<Boolean> tarea : tareas) {
+            agregados += tarea.get() ? 1 : 0;
+        }
+        executor.shutdown();
+
+        assertEquals(1, agregados);
+        assertEquals(1, store.contar());
+    }
+
+    @Test
+    void testFusionarDuplicados() {
+        store.agregar(new Video(1L, "A", "https://www.youtube.com/watch?v=4NRXx6U8ABQ", 10, false));
+        store.agregar(new Video(2L, "B", "https://youtu.be/JGwWNGJdvx8", 3, false));
+        store.agregar(new Video(3L, "A corto", "https://youtu.be/4NRXx6U8ABQ", 5, true));
+        store.agregar(new Video(4L, "Sin ID de YouTube", "https://example.com/video", 0, false));
+
+        assertEquals(1, store.fusionarDuplicados());
+        assertEquals(0, store.fusionarDuplicados());
+
+        assertEquals(List.of(1L, 2L, 4L), store.listar().stream().map(Video::getId).toList());
+        Video fusionado = store.buscar(1L).orElseThrow();
+        assertEquals(15, fusionado.getLikes());
+        assertTrue(fusionado.isFavorito());
+        assertEquals(new Estadisticas(3, 1, 18), store.estadisticas());
+        assertEquals(List.of(1L, 2L, 4L), store.masGustados(10).stream().map(Video::getId).toList());
+    }
+}
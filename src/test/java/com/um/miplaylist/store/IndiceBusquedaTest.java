@@ -0,0 +1,122 @@
+package com.um.miplaylist.store;
+
+import com.um.miplaylist.model.Video;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests del índice invertido de nombres.
+ */
+class IndiceBusquedaTest {
+
+    private IndiceBusqueda indice;
+
+    @BeforeEach
+    void setUp() {
+        indice = new IndiceBusqueda();
+        agregar(1L, "The Weeknd - Blinding Lights", 42);
+        agregar(2L, "Ed Sheeran - Shape of You", 28);
+        agregar(3L, "Rosalía - Despechá", 15);
+        agregar(4L, "Bad Bunny - Tití Me Preguntó", 30);
+        agregar(5L, "Blink-182 - All the Small Things", 10);
+    }
+
+    @Test
+    void testTerminosNormalizados() {
+        assertArrayEquals(new String[] {"cancion", "nandu", "2024"}, IndiceBusqueda.terminos("Canción ÑANDÚ (2024)"));
+        assertArrayEquals(new String[] {"the", "weeknd"}, IndiceBusqueda.terminos("  The  the WEEKND!! "));
+        assertArrayEquals(new String[0], IndiceBusqueda.terminos(" - ¿? "));
+        assertArrayEquals(new String[0], IndiceBusqueda.terminos(null));
+    }
+
+    @Test
+    void testBuscarSinTildesNiMayusculas() {
+        assertEquals(List.of(3L), ids(indice.buscar("despecha", 10)));
+        assertEquals(List.of(3L), ids(indice.buscar("ROSALIA", 10)));
+        assertEquals(List.of(4L), ids(indice.buscar("titi pregunto", 10)));
+    }
+
+    @Test
+    void testBuscarPorPrefijo() {
+        // "blin" es prefijo de "blinding" y de "blink"; a igual puntaje, primero el de más likes
+        assertEquals(List.of(1L, 5L), ids(indice.buscar("blin", 10)));
+        assertEquals(List.of(1L), ids(indice.buscar("weeknd blin", 10)));
+        assertEquals(List.of(), ids(indice.buscar("weeknd shape", 10)), "Todos los términos deben coincidir");
+    }
+
+    @Test
+    void testCoincidenciaCompletaPrimero() {
+        agregar(6L, "The Blin Project", 0);
+
+        assertEquals(List.of(6L, 1L, 5L), ids(indice.buscar("blin", 10)));
+        assertEquals(List.of(6L, 1L), ids(indice.buscar("blin", 2)));
+    }
+
+    @Test
+    void testPrefijoFrecuenteSeRecorreEntero() {
+        for (long id = 100; id < 4_100; id++) {
+            agregar(id, "Zeta" + id, 500);
+        }
+        agregar(99L, "Zeta", 0);
+
+        List<Video> resultados = indice.buscar("zeta", 5);
+        assertEquals(5, resultados.size());
+        assertEquals(99L, resultados.get(0).getId(), "La coincidencia completa va primero aunque tenga menos likes");
+        assertEquals(List.of(100L, 101L, 102L, 103L), ids(resultados.subList(1, 5)));
+    }
+
+    @Test
+    void testTerminosFrecuentesNoPierdenResultados() {
+        for (long id = 1_000; id < 21_000; id++) {
+            agregar(id, "love " + id, 0);
+            agregar(id + 100_000, "song " + id, 0);
+        }
+        agregar(50_000L, "love song", 0);
+        agregar(50_001L, "love best", 50);
+
+        assertEquals(List.of(50_000L), ids(indice.buscar("love song", 10)));
+        assertEquals(List.of(50_001L), ids(indice.buscar("love", 1)), "El de más likes, aunque esté lejos en la lista del término");
+    }
+
+    @Test
+    void testReemplazarYQuitar() {
+        agregar(2L, "Ed Sheeran - Perfect", 28);
+
+        assertEquals(List.of(), ids(indice.buscar("shape", 10)));
+        assertEquals(List.of(2L), ids(indice.buscar("perf", 10)));
+        assertEquals(Set.of(2L), indice.idsDe("sheeran"));
+
+        indice.quitar(2L);
+        indice.quitar(2L);
+
+        assertEquals(List.of(), ids(indice.buscar("sheeran", 10)));
+        assertEquals(Set.of(), indice.idsDe("sheeran"));
+        assertEquals(Set.of(1L, 5L), indice.idsDe("the"));
+
+        int terminos = indice.contarTerminos();
+        agregar(7L, "Nuevo Término", 0);
+        indice.quitar(7L);
+        assertEquals(terminos, indice.contarTerminos(), "Los términos sin videos no deberían quedar en el índice");
+    }
+
+    @Test
+    void testConsultaVacia() {
+        assertEquals(List.of(), indice.buscar("", 10));
+        assertEquals(List.of(), indice.buscar("  -- ", 10));
+        assertEquals(List.of(), indice.buscar(null, 10));
+        assertEquals(List.of(), indice.buscar("xyz", 10));
+    }
+
+    private void agregar(long id, String nombre, int likes) {
+        indice.agregar(id, new Video(id, nombre, "https://youtu.be/x", likes, false));
+    }
+
+    private static List<Long> ids(List<Video> videos) {
+        return videos.stream().map(Video::getId).toList();
+    }
+}
@@ -0,0 +1,66 @@
+package com.um.miplaylist.store;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests del índice hash con claves long primitivas.
+ */
+class IndiceLongTest {
+
+    @Test
+    void testPutGetRemove() {
+        IndiceLong<String> indice = new IndiceLong<>();
+
+        assertNull(indice.put(1L, "uno"));
+        assertEquals("uno", indice.put(1L, "otro uno"), "Debería devolver el valor reemplazado");
+        assertEquals("otro uno", indice.get(1L));
+        assertNull(indice.get(2L));
+        assertEquals(1, indice.size());
+
+        assertEquals("otro uno", indice.remove(1L));
+        assertNull(indice.remove(1L));
+        assertEquals(0, indice.size());
+    }
+
+    @Test
+    void testClavesExtremas() {
+        IndiceLong<String> indice = new IndiceLong<>();
+        indice.put(0L, "cero");
+        indice.put(Long.MIN_VALUE, "min");
+        indice.put(Long.MAX_VALUE, "max");
+        indice.put(-1L, "menos uno");
+
+        assertEquals("cero", indice.get(0L));
+        assertEquals("min", indice.get(Long.MIN_VALUE));
+        assertEquals("max", indice.get(Long.MAX_VALUE));
+        assertEquals("menos uno", indice.get(-1L));
+    }
+
+    @Test
+    void testOperacionesAleatoriasCoincidenConHashMap() {
+        IndiceLong<Long> indice = new IndiceLong<>();
+        Map<Long, Long> referencia = new HashMap<>();
+        Random random = new Random(42);
+
+        for (int i = 0; i < 200_000; i++) {
+            // Rango acotado para forzar colisiones, reemplazos y borrados con desplazamiento
+            long clave = random.nextInt(5_000);
+            switch (random.nextInt(3)) {
+                case 0 -> assertEquals(referencia.put(clave, (long) i), indice.put(clave, (long) i));
+                case 1 -> assertEquals(referencia.remove(clave), indice.remove(clave));
+                default -> assertEquals(referencia.get(clave), indice.get(clave));
+            }
+        }
+
+        assertEquals(referencia.size(), indice.size());
+        for (long clave = 0; clave < 5_000; clave++) {
+            assertEquals(referencia.get(clave), indice.get(clave));
+        }
+    }
+}
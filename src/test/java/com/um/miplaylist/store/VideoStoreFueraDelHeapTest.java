@@ -0,0 +1,205 @@
+package com.um.miplaylist.store;
+
+import com.um.miplaylist.model.Estadisticas;
+import com.um.miplaylist.model.Pagina;
+import com.um.miplaylist.model.Video;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiFunction;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests del almacén fuera del heap: los de {@link ConformidadAlmacen} y los propios de esta implementación.
+ * Además aplica la misma secuencia aleatoria de operaciones a este almacén y a {@link VideoStore}
+ * y verifica que respondan lo mismo.
+ */
+class VideoStoreFueraDelHeapTest extends ConformidadAlmacen<VideoStoreFueraDelHeap> {
+
+    @Override
+    protected VideoStoreFueraDelHeap crearAlmacen() {
+        return new VideoStoreFueraDelHeap();
+    }
+
+    @Test
+    void testAgregarReemplazarYEliminar() {
+        store.agregar(new Video(30L, "C", "https://youtu.be/c"));
+        store.agregar(new Video(10L, "A", "https://youtu.be/a", 5, true));
+        store.agregar(new Video(20L, "B", null));
+        store.agregar(new Video(10L, "Reemplazo", "https://www.youtube.com/watch?v=a&t=1s", 2, false));
+
+        assertEquals(List.of(30L, 10L, 20L), ids(store.listar()));
+        Video reemplazo = store.buscar(10L).orElseThrow();
+        assertEquals("Reemplazo", reemplazo.getNombre());
+        assertEquals("https://www.youtube.com/watch?v=a&t=1s", reemplazo.getLink());
+        assertNull(store.buscar(20L).orElseThrow().getLink());
+        assertEquals(new Estadisticas(3, 0, 2), store.estadisticas());
+
+        assertTrue(store.eliminar(30L).isPresent());
+        assertFalse(store.eliminar(30L).isPresent(), "Eliminar dos veces no debería encontrar el video");
+        assertFalse(store.buscar(30L).isPresent());
+        assertEquals(List.of(10L, 20L), ids(store.listar()));
+        assertFalse(store.mutar(30L, Video::toggleFavorito));
+    }
+
+    @Test
+    void testTextosConTildesYEmojis() {
+        store.agregar(new Video(1L, "Canción Ñandú 🎵 日本語", "https://youtu.be/ñ"));
+
+        Video leido = store.buscar(1L).orElseThrow();
+        assertEquals("Canción Ñandú 🎵 日本語", leido.getNombre());
+        assertEquals("ñ", leido.extraerYouTubeId());
+        assertEquals(List.of(1L), ids(store.buscarPorNombre("cancion nan", 10)));
+        assertEquals(List.of(1L), ids(store.buscarPorNombre("日本", 10)));
+        assertTrue(store.buscarPorYouTubeId("ñ").isPresent());
+    }
+
+    @Test
+    void testLosSlotsYElAreaDeTextosSeReutilizan() {
+        for (long id = 0; id < 5_000; id++) {
+            store.agregar(new Video(id, "Video número " + id, "https://youtu.be/v" + id, id, id % 3 == 0));
+        }
+        long ocupados = store.bytesFueraDelHeap();
+
+        // Reemplazar toda la playlist varias veces no debería hacer crecer la memoria reservada
+        for (int vuelta = 1; vuelta <= 10; vuelta++) {
+            for (long id = 0; id < 5_000; id++) {
+                long anterior = (vuelta - 1) * 5_000L + id;
+                long nuevo = vuelta * 5_000L + id;
+                store.eliminar(anterior);
+                store.agregar(new Video(nuevo, "Video número " + nuevo, "https://youtu.be/v" + nuevo));
+            }
+        }
+
+        assertEquals(5_000, store.contar());
+        assertTrue(store.bytesFueraDelHeap() <= 2 * ocupados,
+                "Reservado " + store.bytesFueraDelHeap() + " bytes, al principio " + ocupados);
+        assertEquals(List.of(50_000L, 50_001L), ids(store.pagina(0, 2).videos()));
+        assertEquals("Video número 54999", store.buscar(54_999L).orElseThrow().getNombre());
+        assertEquals(List.of(54_999L), ids(store.buscarPorNombre("54999", 5)));
+    }
+
+    @Test
+    void testLikesConcurrentes() throws Exception {
+        for (long id = 0; id < 100; id++) {
+            store.agregar(new Video(id, "Video " + id, "https://youtu.be/v" + id));
+        }
+        int hilos = 8;
+        int likesPorHilo = 2_000;
+        ExecutorService executor = Executors.newFixedThreadPool(hilos);
+        CountDownLatch inicio = new CountDownLatch(1);
+        List<Future<?>> tareas = new ArrayList<>();
+        for (int h = 0; h < hilos; h++) {
+            tareas.add(executor.submit(() -> {
+                inicio.await();
+                for (int i = 0; i < likesPorHilo; i++) {
+                    store.darLike(i % 2 == 0 ? 7L : i % 100);
+                    store.buscar(7L).orElseThrow();
+                }
+                return null;
+            }));
+        }
+        inicio.countDown();
+        for (Future<?> tarea : tareas) {
+            tarea.get(30, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        assertEquals((long) hilos * likesPorHilo, store.estadisticas().likes());
+        assertEquals((long) hilos * likesPorHilo, store.listar().stream().mapToLong(Video::getLikes).sum());
+        assertEquals(7L, store.masGustados(1).get(0).getId());
+        assertEquals(1, store.puestoEnRanking(7L));
+    }
+
+    @Test
+    void testResponderIgualQueElAlmacenEnElHeap() {
+        VideoStore referencia = new VideoStore();
+        Random azar = new Random(7);
+        String[] palabras = {"rock", "rocío", "Ritmo", "baile", "bailando", "luna", "Lunes", "sol", "soledad", "mar"};
+        for (int paso = 0; paso < 20_000; paso++) {
+            long id = 1 + azar.nextInt(400);
+            int accion = azar.nextInt(10);
+            if (accion < 4) {
+                String nombre = palabras[azar.nextInt(palabras.length)] + " " + palabras[azar.nextInt(palabras.length)] + " " + id;
+                // Pocos IDs de YouTube distintos: hay duplicados y reemplazos con otro link
+                String link = (azar.nextBoolean() ? "https://youtu.be/" : "https://www.youtube.com/watch?v=") + "yt" + azar.nextInt(600);
+                long likes = azar.nextInt(5);
+                boolean favorito = azar.nextInt(4) == 0;
+                if (accion < 2) {
+                    referencia.agregar(new Video(id, nombre, link, likes, favorito));
+                    store.agregar(new Video(id, nombre, link, likes, favorito));
+                } else {
+                    assertEquals(referencia.agregarSinDuplicar(new Video(id, nombre, link, likes, favorito), v -> { }).map(Video::getId),
+                            store.agregarSinDuplicar(new Video(id, nombre, link, likes, favorito), v -> { }).map(Video::getId));
+                }
+            } else if (accion < 6) {
+                assertEquals(referencia.eliminar(id).map(Video::toString), store.eliminar(id).map(Video::toString));
+            } else if (accion < 9) {
+                assertEquals(referencia.darLike(id), store.darLike(id));
+            } else {
+                assertEquals(referencia.mutar(id, Video::toggleFavorito), store.mutar(id, Video::toggleFavorito));
+            }
+            if (paso % 500 == 0) {
+                compararConsultas(referencia, azar, palabras);
+            }
+        }
+        compararConsultas(referencia, azar, palabras);
+        assertEquals(referencia.fusionarDuplicados(), store.fusionarDuplicados());
+        compararConsultas(referencia, azar, palabras);
+    }
+
+    private void compararConsultas(VideoStore referencia, Random azar, String[] palabras) {
+        assertEquals(textos(referencia.listar()), textos(store.listar()));
+        assertEquals(textos(referencia.listarFavoritos()), textos(store.listarFavoritos()));
+        assertEquals(textos(referencia.valores()), textos(store.valores()));
+        assertEquals(referencia.contar(), store.contar());
+        assertEquals(referencia.estadisticas(), store.estadisticas());
+        assertEquals(recorrer(referencia::pagina), recorrer(store::pagina));
+        assertEquals(recorrer(referencia::paginaFavoritos), recorrer(store::paginaFavoritos));
+        assertEquals(textos(referencia.masGustados(10)), textos(store.masGustados(10)));
+        for (int i = 0; i < 20; i++) {
+            long id = 1 + azar.nextInt(400);
+            assertEquals(referencia.puestoEnRanking(id), store.puestoEnRanking(id), "Puesto de " + id);
+            String youTubeId = "yt" + azar.nextInt(600);
+            assertEquals(referencia.buscarPorYouTubeId(youTubeId).map(Video::toString),
+                    store.buscarPorYouTubeId(youTubeId).map(Video::toString), "ID de YouTube " + youTubeId);
+        }
+        for (String palabra : palabras) {
+            for (String consulta : new String[]{palabra, palabra.substring(0, 2), palabra + " " + palabras[azar.nextInt(palabras.length)].substring(0, 3)}) {
+                assertEquals(textos(referencia.buscarPorNombre(consulta, 15)), textos(store.buscarPorNombre(consulta, 15)),
+                        "Consulta: " + consulta);
+            }
+        }
+    }
+
+    /**
+     * Recorre todas las páginas de a 7 y devuelve cada página con su cursor.
+     */
+    private static List<String> recorrer(BiFunction<Long, Integer, Pagina> paginar) {
+        List<String> paginas = new ArrayList<>();
+        Long cursor = 0L;
+        while (cursor != null) {
+            Pagina pagina = paginar.apply(cursor, 7);
+            paginas.add(textos(pagina.videos()) + " -> " + pagina.siguiente());
+            cursor = pagina.siguiente();
+        }
+        return paginas;
+    }
+
+    private static List<String> textos(Collection<Video> videos) {
+        return videos.stream().map(Video::toString).toList();
+    }
+
+    private static List<Long> ids(List<Video> videos) {
+        return videos.stream().map(Video::getId).toList();
+    }
+}
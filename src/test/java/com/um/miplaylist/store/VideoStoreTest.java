@@ -0,0 +1,51 @@
+package com.um.miplaylist.store;
+
+import com.um.miplaylist.model.Video;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests del almacén concurrente de videos en el heap: los de {@link ConformidadAlmacen} y los propios
+ * de esta implementación.
+ */
+class VideoStoreTest extends ConformidadAlmacen<VideoStore> {
+
+    @Override
+    protected VideoStore crearAlmacen() {
+        return new VideoStore();
+    }
+
+    @Test
+    void testListarComparteLaInstantaneaHastaQueCambie() {
+        store.agregar(new Video(1L, "A", "https://youtu.be/a"));
+        store.agregar(new Video(2L, "B", "https://youtu.be/b"));
+
+        List<Video> primera = store.listar();
+        assertSame(primera, store.listar(), "Sin cambios no debería copiarse la playlist");
+        assertThrows(UnsupportedOperationException.class, () -> primera.add(new Video(3L, "C", "https://youtu.be/c")));
+
+        // Un like no cambia qué videos hay: la lista se comparte y muestra los likes actuales
+        store.darLike(1L);
+        assertSame(primera, store.listar());
+        assertEquals(1, primera.get(0).getLikes());
+
+        List<Video> favoritos = store.listarFavoritos();
+        store.mutar(2L, Video::toggleFavorito);
+        assertSame(primera, store.listar());
+        assertNotSame(favoritos, store.listarFavoritos());
+        assertEquals(List.of(2L), store.listarFavoritos().stream().map(Video::getId).toList());
+
+        store.agregar(new Video(3L, "C", "https://youtu.be/c"));
+        List<Video> segunda = store.listar();
+        assertNotSame(primera, segunda);
+        assertEquals(List.of(1L, 2L), primera.stream().map(Video::getId).toList(), "La instantánea anterior no cambia");
+        assertEquals(List.of(1L, 2L, 3L), segunda.stream().map(Video::getId).toList());
+
+        store.eliminar(2L);
+        assertEquals(List.of(1L, 3L), store.listar().stream().map(Video::getId).toList());
+        assertTrue(store.listarFavoritos().isEmpty());
+    }
+}